@@ -11,11 +11,15 @@ import com.ecoland.model.TerrainType;
 import com.ecoland.model.Tile;
 import com.ecoland.model.World;
 import com.ecoland.simulation.EntityManager;
+import com.ecoland.simulation.RenderSnapshot;
 import com.ecoland.simulation.Simulation;
 import com.ecoland.simulation.Simulation.SimulationState;
+import com.ecoland.simulation.SimulationRunner;
+import com.ecoland.simulation.TickProfile;
 import com.ecoland.ui.WorldRenderer;
 import javafx.animation.AnimationTimer;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -55,6 +59,7 @@ public class EcolandApplication extends Application {
     private static final int CANVAS_SIZE = 750; // Make canvas slightly smaller than window
 
     private Simulation simulation;
+    private SimulationRunner runner; // Ticks the simulation on its own thread; all access goes through it
     private WorldRenderer renderer;
     private Canvas worldCanvas;
     private Label statsLabel;
@@ -64,11 +69,20 @@ public class EcolandApplication extends Application {
     
     // UI Charts for statistics
     private VBox populationChartPane;
+    private Label profileLabel;
+    private boolean profilingEnabled = false;
+    private long lastProfileUpdate = 0; // Frame time of the last profile refresh, in nanoseconds
+    private long lastProfileTick = -1; // Snapshot tick the profile was last fetched at
+    private RuntimeException shownFailure; // Runner failure the user has already been told about
     
     // Simulation control parameters
     private boolean isRunning = false;
-    private long lastUpdate = 0; // For controlling update frequency
     private double targetUpdatesPerSecond = 10.0; // Initial speed
+    private boolean fastForward = false; // Run a batch of ticks per frame instead of the target rate
+    private int ticksPerFrame = 0; // Fast-forward batch size; 0 fills the frame budget
+    private RenderSnapshot lastRendered = null; // Snapshot drawn by the last frame
+    private long lastChartTick = -1;
+    private long lastChartUpdate = 0; // Frame time of the last chart refresh, in nanoseconds
     
     // Zoom and pan controls
     private double zoomLevel = 1.0;
@@ -103,6 +117,8 @@ public class EcolandApplication extends Application {
             // Create simulation with chosen parameters
             simulation = new Simulation(worldWidth, worldHeight, initialHerbivoreCount, initialCarnivoreCount, 
                          initialOmnivoreCount, 0, initialApexPredatorCount, initialDecomposerCount, null);
+            runner = new SimulationRunner(simulation);
+            runner.setTargetTicksPerSecond(targetUpdatesPerSecond);
             
             BorderPane root = new BorderPane();
             root.setPadding(new Insets(10));
@@ -145,7 +161,8 @@ public class EcolandApplication extends Application {
             setupEventHandlers(worldCanvas, scrollPane);
             
             setupGameLoop();
-            // Start paused initially
+            // Start paused initially; the render loop runs regardless and draws each new snapshot
+            gameLoop.start();
             updateUI(); // Initial render
         } else {
             // User cancelled setup dialog
@@ -266,8 +283,7 @@ public class EcolandApplication extends Application {
         Button stepButton = new Button("Step");
         stepButton.setOnAction(e -> {
             if (!isRunning) { // Only allow step when paused
-                simulation.tick();
-                updateUI();
+                runner.step();
             }
         });
         controls.getChildren().addAll(startPauseButton, stepButton);
@@ -340,10 +356,31 @@ public class EcolandApplication extends Application {
         
         speedSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
             targetUpdatesPerSecond = newVal.doubleValue();
+            runner.setTargetTicksPerSecond(targetUpdatesPerSecond);
             speedValueLabel.setText(String.format("%.1f ticks/sec", targetUpdatesPerSecond));
         });
         
-        speedControl.getChildren().addAll(speedTitle, speedSlider, speedValueLabel);
+        // Fast-forward runs many ticks per frame and only draws the last one
+        CheckBox fastForwardToggle = new CheckBox("Fast Forward");
+        ComboBox<String> ticksPerFrameBox = new ComboBox<>();
+        ticksPerFrameBox.getItems().addAll("Fill frame", "5 ticks/frame", "10 ticks/frame",
+                "50 ticks/frame", "100 ticks/frame");
+        ticksPerFrameBox.setValue("Fill frame");
+        ticksPerFrameBox.setDisable(true);
+        ticksPerFrameBox.setOnAction(e -> {
+            String choice = ticksPerFrameBox.getValue();
+            ticksPerFrame = choice.startsWith("Fill") ? 0 : Integer.parseInt(choice.split(" ")[0]);
+            runner.setTicksPerFrame(ticksPerFrame);
+        });
+        fastForwardToggle.setOnAction(e -> {
+            fastForward = fastForwardToggle.isSelected();
+            speedSlider.setDisable(fastForward);
+            ticksPerFrameBox.setDisable(!fastForward);
+            runner.setFastForward(fastForward);
+        });
+        
+        speedControl.getChildren().addAll(speedTitle, speedSlider, speedValueLabel,
+                fastForwardToggle, ticksPerFrameBox);
         
         // --- Zoom Controls ---
         VBox zoomControl = new VBox(5);
@@ -565,8 +602,26 @@ public class EcolandApplication extends Application {
         geneStatsPane.getChildren().addAll(speciesSelectionBox, geneStatsTable);
         geneStatsTab.setContent(geneStatsPane);
         
+        // Tick profile tab
+        Tab profileTab = new Tab("Tick Profile");
+        VBox profilePane = new VBox(10);
+        profilePane.setPadding(new Insets(10));
+        CheckBox profileToggle = new CheckBox("Profile tick phases");
+        profileToggle.setOnAction(e -> {
+            boolean enabled = profileToggle.isSelected();
+            profilingEnabled = enabled;
+            runner.submit(sim -> sim.setProfilingEnabled(enabled));
+            profileLabel.setText(enabled ? "Collecting timings..." : "Profiler is off.");
+        });
+        profileLabel = new Label("Profiler is off.");
+        profileLabel.setFont(Font.font("Monospaced", 11));
+        ScrollPane profileScrollPane = new ScrollPane(profileLabel);
+        profileScrollPane.setFitToWidth(true);
+        profilePane.getChildren().addAll(profileToggle, profileScrollPane);
+        profileTab.setContent(profilePane);
+        
         // Add tabs to tab pane
-        chartTabPane.getTabs().addAll(populationTab, geneStatsTab);
+        chartTabPane.getTabs().addAll(populationTab, geneStatsTab, profileTab);
         
         bottomPanel.getChildren().add(chartTabPane);
         
@@ -610,13 +665,19 @@ public class EcolandApplication extends Application {
             return;
         }
         
+        // Gene statistics read live entities, so compute them on the simulation thread
+        runner.submit(sim -> {
+            Map<String, double[]> geneStats = sim.getDataLogger()
+                .getGeneStats(sim.getEntityManager(), speciesType);
+            Platform.runLater(() -> showGeneStats(geneStatsTable, speciesType, geneStats));
+        });
+    }
+    
+    private void showGeneStats(TableView<GeneStatRow> geneStatsTable, SpeciesType speciesType,
+                               Map<String, double[]> geneStats) {
         // Clear existing data
         geneStatsTable.getItems().clear();
         
-        // Get gene statistics from data logger
-        Map<String, double[]> geneStats = simulation.getDataLogger()
-            .getGeneStats(simulation.getEntityManager(), speciesType);
-        
         // If no stats available, show placeholder message
         if (geneStats.isEmpty()) {
             geneStatsTable.setPlaceholder(new Label("No " + speciesType + " entities to analyze"));
@@ -693,8 +754,7 @@ public class EcolandApplication extends Application {
                     toggleSimulation();
                 } else if (event.getCode() == KeyCode.RIGHT && !isRunning) {
                     // Step forward with right arrow when paused
-                    simulation.tick();
-                    updateUI();
+                    runner.step();
                 } else if (event.getCode() == KeyCode.ESCAPE) {
                     // Clear current tool
                     toolToggleGroup.selectToggle(null);
@@ -706,7 +766,7 @@ public class EcolandApplication extends Application {
     
     private void applyZoom() {
         renderer.setZoom(zoomLevel, viewportX, viewportY);
-        updateUI();
+        lastRendered = null; // Redraw the current snapshot at the new zoom on the next frame
     }
     
     private void placeTool(double canvasX, double canvasY) {
@@ -715,85 +775,67 @@ public class EcolandApplication extends Application {
         
         int x = worldCoords[0];
         int y = worldCoords[1];
+        PlacementTool tool = currentTool;
         
-        if (!simulation.getWorld().isValidCoordinate(x, y)) return;
-        
-        switch (currentTool) {
-            case HERBIVORE:
-                if (!simulation.getEntityManager().isTileOccupied(x, y)) {
-                    Entity herbivore = new com.ecoland.entity.Herbivore(x, y);
-                    simulation.getEntityManager().addEntity(herbivore);
-                    simulation.getEntityManager().updateEntityList();
-                    updateUI();
-                }
-                break;
-                
-            case CARNIVORE:
-                if (!simulation.getEntityManager().isTileOccupied(x, y)) {
-                    Entity carnivore = new com.ecoland.entity.Carnivore(x, y);
-                    simulation.getEntityManager().addEntity(carnivore);
-                    simulation.getEntityManager().updateEntityList();
-                    updateUI();
-                }
-                break;
-                
-            case PLANT:
-                if (!simulation.getEntityManager().isTileOccupied(x, y)) {
-                    Entity plant = new com.ecoland.entity.Plant(x, y);
-                    simulation.getEntityManager().addEntity(plant);
-                    simulation.getEntityManager().updateEntityList();
-                    updateUI();
-                }
-                break;
-                
-            case FOOD:
-                // Add food to the tile
-                Tile tile = simulation.getWorld().getTile(x, y);
-                if (tile != null && tile.getTerrainType() != TerrainType.WATER) {
-                    double currentFood = tile.getPlantFoodValue();
-                    double newFood = currentFood + 2.0;
-                    tile.forceSetPlantFoodValue(newFood);
+        // The simulation is only touched on its own thread; the next snapshot shows the result
+        runner.submit(sim -> {
+            if (!sim.getWorld().isValidCoordinate(x, y)) return;
+            
+            switch (tool) {
+                case HERBIVORE:
+                    placeEntity(sim, new com.ecoland.entity.Herbivore(x, y));
+                    break;
                     
-                    // Show visual feedback in inspector
-                    StringBuilder feedback = new StringBuilder();
-                    feedback.append(String.format("Added food to (%d, %d):\n", x, y));
-                    feedback.append(String.format("Previous food: %.2f\n", currentFood));
-                    feedback.append(String.format("New food: %.2f\n", newFood));
-                    inspectorLabel.setText(feedback.toString());
+                case CARNIVORE:
+                    placeEntity(sim, new com.ecoland.entity.Carnivore(x, y));
+                    break;
                     
-                    updateUI();
-                }
-                break;
-                
-            case DECOMPOSER:
-                if (!simulation.getEntityManager().isTileOccupied(x, y)) {
-                    Entity decomposer = new com.ecoland.entity.Decomposer(x, y);
-                    simulation.getEntityManager().addEntity(decomposer);
-                    simulation.getEntityManager().updateEntityList();
-                    updateUI();
-                }
-                break;
-                
-            case APEX_PREDATOR:
-                if (!simulation.getEntityManager().isTileOccupied(x, y)) {
-                    Entity apexPredator = new com.ecoland.entity.ApexPredator(x, y);
-                    simulation.getEntityManager().addEntity(apexPredator);
-                    simulation.getEntityManager().updateEntityList();
-                    updateUI();
-                }
-                break;
-                
-            case OMNIVORE:
-                if (!simulation.getEntityManager().isTileOccupied(x, y)) {
-                    Entity omnivore = new com.ecoland.entity.Omnivore(x, y);
-                    simulation.getEntityManager().addEntity(omnivore);
-                    simulation.getEntityManager().updateEntityList();
-                    updateUI();
-                }
-                break;
-                
-            default:
-                break;
+                case PLANT:
+                    placeEntity(sim, new com.ecoland.entity.Plant(x, y));
+                    break;
+                    
+                case FOOD:
+                    // Add food to the tile
+                    Tile tile = sim.getWorld().getTile(x, y);
+                    if (tile != null && tile.getTerrainType() != TerrainType.WATER) {
+                        double currentFood = tile.getPlantFoodValue();
+                        double newFood = currentFood + 2.0;
+                        tile.forceSetPlantFoodValue(newFood);
+                        
+                        // Show visual feedback in inspector
+                        StringBuilder feedback = new StringBuilder();
+                        feedback.append(String.format("Added food to (%d, %d):\n", x, y));
+                        feedback.append(String.format("Previous food: %.2f\n", currentFood));
+                        feedback.append(String.format("New food: %.2f\n", newFood));
+                        Platform.runLater(() -> inspectorLabel.setText(feedback.toString()));
+                    }
+                    break;
+                    
+                case DECOMPOSER:
+                    placeEntity(sim, new com.ecoland.entity.Decomposer(x, y));
+                    break;
+                    
+                case APEX_PREDATOR:
+                    placeEntity(sim, new com.ecoland.entity.ApexPredator(x, y));
+                    break;
+                    
+                case OMNIVORE:
+                    placeEntity(sim, new com.ecoland.entity.Omnivore(x, y));
+                    break;
+                    
+                default:
+                    break;
+            }
+        });
+    }
+    
+    /**
+     * Adds a placed entity to the simulation if its tile is free. Runs on the simulation thread.
+     */
+    private static void placeEntity(Simulation sim, Entity entity) {
+        if (!sim.getEntityManager().isTileOccupied(entity.getX(), entity.getY())) {
+            sim.getEntityManager().addEntity(entity);
+            sim.getEntityManager().updateEntityList();
         }
     }
 
@@ -809,14 +851,16 @@ public class EcolandApplication extends Application {
         
         File file = fileChooser.showSaveDialog(primaryStage);
         if (file != null) {
-            try {
-                simulation.getDataLogger().saveData(file.getAbsolutePath());
-                showAlert(Alert.AlertType.INFORMATION, "Data Log Saved", 
-                          "The simulation data log was successfully saved to:\n" + file.getAbsolutePath());
-            } catch (IOException e) {
-                showAlert(Alert.AlertType.ERROR, "Error Saving Data Log", 
-                          "Failed to save the simulation data log: " + e.getMessage());
-            }
+            runner.submit(sim -> {
+                try {
+                    sim.getDataLogger().saveData(file.getAbsolutePath());
+                    Platform.runLater(() -> showAlert(Alert.AlertType.INFORMATION, "Data Log Saved", 
+                              "The simulation data log was successfully saved to:\n" + file.getAbsolutePath()));
+                } catch (IOException e) {
+                    Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Error Saving Data Log", 
+                              "Failed to save the simulation data log: " + e.getMessage()));
+                }
+            });
         }
     }
     
@@ -832,14 +876,19 @@ public class EcolandApplication extends Application {
         File selectedFile = fileChooser.showSaveDialog(primaryStage);
 
         if (selectedFile != null) {
-            boolean success = simulation.saveStateToFile(selectedFile.getAbsolutePath());
-            if (success) {
-                showAlert(Alert.AlertType.INFORMATION, "Save Successful", 
-                          "Simulation state saved to: " + selectedFile.getAbsolutePath());
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Save Failed", 
-                          "Failed to save simulation state");
-            }
+            // Saved between ticks on the simulation thread so the state is consistent
+            runner.submit(sim -> {
+                boolean success = sim.saveStateToFile(selectedFile.getAbsolutePath());
+                Platform.runLater(() -> {
+                    if (success) {
+                        showAlert(Alert.AlertType.INFORMATION, "Save Successful", 
+                                  "Simulation state saved to: " + selectedFile.getAbsolutePath());
+                    } else {
+                        showAlert(Alert.AlertType.ERROR, "Save Failed", 
+                                  "Failed to save simulation state");
+                    }
+                });
+            });
         }
     }
     
@@ -864,8 +913,18 @@ public class EcolandApplication extends Application {
             SimulationState state = Simulation.loadStateFromFile(selectedFile.getAbsolutePath());
             
             if (state != null) {
-                // Create new simulation with loaded state
+                // Create new simulation with loaded state, replacing the old simulation thread
+                runner.shutdown();
                 simulation = new Simulation(state);
+                runner = new SimulationRunner(simulation);
+                runner.setTargetTicksPerSecond(targetUpdatesPerSecond);
+                runner.setTicksPerFrame(ticksPerFrame);
+                runner.setFastForward(fastForward);
+                if (profilingEnabled) {
+                    runner.submit(sim -> sim.setProfilingEnabled(true));
+                }
+                lastChartTick = -1;
+                lastProfileTick = -1;
                 
                 // Update renderer with new world
                 renderer.setWorld(simulation.getWorld());
@@ -901,8 +960,16 @@ public class EcolandApplication extends Application {
     }
     
     private void inspectTile(int x, int y) {
-        Entity entity = simulation.getEntityManager().getEntityAt(x, y);
-        Tile tile = simulation.getWorld().getTile(x, y);
+        // Entity and tile details are read on the simulation thread, then shown on the FX thread
+        runner.submit(sim -> {
+            String info = describeTile(sim, x, y);
+            Platform.runLater(() -> inspectorLabel.setText(info));
+        });
+    }
+    
+    private static String describeTile(Simulation sim, int x, int y) {
+        Entity entity = sim.getEntityManager().getEntityAt(x, y);
+        Tile tile = sim.getWorld().getTile(x, y);
         StringBuilder info = new StringBuilder();
         info.append(String.format("Tile (%d, %d):\n", x, y));
         if (tile != null) {
@@ -927,23 +994,35 @@ public class EcolandApplication extends Application {
              info.append("\nNo entity on this tile.");
         }
 
-        inspectorLabel.setText(info.toString());
+        return info.toString();
     }
 
     private void setupGameLoop() {
+        // Render loop only: ticking happens on the runner's thread, and each frame draws
+        // the newest snapshot it has published, if any
         gameLoop = new AnimationTimer() {
             @Override
             public void handle(long now) {
-                if (!isRunning) {
-                    lastUpdate = now; // Reset lastUpdate when paused
-                    return;
+                // A failed tick pauses the runner; bring the controls in line and report it once
+                RuntimeException failure = runner.getFailure();
+                if (failure != null && failure != shownFailure) {
+                    shownFailure = failure;
+                    if (isRunning) {
+                        toggleSimulation();
+                    }
+                    Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Simulation Failed",
+                        "A simulation tick failed and the simulation was paused:\n" + failure));
                 }
-
-                double intervalNanos = 1_000_000_000.0 / targetUpdatesPerSecond;
-                if (now - lastUpdate >= intervalNanos) {
-                    simulation.tick();
-                    updateUI();
-                    lastUpdate = now;
+                if (runner.getSnapshot() != lastRendered) {
+                    updateUI(now);
+                }
+                // Refresh the tick profile twice a second, only while profiling and only if the
+                // simulation has ticked since: every fetch is a task that interrupts the runner
+                if (profilingEnabled && now - lastProfileUpdate >= 500_000_000L
+                        && runner.getSnapshot().getTick() != lastProfileTick) {
+                    lastProfileUpdate = now;
+                    lastProfileTick = runner.getSnapshot().getTick();
+                    updateProfile();
                 }
             }
         };
@@ -964,32 +1043,37 @@ public class EcolandApplication extends Application {
             }
         }
 
-        if (isRunning) {
-            lastUpdate = System.nanoTime(); // Set initial time when starting
-            gameLoop.start();
-        } else {
-            gameLoop.stop();
-        }
+        runner.setRunning(isRunning);
     }
 
     private void stopSimulation() {
         if (gameLoop != null) {
             gameLoop.stop();
         }
+        if (runner != null) {
+            runner.shutdown();
+        }
         isRunning = false;
         System.out.println("Simulation stopped.");
     }
 
     private void updateUI() {
+        updateUI(System.nanoTime());
+    }
+
+    private void updateUI(long now) {
+        RenderSnapshot snapshot = runner.getSnapshot();
+        lastRendered = snapshot;
+        
         // Update statistics
-        long tick = simulation.getCurrentTick();
-        int herbivoreCount = simulation.getEntityManager().getPopulationCount(SpeciesType.HERBIVORE);
-        int carnivoreCount = simulation.getEntityManager().getPopulationCount(SpeciesType.CARNIVORE);
-        int plantCount = simulation.getEntityManager().getPopulationCount(SpeciesType.PLANT);
-        int decomposerCount = simulation.getEntityManager().getPopulationCount(SpeciesType.DECOMPOSER);
-        int apexPredatorCount = simulation.getEntityManager().getPopulationCount(SpeciesType.APEX_PREDATOR);
-        int omnivoreCount = simulation.getEntityManager().getPopulationCount(SpeciesType.OMNIVORE);
-        int totalPop = simulation.getEntityManager().getTotalPopulation();
+        long tick = snapshot.getTick();
+        int herbivoreCount = snapshot.getPopulationCount(SpeciesType.HERBIVORE);
+        int carnivoreCount = snapshot.getPopulationCount(SpeciesType.CARNIVORE);
+        int plantCount = snapshot.getPopulationCount(SpeciesType.PLANT);
+        int decomposerCount = snapshot.getPopulationCount(SpeciesType.DECOMPOSER);
+        int apexPredatorCount = snapshot.getPopulationCount(SpeciesType.APEX_PREDATOR);
+        int omnivoreCount = snapshot.getPopulationCount(SpeciesType.OMNIVORE);
+        int totalPop = snapshot.getTotalPopulation();
         
         statsLabel.setText(String.format(
             "Tick: %d\n" +
@@ -1004,15 +1088,21 @@ public class EcolandApplication extends Application {
             omnivoreCount, plantCount, decomposerCount
         ));
 
-        // Re-render the world
-        renderer.render(simulation.getEntityManager().getAllEntities());
-        
-        // Update charts every 10 ticks to avoid performance issues
-        if (tick % 10 == 0) {
-            updateCharts();
+        // Re-render the world, including dead bodies, from the snapshot
+        renderer.render(snapshot);
+        
+        // Update charts every 10 ticks to avoid performance issues; frames may skip ticks,
+        // so compare against the tick the charts were last drawn for. In fast-forward every
+        // frame crosses that boundary, so also hold rebuilds to four a second; the history
+        // comes from the data logger, so no logged point is lost in between
+        if (lastChartTick < 0 || (tick / 10 != lastChartTick / 10 && now - lastChartUpdate >= 250_000_000L)) {
+            boolean refreshGeneStats = lastChartTick < 0 || tick / 50 != lastChartTick / 50;
+            lastChartTick = tick;
+            lastChartUpdate = now;
+            updateCharts(snapshot);
             
             // Update gene stats less frequently (every 50 ticks) to improve performance
-            if (tick % 50 == 0) {
+            if (refreshGeneStats) {
                 // Get current selected species from the combobox
                 Scene scene = primaryStage.getScene();
                 if (scene != null) {
@@ -1031,9 +1121,35 @@ public class EcolandApplication extends Application {
         }
     }
     
-    private void updateCharts() {
-        // Get population data from the data logger (last 100 entries max)
-        List<long[]> populationData = simulation.getDataLogger().getPopulationData(100);
+    /**
+     * Fetches the tick profile from the simulation thread and shows p50/p99 per phase.
+     * Only called while profilingEnabled is set, so a disabled profiler costs no tasks.
+     */
+    private void updateProfile() {
+        runner.submit(sim -> {
+            if (!sim.isProfilingEnabled()) {
+                return;
+            }
+            TickProfile profile = sim.getProfile();
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("Last %d ticks, microseconds\n", profile.getTickCount()));
+            text.append(String.format("%-20s %10s %10s\n", "Phase", "p50", "p99"));
+            for (TickProfile.PhaseTiming phase : profile.getPhases()) {
+                text.append(String.format("%-20s %10.1f %10.1f\n",
+                    phase.getName(), phase.getP50() / 1e3, phase.getP99() / 1e3));
+            }
+            Platform.runLater(() -> {
+                // The profiler may have been switched off while this was queued
+                if (profilingEnabled) {
+                    profileLabel.setText(text.toString());
+                }
+            });
+        });
+    }
+    
+    private void updateCharts(RenderSnapshot snapshot) {
+        // Get population data copied from the data logger (last 100 entries max)
+        List<long[]> populationData = snapshot.getPopulationHistory();
         
         if (populationData.isEmpty()) {
             // If no data yet, just show placeholder
@@ -1120,9 +1236,12 @@ public class EcolandApplication extends Application {
      * @param useNeural Whether to use neural behavior or not
      */
     private void toggleEntityNeuralBehavior(SpeciesType type, boolean useNeural) {
-        if (simulation == null) return;
+        if (runner == null) return;
         
-        EntityManager entityManager = simulation.getEntityManager();
+        runner.submit(sim -> setNeuralBehavior(sim.getEntityManager(), type, useNeural));
+    }
+    
+    private static void setNeuralBehavior(EntityManager entityManager, SpeciesType type, boolean useNeural) {
         for (Entity entity : entityManager.getAllEntities()) {
             if (entity.getSpeciesType() == type) {
                 if (type == SpeciesType.HERBIVORE && entity instanceof Herbivore) {
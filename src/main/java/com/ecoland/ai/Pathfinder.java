@@ -4,6 +4,7 @@ import com.ecoland.model.TerrainType;
 import com.ecoland.model.World;
 import com.ecoland.entity.Entity; // Needed for movement cost checks potentially
 import com.ecoland.model.Tile;
+import com.ecoland.common.RandomStreams;
 
 import java.util.*;
 
@@ -178,7 +179,7 @@ public class Pathfinder {
         
         if (magnitude < 0.1) {
             // If entity is at same position as threat (rare case), pick a random direction
-            double randomAngle = Math.random() * 2 * Math.PI;
+            double randomAngle = RandomStreams.current().nextDouble() * 2 * Math.PI;
             targetX = entityX + (int)(fleeDistance * Math.cos(randomAngle));
             targetY = entityY + (int)(fleeDistance * Math.sin(randomAngle));
         } else {
@@ -0,0 +1,135 @@
+package com.ecoland.ai.nn;
+
+/**
+ * Sigmoid implementations the networks can use, trading accuracy for speed.
+ * Brain decisions are thresholds on the outputs (eat above 0.6, reproduce above 0.7), so the
+ * approximations rarely change a decision; the error bound of each is the largest absolute
+ * difference from the exact sigmoid over all inputs.
+ * A Simulation binds its activation to the threads running its entities, like RandomStreams,
+ * so brains use it without being handed it; threads with nothing bound use EXACT.
+ */
+public enum Activation {
+    /**
+     * 1 / (1 + e^-x) with Math.exp. Error bound: 0, this is the reference.
+     */
+    EXACT {
+        @Override
+        public double apply(double x) {
+            return 1.0 / (1.0 + Math.exp(-x));
+        }
+
+        @Override
+        public void applyAll(double[] values, int from, int to) {
+            for (int i = from; i < to; i++) {
+                values[i] = 1.0 / (1.0 + Math.exp(-values[i]));
+            }
+        }
+    },
+
+    /**
+     * Linear interpolation in a table of the sigmoid at steps of 1/32 over [-16, 16], and the
+     * end values beyond it. Error bound: 1.2e-5 (interpolation error is at most step^2 / 8 times
+     * the largest |sigmoid''|, about 0.096; the clamped tails are within 1.2e-7).
+     */
+    LOOKUP_TABLE {
+        @Override
+        public double apply(double x) {
+            return lookup(x);
+        }
+
+        @Override
+        public void applyAll(double[] values, int from, int to) {
+            for (int i = from; i < to; i++) {
+                values[i] = lookup(values[i]);
+            }
+        }
+    },
+
+    /**
+     * 0.5 + 0.5 * tanh(x / 2) with tanh(y) taken as the Pade approximant
+     * y (27 + y^2) / (27 + 9 y^2), clamped to 0 and 1 for |x| of 6 and more. No exp or table.
+     * Error bound: 0.012, largest near |x| = 3.1.
+     */
+    RATIONAL {
+        @Override
+        public double apply(double x) {
+            return rational(x);
+        }
+
+        @Override
+        public void applyAll(double[] values, int from, int to) {
+            for (int i = from; i < to; i++) {
+                values[i] = rational(values[i]);
+            }
+        }
+    };
+
+    /**
+     * Computes the sigmoid of one value.
+     */
+    public abstract double apply(double x);
+
+    /**
+     * Replaces values[from] to values[to - 1] with their sigmoids; one call per layer keeps
+     * the choice of implementation out of the per-neuron loop.
+     */
+    public abstract void applyAll(double[] values, int from, int to);
+
+    private static final ThreadLocal<Activation> BOUND = ThreadLocal.withInitial(() -> EXACT);
+
+    /**
+     * Gets the activation bound to the current thread.
+     */
+    public static Activation current() {
+        return BOUND.get();
+    }
+
+    /**
+     * Binds an activation to the current thread.
+     * @param activation The activation to bind.
+     * @return The previously bound activation, to restore with another call to bind once done.
+     */
+    public static Activation bind(Activation activation) {
+        Activation previous = BOUND.get();
+        BOUND.set(activation);
+        return previous;
+    }
+
+    // Lookup table: sigmoid at TABLE_MIN + i / TABLE_SCALE
+    private static final double TABLE_MIN = -16.0;
+    private static final double TABLE_SCALE = 32.0;
+    private static final double[] TABLE = buildTable();
+
+    private static double[] buildTable() {
+        double[] table = new double[(int) (-2 * TABLE_MIN * TABLE_SCALE) + 1];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = 1.0 / (1.0 + Math.exp(-(TABLE_MIN + i / TABLE_SCALE)));
+        }
+        return table;
+    }
+
+    private static double lookup(double x) {
+        double position = (x - TABLE_MIN) * TABLE_SCALE;
+        if (!(position > 0)) {
+            return TABLE[0]; // Also catches NaN
+        }
+        if (position >= TABLE.length - 1) {
+            return TABLE[TABLE.length - 1];
+        }
+        int index = (int) position;
+        double fraction = position - index;
+        return TABLE[index] + (TABLE[index + 1] - TABLE[index]) * fraction;
+    }
+
+    private static double rational(double x) {
+        if (x >= 6.0) {
+            return 1.0;
+        }
+        if (x <= -6.0) {
+            return 0.0;
+        }
+        double y = 0.5 * x;
+        double y2 = y * y;
+        return 0.5 + 0.5 * y * (27.0 + y2) / (27.0 + 9.0 * y2);
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecoland.ai.nn;
+
+import com.ecoland.common.RandomStreams;
+
+import java.util.SplittableRandom;
+
+/**
+ * Times every Activation, on its own and inside AnimalBrain-sized feedForward calls, and
+ * measures its largest error against the exact sigmoid.
+ *
+ * Usage: ActivationBenchmark [networks]
+ */
+public class ActivationBenchmark {
+    private static final int ROUNDS = 5; // The first rounds warm up the JIT; the last is reported
+    private static final int VALUES = 4096;
+    private static final int VALUE_PASSES = 2000;
+    private static final int NETWORK_CALLS = 2_000_000;
+
+    // Same shape as the network of every AnimalBrain
+    private static final int INPUT_SIZE = 18;
+    private static final int HIDDEN_SIZE = 12;
+    private static final int OUTPUT_SIZE = 5;
+
+    // Sink for results so the JIT cannot drop the timed work
+    private static double sink;
+
+    public static void main(String[] args) {
+        int networkCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        SplittableRandom random = new SplittableRandom(1);
+        RandomStreams.bind(random.split());
+
+        // Pre-activation values as the networks produce them: mostly within a few units of 0
+        double[] values = new double[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = random.nextGaussian() * 3.0;
+        }
+        NeuralNetwork[] networks = new NeuralNetwork[networkCount];
+        double[][] inputs = new double[networkCount][];
+        for (int n = 0; n < networkCount; n++) {
+            networks[n] = new NeuralNetwork(INPUT_SIZE, HIDDEN_SIZE, OUTPUT_SIZE);
+            inputs[n] = new double[INPUT_SIZE];
+            for (int i = 0; i < INPUT_SIZE; i++) {
+                inputs[n][i] = random.nextDouble() * 2 - 1;
+            }
+        }
+
+        System.out.printf("%-13s %12s %16s %14s%n", "Activation", "ns/sigmoid", "ns/feedForward", "max error");
+        double[] buffer = new double[VALUES];
+        double[] hidden = new double[HIDDEN_SIZE];
+        double[] outputs = new double[OUTPUT_SIZE];
+        for (Activation activation : Activation.values()) {
+            double sigmoidNanos = 0;
+            double networkNanos = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (int pass = 0; pass < VALUE_PASSES; pass++) {
+                    System.arraycopy(values, 0, buffer, 0, VALUES);
+                    activation.applyAll(buffer, 0, VALUES);
+                    sink += buffer[pass % VALUES];
+                }
+                sigmoidNanos = (System.nanoTime() - start) / ((double) VALUE_PASSES * VALUES);
+
+                start = System.nanoTime();
+                for (int call = 0; call < NETWORK_CALLS; call++) {
+                    int n = call % networkCount;
+                    networks[n].feedForward(inputs[n], hidden, outputs, activation);
+                    sink += outputs[0];
+                }
+                networkNanos = (System.nanoTime() - start) / (double) NETWORK_CALLS;
+            }
+            System.out.printf("%-13s %12.2f %16.1f %14.2e%n", activation, sigmoidNanos, networkNanos, maxError(activation));
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    // Largest difference from the exact sigmoid over [-20, 20] in steps of 1/1024
+    private static double maxError(Activation activation) {
+        double max = 0;
+        for (int i = -20 * 1024; i <= 20 * 1024; i++) {
+            double x = i / 1024.0;
+            max = Math.max(max, Math.abs(activation.apply(x) - Activation.EXACT.apply(x)));
+        }
+        return max;
+    }
+}
@@ -6,9 +6,14 @@ import com.ecoland.model.Tile;
 import com.ecoland.model.TerrainType;
 import com.ecoland.model.World;
 import com.ecoland.simulation.EntityManager;
+import com.ecoland.common.RandomStreams;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Represents an animal's brain using a neural network for decision making.
@@ -33,9 +38,26 @@ public class AnimalBrain implements Serializable {
     private static final int OUTPUT_REPRODUCE = 3; // Threshold for reproduction
     private static final int OUTPUT_AGGRESSION = 4; // Threshold for attacking
     
+    private static final int SPECIES_COUNT = SpeciesType.values().length;
+    
+    private static final Predicate<Entity> ANY_ENTITY = other -> true;
+    
     // Vision range (how far the animal can "see")
     private final int visionRange;
     
+    // Buffers reused by every decision, so inference allocates nothing; created on first use
+    private transient double[] inputBuffer;
+    private transient double[] hiddenBuffer;
+    private transient double[] outputBuffer;
+    
+    // Reused by the brain's entity queries, so gathering inputs allocates nothing either
+    private transient List<Entity> nearbyBuffer;
+    private transient SpeciesCounter speciesCounter;
+    private transient StrongerThan strongerThan;
+    
+    // Set once BatchInference has written the network outputs for the prepared inputs
+    private transient boolean outputsReady;
+    
     // Behavior modifiers (allows personality variation among individuals)
     private double aggressionModifier = 1.0;
     private double hungerSensitivity = 1.0;
@@ -67,20 +89,20 @@ public class AnimalBrain implements Serializable {
         this.fearResponse = other.fearResponse;
         
         // Add mutation to personality traits (10% chance for each trait)
-        if (Math.random() < 0.1) {
-            this.aggressionModifier += (Math.random() * 0.4) - 0.2; // +/- 0.2
+        if (RandomStreams.current().nextDouble() < 0.1) {
+            this.aggressionModifier += (RandomStreams.current().nextDouble() * 0.4) - 0.2; // +/- 0.2
             this.aggressionModifier = Math.max(0.2, Math.min(2.0, this.aggressionModifier));
         }
-        if (Math.random() < 0.1) {
-            this.hungerSensitivity += (Math.random() * 0.4) - 0.2; // +/- 0.2
+        if (RandomStreams.current().nextDouble() < 0.1) {
+            this.hungerSensitivity += (RandomStreams.current().nextDouble() * 0.4) - 0.2; // +/- 0.2
             this.hungerSensitivity = Math.max(0.2, Math.min(2.0, this.hungerSensitivity));
         }
-        if (Math.random() < 0.1) {
-            this.reproductiveUrge += (Math.random() * 0.4) - 0.2; // +/- 0.2
+        if (RandomStreams.current().nextDouble() < 0.1) {
+            this.reproductiveUrge += (RandomStreams.current().nextDouble() * 0.4) - 0.2; // +/- 0.2
             this.reproductiveUrge = Math.max(0.2, Math.min(2.0, this.reproductiveUrge));
         }
-        if (Math.random() < 0.1) {
-            this.fearResponse += (Math.random() * 0.4) - 0.2; // +/- 0.2
+        if (RandomStreams.current().nextDouble() < 0.1) {
+            this.fearResponse += (RandomStreams.current().nextDouble() * 0.4) - 0.2; // +/- 0.2
             this.fearResponse = Math.max(0.2, Math.min(2.0, this.fearResponse));
         }
     }
@@ -102,10 +124,10 @@ public class AnimalBrain implements Serializable {
      */
     private void initializePersonality() {
         // Generate random personality traits
-        this.aggressionModifier = 0.7 + (Math.random() * 0.6); // 0.7-1.3
-        this.hungerSensitivity = 0.7 + (Math.random() * 0.6); // 0.7-1.3
-        this.reproductiveUrge = 0.7 + (Math.random() * 0.6); // 0.7-1.3
-        this.fearResponse = 0.7 + (Math.random() * 0.6); // 0.7-1.3
+        this.aggressionModifier = 0.7 + (RandomStreams.current().nextDouble() * 0.6); // 0.7-1.3
+        this.hungerSensitivity = 0.7 + (RandomStreams.current().nextDouble() * 0.6); // 0.7-1.3
+        this.reproductiveUrge = 0.7 + (RandomStreams.current().nextDouble() * 0.6); // 0.7-1.3
+        this.fearResponse = 0.7 + (RandomStreams.current().nextDouble() * 0.6); // 0.7-1.3
     }
     
     /**
@@ -121,41 +143,41 @@ public class AnimalBrain implements Serializable {
         
         // Average vision range (with possible mutation)
         int childVisionRange = (parent1.visionRange + parent2.visionRange) / 2;
-        if (Math.random() < 0.1) { // 10% mutation chance
-            childVisionRange += (Math.random() > 0.5) ? 1 : -1; // Increase or decrease by 1
+        if (RandomStreams.current().nextDouble() < 0.1) { // 10% mutation chance
+            childVisionRange += (RandomStreams.current().nextDouble() > 0.5) ? 1 : -1; // Increase or decrease by 1
             if (childVisionRange < 1) childVisionRange = 1; // Ensure positive
         }
         
         AnimalBrain childBrain = new AnimalBrain(childNetwork, childVisionRange);
         
         // Inherit personality traits from parents with crossover
-        if (Math.random() < 0.5) {
+        if (RandomStreams.current().nextDouble() < 0.5) {
             childBrain.aggressionModifier = parent1.aggressionModifier;
         } else {
             childBrain.aggressionModifier = parent2.aggressionModifier;
         }
         
-        if (Math.random() < 0.5) {
+        if (RandomStreams.current().nextDouble() < 0.5) {
             childBrain.hungerSensitivity = parent1.hungerSensitivity;
         } else {
             childBrain.hungerSensitivity = parent2.hungerSensitivity;
         }
         
-        if (Math.random() < 0.5) {
+        if (RandomStreams.current().nextDouble() < 0.5) {
             childBrain.reproductiveUrge = parent1.reproductiveUrge;
         } else {
             childBrain.reproductiveUrge = parent2.reproductiveUrge;
         }
         
-        if (Math.random() < 0.5) {
+        if (RandomStreams.current().nextDouble() < 0.5) {
             childBrain.fearResponse = parent1.fearResponse;
         } else {
             childBrain.fearResponse = parent2.fearResponse;
         }
         
         // Add mutation to personality traits (10% chance for each trait)
-        if (Math.random() < 0.1) {
-            childBrain.aggressionModifier += (Math.random() * 0.4) - 0.2; // +/- 0.2
+        if (RandomStreams.current().nextDouble() < 0.1) {
+            childBrain.aggressionModifier += (RandomStreams.current().nextDouble() * 0.4) - 0.2; // +/- 0.2
             childBrain.aggressionModifier = Math.max(0.2, Math.min(2.0, childBrain.aggressionModifier));
         }
         
@@ -171,11 +193,18 @@ public class AnimalBrain implements Serializable {
      * @return An array containing the decision [moveX, moveY, eat, reproduce, attack]
      */
     public BrainDecision makeDecision(Entity entity, World world, EntityManager entityManager) {
-        // Prepare sensory inputs
-        double[] inputs = gatherSensoryInputs(entity, world, entityManager);
-        
-        // Process through neural network
-        double[] outputs = network.feedForward(inputs);
+        ensureBuffers();
+        double[] outputs = outputBuffer;
+        if (outputsReady) {
+            // Inputs were gathered by prepareInputs and run through the network in a batch
+            outputsReady = false;
+        } else {
+            // Prepare sensory inputs
+            double[] inputs = gatherSensoryInputs(entity, world, entityManager, inputBuffer);
+            
+            // Process through neural network
+            network.feedForward(inputs, hiddenBuffer, outputs);
+        }
         
         // Apply personality modifiers to outputs
         if (entity.getSpeciesType() == SpeciesType.CARNIVORE) {
@@ -253,16 +282,97 @@ public class AnimalBrain implements Serializable {
         return new BrainDecision(moveX, moveY, eat, reproduce, attack);
     }
     
+    /**
+     * Gathers this brain's sensory inputs for the coming decision so BatchInference can run
+     * the network for many brains at once. The next makeDecision then uses the batch outputs
+     * instead of gathering and running the network itself. Only reads the world, like makeDecision.
+     * 
+     * @param entity The entity that will make the decision
+     * @param world The world state
+     * @param entityManager The entity manager
+     */
+    public void prepareInputs(Entity entity, World world, EntityManager entityManager) {
+        ensureBuffers();
+        gatherSensoryInputs(entity, world, entityManager, inputBuffer);
+        outputsReady = false;
+    }
+    
+    NeuralNetwork getNetwork() {
+        return network;
+    }
+    
+    double[] getInputBuffer() {
+        return inputBuffer;
+    }
+    
+    /**
+     * Gets the buffer BatchInference writes the outputs into, and marks them as ready.
+     */
+    double[] acceptOutputs() {
+        outputsReady = true;
+        return outputBuffer;
+    }
+    
+    /**
+     * Gets the buffer this brain's range queries fill. Every query clears it, so one result
+     * must be finished with before the next query runs.
+     */
+    List<Entity> nearbyBuffer() {
+        if (nearbyBuffer == null) {
+            nearbyBuffer = new ArrayList<>();
+        }
+        return nearbyBuffer;
+    }
+    
+    private void ensureBuffers() {
+        if (inputBuffer == null) {
+            inputBuffer = new double[INPUT_SIZE];
+            hiddenBuffer = new double[HIDDEN_SIZE];
+            outputBuffer = new double[OUTPUT_SIZE];
+            speciesCounter = new SpeciesCounter();
+            strongerThan = new StrongerThan();
+        }
+    }
+    
+    /**
+     * Counts the entities of each species a square query visits, other than the observer itself.
+     */
+    private static final class SpeciesCounter implements Consumer<Entity> {
+        final int[] counts = new int[SPECIES_COUNT];
+        Entity observer;
+        
+        @Override
+        public void accept(Entity other) {
+            if (other != observer) {
+                counts[other.getSpeciesType().ordinal()]++;
+            }
+        }
+    }
+    
+    /**
+     * Matches entities other than the observer whose health is above a threshold.
+     */
+    private static final class StrongerThan implements Predicate<Entity> {
+        Entity observer;
+        double minHealth;
+        
+        @Override
+        public boolean test(Entity other) {
+            return other != observer && other.getHealth() > minHealth;
+        }
+    }
+    
     /**
      * Gather sensory inputs from the entity's surroundings.
      * 
      * @param entity The entity
      * @param world The world state
      * @param entityManager The entity manager
-     * @return An array of normalized sensory inputs
+     * @param inputs Buffer of INPUT_SIZE to fill
+     * @return The buffer, filled with normalized sensory inputs
      */
-    private double[] gatherSensoryInputs(Entity entity, World world, EntityManager entityManager) {
-        double[] inputs = new double[INPUT_SIZE];
+    private double[] gatherSensoryInputs(Entity entity, World world, EntityManager entityManager, double[] inputs) {
+        Arrays.fill(inputs, 0);
         int x = entity.getX();
         int y = entity.getY();
         
@@ -289,20 +399,15 @@ public class AnimalBrain implements Serializable {
         inputs[14] = currentTile != null ? currentTile.getFertility() : 0; // Local fertility
         
         // 4. Population density in vision range (normalized)
-        int herbivoreCount = 0;
-        int carnivoreCount = 0;
-        int plantCount = 0;
-        
-        List<Entity> entitiesInRange = entityManager.getEntitiesInRange(x, y, visionRange);
-        for (Entity other : entitiesInRange) {
-            if (other == entity || !other.isAlive()) continue;
-            
-            switch (other.getSpeciesType()) {
-                case HERBIVORE: herbivoreCount++; break;
-                case CARNIVORE: carnivoreCount++; break;
-                case PLANT: plantCount++; break;
-            }
-        }
+        SpeciesCounter counter = speciesCounter;
+        int[] speciesCounts = counter.counts;
+        Arrays.fill(speciesCounts, 0);
+        counter.observer = entity;
+        entityManager.forEachInSquare(x, y, visionRange, counter);
+        counter.observer = null;
+        int herbivoreCount = speciesCounts[SpeciesType.HERBIVORE.ordinal()];
+        int carnivoreCount = speciesCounts[SpeciesType.CARNIVORE.ordinal()];
+        int plantCount = speciesCounts[SpeciesType.PLANT.ordinal()];
         
         // Calculate local population density (normalized to vision range area)
         double visionArea = Math.PI * visionRange * visionRange;
@@ -337,8 +442,9 @@ public class AnimalBrain implements Serializable {
                     if (!world.isValidCoordinate(scanX, scanY)) continue;
                     
                     // Skip if outside of vision circle
-                    double distSq = Math.pow(scanX - x, 2) + Math.pow(scanY - y, 2);
-                    if (distSq > visionRange * visionRange) continue;
+                    int dx = scanX - x;
+                    int dy = scanY - y;
+                    if (dx * dx + dy * dy > visionRange * visionRange) continue;
                     
                     Tile tile = world.getTile(scanX, scanY);
                     if (tile != null && tile.getTerrainType() != TerrainType.WATER) {
@@ -354,7 +460,9 @@ public class AnimalBrain implements Serializable {
             }
             
             if (foundFood) {
-                double distance = Math.sqrt(Math.pow(bestFoodX - x, 2) + Math.pow(bestFoodY - y, 2));
+                int dx = bestFoodX - x;
+                int dy = bestFoodY - y;
+                double distance = Math.sqrt(dx * dx + dy * dy);
                 double normalizedDistance = Math.max(0, 1 - (distance / visionRange));
                 
                 inputs[3] = normalizedDistance; // Food distance
@@ -371,45 +479,13 @@ public class AnimalBrain implements Serializable {
         int x = entity.getX();
         int y = entity.getY();
         
-        Entity nearestPrey = null;
-        Entity nearestPredator = null;
-        double nearestPreyDistance = Double.MAX_VALUE;
-        double nearestPredatorDistance = Double.MAX_VALUE;
-        
-        // Get all entities in vision range
-        List<Entity> nearbyEntities = entityManager.getEntitiesInRange(x, y, visionRange);
-        
-        for (Entity other : nearbyEntities) {
-            if (other == entity || !other.isAlive()) continue;
-            
-            double distance = Math.sqrt(Math.pow(other.getX() - x, 2) + Math.pow(other.getY() - y, 2));
-            
-            // If carnivore, herbivores are prey
-            if (entity.getSpeciesType() == SpeciesType.CARNIVORE && other.getSpeciesType() == SpeciesType.HERBIVORE) {
-                if (distance < nearestPreyDistance) {
-                    nearestPrey = other;
-                    nearestPreyDistance = distance;
-                }
-            }
-            // If herbivore, carnivores are predators
-            else if (entity.getSpeciesType() == SpeciesType.HERBIVORE && other.getSpeciesType() == SpeciesType.CARNIVORE) {
-                if (distance < nearestPredatorDistance) {
-                    nearestPredator = other;
-                    nearestPredatorDistance = distance;
-                }
-            }
-            // If carnivore, stronger carnivores could be threats
-            else if (entity.getSpeciesType() == SpeciesType.CARNIVORE && other.getSpeciesType() == SpeciesType.CARNIVORE) {
-                // Check if the other carnivore is significantly stronger
-                if (other.getHealth() > entity.getHealth() * 1.5 && distance < nearestPredatorDistance) {
-                    nearestPredator = other;
-                    nearestPredatorDistance = distance;
-                }
-            }
-        }
+        // One nearest-neighbour search per target species; the index only visits that species
+        Entity nearestPrey = findNearestPrey(entity, entityManager);
+        Entity nearestPredator = findNearestPredator(entity, entityManager);
         
         // Update prey inputs
-        if (nearestPrey != null && nearestPreyDistance <= visionRange) {
+        if (nearestPrey != null && distanceSq(nearestPrey, x, y) <= visionRange * visionRange) {
+            double nearestPreyDistance = Math.sqrt(distanceSq(nearestPrey, x, y));
             double normalizedDistance = Math.max(0, 1 - (nearestPreyDistance / visionRange));
             inputs[6] = normalizedDistance; // Prey distance
             inputs[7] = nearestPreyDistance > 0 ? (nearestPrey.getX() - x) / nearestPreyDistance : 0; // Direction X
@@ -418,7 +494,8 @@ public class AnimalBrain implements Serializable {
         }
         
         // Update predator inputs
-        if (nearestPredator != null && nearestPredatorDistance <= visionRange) {
+        if (nearestPredator != null && distanceSq(nearestPredator, x, y) <= visionRange * visionRange) {
+            double nearestPredatorDistance = Math.sqrt(distanceSq(nearestPredator, x, y));
             double normalizedDistance = Math.max(0, 1 - (nearestPredatorDistance / visionRange));
             inputs[10] = normalizedDistance; // Predator distance
             inputs[11] = nearestPredatorDistance > 0 ? (nearestPredator.getX() - x) / nearestPredatorDistance : 0; // Direction X
@@ -433,69 +510,35 @@ public class AnimalBrain implements Serializable {
     private Entity findNearestPrey(Entity entity, EntityManager entityManager) {
         if (entity.getSpeciesType() != SpeciesType.CARNIVORE) return null;
         
-        Entity nearestPrey = null;
-        double nearestDistance = Double.MAX_VALUE;
-        
-        List<Entity> entitiesInRange = entityManager.getEntitiesInRange(
-                entity.getX(), entity.getY(), visionRange);
-        
-        for (Entity other : entitiesInRange) {
-            if (!other.isAlive() || other.getSpeciesType() != SpeciesType.HERBIVORE) continue;
-            
-            double distance = Math.sqrt(
-                    Math.pow(other.getX() - entity.getX(), 2) + 
-                    Math.pow(other.getY() - entity.getY(), 2));
-            
-            if (distance < nearestDistance) {
-                nearestDistance = distance;
-                nearestPrey = other;
-            }
-        }
-        
-        return nearestPrey;
+        return entityManager.findNearest(entity.getX(), entity.getY(), visionRange, SpeciesType.HERBIVORE, ANY_ENTITY);
     }
     
     /**
      * Find the nearest predator entity for a herbivore or weaker carnivore.
      */
     private Entity findNearestPredator(Entity entity, EntityManager entityManager) {
-        Entity nearestPredator = null;
-        double nearestDistance = Double.MAX_VALUE;
-        
-        List<Entity> entitiesInRange = entityManager.getEntitiesInRange(
-                entity.getX(), entity.getY(), visionRange);
-        
-        for (Entity other : entitiesInRange) {
-            if (!other.isAlive()) continue;
-            
-            // For herbivores, all carnivores are predators
-            if (entity.getSpeciesType() == SpeciesType.HERBIVORE && other.getSpeciesType() == SpeciesType.CARNIVORE) {
-                double distance = Math.sqrt(
-                        Math.pow(other.getX() - entity.getX(), 2) + 
-                        Math.pow(other.getY() - entity.getY(), 2));
-                
-                if (distance < nearestDistance) {
-                    nearestDistance = distance;
-                    nearestPredator = other;
-                }
-            }
-            // For carnivores, stronger carnivores could be threats
-            else if (entity.getSpeciesType() == SpeciesType.CARNIVORE && 
-                    other.getSpeciesType() == SpeciesType.CARNIVORE &&
-                    other.getHealth() > entity.getHealth() * 1.5) {
-                
-                double distance = Math.sqrt(
-                        Math.pow(other.getX() - entity.getX(), 2) + 
-                        Math.pow(other.getY() - entity.getY(), 2));
-                
-                if (distance < nearestDistance) {
-                    nearestDistance = distance;
-                    nearestPredator = other;
-                }
-            }
+        // For herbivores, all carnivores are predators
+        if (entity.getSpeciesType() == SpeciesType.HERBIVORE) {
+            return entityManager.findNearest(entity.getX(), entity.getY(), visionRange, SpeciesType.CARNIVORE,
+                    ANY_ENTITY);
         }
-        
-        return nearestPredator;
+        // For carnivores, stronger carnivores could be threats
+        if (entity.getSpeciesType() == SpeciesType.CARNIVORE) {
+            StrongerThan threat = strongerThan;
+            threat.observer = entity;
+            threat.minHealth = entity.getHealth() * 1.5;
+            Entity nearest = entityManager.findNearest(entity.getX(), entity.getY(), visionRange,
+                    SpeciesType.CARNIVORE, threat);
+            threat.observer = null;
+            return nearest;
+        }
+        return null;
+    }
+    
+    private static long distanceSq(Entity other, int x, int y) {
+        long dx = other.getX() - x;
+        long dy = other.getY() - y;
+        return dx * dx + dy * dy;
     }
     
     /**
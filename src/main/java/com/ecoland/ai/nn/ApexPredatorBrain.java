@@ -4,6 +4,7 @@ import com.ecoland.entity.Entity;
 import com.ecoland.entity.SpeciesType;
 import com.ecoland.model.World;
 import com.ecoland.simulation.EntityManager;
+import com.ecoland.common.RandomStreams;
 
 import java.util.List;
 import java.util.ArrayList;
@@ -52,11 +53,11 @@ public class ApexPredatorBrain extends AnimalBrain {
     public ApexPredatorBrain(int visionRange) {
         super(visionRange);
         // Initialize apex predator-specific features with randomization
-        this.learningRate = 0.12 + Math.random() * 0.08; // 0.12-0.20
-        this.territorialism = 0.8 + Math.random() * 0.6; // 0.8-1.4
-        this.huntingProficiency = 0.9 + Math.random() * 0.6; // 0.9-1.5
-        this.staminaEfficiency = 0.9 + Math.random() * 0.3; // 0.9-1.2
-        this.aggressionLevel = 0.8 + Math.random() * 0.7; // 0.8-1.5
+        this.learningRate = 0.12 + RandomStreams.current().nextDouble() * 0.08; // 0.12-0.20
+        this.territorialism = 0.8 + RandomStreams.current().nextDouble() * 0.6; // 0.8-1.4
+        this.huntingProficiency = 0.9 + RandomStreams.current().nextDouble() * 0.6; // 0.9-1.5
+        this.staminaEfficiency = 0.9 + RandomStreams.current().nextDouble() * 0.3; // 0.9-1.2
+        this.aggressionLevel = 0.8 + RandomStreams.current().nextDouble() * 0.7; // 0.8-1.5
     }
     
     /**
@@ -83,8 +84,8 @@ public class ApexPredatorBrain extends AnimalBrain {
             // If parent has a territory, inherit a position near it
             if (parent.territoryCenter != null) {
                 this.territoryCenter = new int[]{
-                    parent.territoryCenter[0] + (int)(Math.random() * 10) - 5,
-                    parent.territoryCenter[1] + (int)(Math.random() * 10) - 5
+                    parent.territoryCenter[0] + (int)(RandomStreams.current().nextDouble() * 10) - 5,
+                    parent.territoryCenter[1] + (int)(RandomStreams.current().nextDouble() * 10) - 5
                 };
                 this.territoryRadius = parent.territoryRadius * 0.8;
             }
@@ -104,7 +105,7 @@ public class ApexPredatorBrain extends AnimalBrain {
         // Establish territory if not already set
         if (territoryCenter == null) {
             territoryCenter = new int[]{entity.getX(), entity.getY()};
-            territoryRadius = 10.0 + (Math.random() * 10); // 10-20 radius
+            territoryRadius = 10.0 + (RandomStreams.current().nextDouble() * 10); // 10-20 radius
         }
         
         // Gather enhanced apex predator-specific inputs
@@ -205,7 +206,7 @@ public class ApexPredatorBrain extends AnimalBrain {
             }
             
             // Learning: Successful hunt improves hunting proficiency
-            if (Math.random() < learningRate) {
+            if (RandomStreams.current().nextDouble() < learningRate) {
                 huntingProficiency = Math.min(2.0, huntingProficiency + 0.03);
                 System.out.println("Apex predator improved hunting to: " + huntingProficiency);
             }
@@ -215,7 +216,7 @@ public class ApexPredatorBrain extends AnimalBrain {
             failedHuntCounter++;
             
             // Too many consecutive failed hunts reduces aggression
-            if (failedHuntCounter > 3 && Math.random() < learningRate * 0.5) {
+            if (failedHuntCounter > 3 && RandomStreams.current().nextDouble() < learningRate * 0.5) {
                 aggressionLevel = Math.max(0.7, aggressionLevel - 0.05);
             }
         }
@@ -240,7 +241,7 @@ public class ApexPredatorBrain extends AnimalBrain {
                 int avgY = sumY / successfulHuntLocations.size();
                 
                 // Gradually shift territory center toward successful hunting grounds
-                if (Math.random() < learningRate * 0.3) {
+                if (RandomStreams.current().nextDouble() < learningRate * 0.3) {
                     territoryCenter[0] = (int)(territoryCenter[0] * 0.8 + avgX * 0.2);
                     territoryCenter[1] = (int)(territoryCenter[1] * 0.8 + avgY * 0.2);
                     System.out.println("Apex predator shifted territory to: " + 
@@ -257,7 +258,7 @@ public class ApexPredatorBrain extends AnimalBrain {
      */
     private Entity findOptimalPrey(Entity entity, EntityManager entityManager) {
         List<Entity> nearbyEntities = entityManager.getEntitiesInRange(
-                entity.getX(), entity.getY(), (int)(entity.getVisionRange() * huntingProficiency));
+                entity.getX(), entity.getY(), (int)(entity.getVisionRange() * huntingProficiency), nearbyBuffer());
         
         Entity bestTarget = null;
         double bestTargetScore = -1;
@@ -306,29 +307,11 @@ public class ApexPredatorBrain extends AnimalBrain {
      * Find the nearest rival predator (other apex predators or strong carnivores).
      */
     private Entity findNearestRival(Entity entity, EntityManager entityManager) {
-        List<Entity> nearbyEntities = entityManager.getEntitiesInRange(
-                entity.getX(), entity.getY(), (int)entity.getVisionRange());
-        
-        Entity closestRival = null;
-        double closestDistance = Double.MAX_VALUE;
-        
-        for (Entity other : nearbyEntities) {
-            if (!other.isAlive() || other == entity) continue;
-            
-            boolean isRival = other.getSpeciesType() == SpeciesType.APEX_PREDATOR || 
-                          (other.getSpeciesType() == SpeciesType.CARNIVORE && 
-                           other.getHealth() > entity.getHealth() * 0.8);
-            
-            if (isRival) {
-                double distance = calculateDistance(entity, other);
-                if (distance < closestDistance) {
-                    closestDistance = distance;
-                    closestRival = other;
-                }
-            }
-        }
-        
-        return closestRival;
+        return entityManager.findNearest(entity.getX(), entity.getY(), (int)entity.getVisionRange(),
+                other -> other != entity &&
+                         (other.getSpeciesType() == SpeciesType.APEX_PREDATOR ||
+                          (other.getSpeciesType() == SpeciesType.CARNIVORE &&
+                           other.getHealth() > entity.getHealth() * 0.8)));
     }
     
     /**
@@ -403,8 +386,8 @@ public class ApexPredatorBrain extends AnimalBrain {
      * Mutate a value within bounds with a chance.
      */
     private double mutateValue(double value, double mutationChance, double min, double max) {
-        if (Math.random() < mutationChance) {
-            value += (Math.random() * 0.2) - 0.1; // ±0.1
+        if (RandomStreams.current().nextDouble() < mutationChance) {
+            value += (RandomStreams.current().nextDouble() * 0.2) - 0.1; // ±0.1
             return Math.max(min, Math.min(max, value));
         }
         return value;
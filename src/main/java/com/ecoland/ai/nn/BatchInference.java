@@ -0,0 +1,358 @@
+package com.ecoland.ai.nn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs the networks of many brains at once instead of one feedForward call per brain.
+ * Brains whose networks share an architecture form a cohort. A cohort keeps its weights
+ * structure-of-arrays in blocks of BLOCK_SIZE individuals: within a block there is one row per
+ * weight or bias with one lane per individual, so the inner loops run across individuals over
+ * contiguous memory and can be vectorised, and each block's parameters are one contiguous run
+ * that streams through the cache while the block is evaluated.
+ * Networks never change once built, so a network keeps its column from one call to the next;
+ * only the networks of new brains are copied in, widened to double whatever their
+ * WeightPrecision, and the columns of brains that are no longer evaluated are reused.
+ * Each individual's sums are taken in the same order as the scalar NeuralNetwork.feedForward,
+ * so the outputs are exactly the same as running the brains one by one. With vector inference
+ * on, blocks run on the vector kernel a vector of individuals at a time; the sums are still
+ * taken in that order, and only the vectorised sigmoid differs from the scalar one, by rounding.
+ */
+public class BatchInference {
+    // Individuals evaluated together; their inputs and hidden layer stay in the L1 cache
+    private static final int BLOCK_SIZE = 64;
+
+    // Blocks one task handles before it stops splitting
+    private static final int BLOCKS_PER_TASK = 4;
+
+    private final Map<Long, Cohort> cohorts = new HashMap<>();
+    private final LayerKernel kernel; // Null for the scalar loops
+
+    /**
+     * Creates a batch evaluator that uses the vector kernel if vector inference is on.
+     */
+    public BatchInference() {
+        this(NeuralNetwork.vectorKernel());
+    }
+
+    /**
+     * Creates a batch evaluator running its blocks on the given kernel.
+     * @param kernel Kernel to run blocks on, or null to use the scalar loops
+     */
+    BatchInference(LayerKernel kernel) {
+        this.kernel = kernel;
+    }
+
+    /**
+     * Runs the networks of the given brains on the inputs gathered by their prepareInputs, and
+     * leaves each brain's outputs ready for its next makeDecision. Brains sharing one network
+     * object are only batched once; the others run their network themselves when deciding.
+     * Only to be called from one thread at a time.
+     *
+     * @param brains Brains whose inputs have been prepared this tick
+     * @param pool Pool to split large cohorts across, or null to run on the calling thread
+     * @param activation Sigmoid implementation applied to both layers
+     */
+    public void evaluate(List<AnimalBrain> brains, ForkJoinPool pool, Activation activation) {
+        for (AnimalBrain brain : brains) {
+            NeuralNetwork network = brain.getNetwork();
+            long key = ((long) network.getInputSize() << 40) | ((long) network.getHiddenSize() << 20)
+                    | network.getOutputSize();
+            Cohort cohort = cohorts.get(key);
+            if (cohort == null) {
+                cohort = new Cohort(network.getInputSize(), network.getHiddenSize(), network.getOutputSize(), kernel);
+                cohorts.put(key, cohort);
+            }
+            cohort.members.add(brain);
+        }
+        Iterator<Cohort> iterator = cohorts.values().iterator();
+        while (iterator.hasNext()) {
+            Cohort cohort = iterator.next();
+            if (cohort.members.isEmpty()) {
+                // No brain of this architecture is left; let its matrix go
+                iterator.remove();
+                continue;
+            }
+            cohort.evaluate(pool, activation);
+            cohort.members.clear();
+        }
+    }
+
+    /**
+     * The individuals of one network architecture, with their weights in blocks of parameter rows.
+     */
+    private static class Cohort {
+        final int inputSize;
+        final int hiddenSize;
+        final int outputSize;
+        final int parameterCount;
+        final LayerKernel kernel;
+
+        // First parameter row of each part of the network; the input-to-hidden weights start at 0
+        final int hiddenBiasRow;
+        final int outputWeightRow;
+        final int outputBiasRow;
+
+        // Brains to evaluate in the current call, and the column of each, or -1 to skip it
+        final List<AnimalBrain> members = new ArrayList<>();
+        int[] memberColumns = new int[0];
+
+        final Map<NeuralNetwork, Integer> columnOf = new IdentityHashMap<>();
+        NeuralNetwork[] networks = new NeuralNetwork[0];
+        int[] lastUsed = new int[0]; // Call in which each column was last evaluated
+        int call = 0;
+        int size = 0;
+        int capacity = 0; // Always a whole number of blocks
+
+        // Parameter p of column c is at parameters[offset(c, parameterCount) + p * BLOCK_SIZE];
+        // inputs and outputs likewise
+        double[] parameters = new double[0];
+        double[] inputs = new double[0];
+        double[] outputs = new double[0];
+        Activation activation = Activation.EXACT; // Of the current call
+
+        Cohort(int inputSize, int hiddenSize, int outputSize, LayerKernel kernel) {
+            this.inputSize = inputSize;
+            this.hiddenSize = hiddenSize;
+            this.outputSize = outputSize;
+            this.kernel = kernel;
+            this.hiddenBiasRow = hiddenSize * inputSize;
+            this.outputWeightRow = hiddenBiasRow + hiddenSize;
+            this.outputBiasRow = outputWeightRow + outputSize * hiddenSize;
+            this.parameterCount = outputBiasRow + outputSize;
+        }
+
+        void evaluate(ForkJoinPool pool, Activation activation) {
+            this.activation = activation;
+            assignColumns();
+
+            // Gather inputs into columns
+            for (int m = 0; m < members.size(); m++) {
+                int column = memberColumns[m];
+                if (column < 0) {
+                    continue;
+                }
+                double[] memberInputs = members.get(m).getInputBuffer();
+                int offset = offset(column, inputSize);
+                for (int i = 0; i < inputSize; i++) {
+                    inputs[offset + i * BLOCK_SIZE] = memberInputs[i];
+                }
+            }
+
+            int blocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            if (pool == null || blocks <= BLOCKS_PER_TASK) {
+                computeBlocks(0, blocks);
+            } else {
+                pool.invoke(new BlockTask(0, blocks));
+            }
+
+            // Scatter outputs back to the brains
+            for (int m = 0; m < members.size(); m++) {
+                int column = memberColumns[m];
+                if (column < 0) {
+                    continue;
+                }
+                double[] memberOutputs = members.get(m).acceptOutputs();
+                int offset = offset(column, outputSize);
+                for (int k = 0; k < outputSize; k++) {
+                    memberOutputs[k] = outputs[offset + k * BLOCK_SIZE];
+                }
+            }
+        }
+
+        /**
+         * Gives every member's network a column, copying in new networks and dropping the
+         * columns of networks not evaluated in this call.
+         */
+        private void assignColumns() {
+            call++;
+            if (memberColumns.length < members.size()) {
+                memberColumns = new int[members.size()];
+            }
+            for (int m = 0; m < members.size(); m++) {
+                NeuralNetwork network = members.get(m).getNetwork();
+                Integer column = columnOf.get(network);
+                if (column == null) {
+                    column = addColumn(network);
+                } else if (lastUsed[column] == call) {
+                    memberColumns[m] = -1; // Shares its network with an earlier member
+                    continue;
+                }
+                lastUsed[column] = call;
+                memberColumns[m] = 0;
+            }
+
+            // Fill the columns of networks that were not evaluated with the last columns;
+            // going downwards, the last column is always one that is kept
+            for (int column = size - 1; column >= 0; column--) {
+                if (lastUsed[column] != call) {
+                    removeColumn(column);
+                }
+            }
+
+            for (int m = 0; m < members.size(); m++) {
+                if (memberColumns[m] >= 0) {
+                    memberColumns[m] = columnOf.get(members.get(m).getNetwork());
+                }
+            }
+        }
+
+        // Index of row 0 of a column in a blocked matrix with the given number of rows
+        private static int offset(int column, int rows) {
+            return (column / BLOCK_SIZE) * rows * BLOCK_SIZE + column % BLOCK_SIZE;
+        }
+
+        private int addColumn(NeuralNetwork network) {
+            if (size == capacity) {
+                grow(Math.max(BLOCK_SIZE, capacity * 2));
+            }
+            network.writeColumn(parameters, offset(size, parameterCount), BLOCK_SIZE);
+            networks[size] = network;
+            columnOf.put(network, size);
+            return size++;
+        }
+
+        private void removeColumn(int column) {
+            int last = size - 1;
+            columnOf.remove(networks[column]);
+            if (column != last) {
+                int to = offset(column, parameterCount);
+                int from = offset(last, parameterCount);
+                for (int p = 0; p < parameterCount; p++) {
+                    parameters[to + p * BLOCK_SIZE] = parameters[from + p * BLOCK_SIZE];
+                }
+                networks[column] = networks[last];
+                lastUsed[column] = lastUsed[last];
+                columnOf.put(networks[column], column);
+            }
+            networks[last] = null;
+            size = last;
+        }
+
+        private void grow(int newCapacity) {
+            // Blocks are independent, so growing only appends blocks
+            parameters = Arrays.copyOf(parameters, parameterCount * newCapacity);
+            networks = Arrays.copyOf(networks, newCapacity);
+            lastUsed = Arrays.copyOf(lastUsed, newCapacity);
+            inputs = new double[inputSize * newCapacity];
+            outputs = new double[outputSize * newCapacity];
+            capacity = newCapacity;
+        }
+
+        /**
+         * Evaluates blocks [fromBlock, toBlock) of columns.
+         */
+        void computeBlocks(int fromBlock, int toBlock) {
+            double[] hidden = new double[hiddenSize * BLOCK_SIZE];
+            for (int block = fromBlock; block < toBlock; block++) {
+                computeBlock(block, Math.min(BLOCK_SIZE, size - block * BLOCK_SIZE), hidden);
+            }
+        }
+
+        private void computeBlock(int block, int n, double[] hidden) {
+            int params = block * parameterCount * BLOCK_SIZE;
+            int in = block * inputSize * BLOCK_SIZE;
+            int out = block * outputSize * BLOCK_SIZE;
+            if (kernel != null) {
+                kernel.layerBlock(inputs, in, inputSize, parameters, params, params + hiddenBiasRow * BLOCK_SIZE,
+                        hidden, 0, hiddenSize, n, BLOCK_SIZE, activation);
+                kernel.layerBlock(hidden, 0, hiddenSize, parameters, params + outputWeightRow * BLOCK_SIZE,
+                        params + outputBiasRow * BLOCK_SIZE, outputs, out, outputSize, n, BLOCK_SIZE, activation);
+                return;
+            }
+
+            // Hidden layer: bias, then each input's contribution in input order
+            for (int j = 0; j < hiddenSize; j++) {
+                int h = j * BLOCK_SIZE;
+                int bias = params + (hiddenBiasRow + j) * BLOCK_SIZE;
+                for (int c = 0; c < n; c++) {
+                    hidden[h + c] = parameters[bias + c];
+                }
+                // Four inputs per pass over the block, added one after another as feedForward does
+                int i = 0;
+                for (; i + 4 <= inputSize; i += 4) {
+                    int x = in + i * BLOCK_SIZE;
+                    int w = params + (j * inputSize + i) * BLOCK_SIZE;
+                    for (int c = 0; c < n; c++) {
+                        double sum = hidden[h + c];
+                        sum += inputs[x + c] * parameters[w + c];
+                        sum += inputs[x + BLOCK_SIZE + c] * parameters[w + BLOCK_SIZE + c];
+                        sum += inputs[x + 2 * BLOCK_SIZE + c] * parameters[w + 2 * BLOCK_SIZE + c];
+                        sum += inputs[x + 3 * BLOCK_SIZE + c] * parameters[w + 3 * BLOCK_SIZE + c];
+                        hidden[h + c] = sum;
+                    }
+                }
+                for (; i < inputSize; i++) {
+                    int x = in + i * BLOCK_SIZE;
+                    int w = params + (j * inputSize + i) * BLOCK_SIZE;
+                    for (int c = 0; c < n; c++) {
+                        hidden[h + c] += inputs[x + c] * parameters[w + c];
+                    }
+                }
+                activation.applyAll(hidden, h, h + n);
+            }
+
+            // Output layer
+            for (int k = 0; k < outputSize; k++) {
+                int o = out + k * BLOCK_SIZE;
+                int bias = params + (outputBiasRow + k) * BLOCK_SIZE;
+                for (int c = 0; c < n; c++) {
+                    outputs[o + c] = parameters[bias + c];
+                }
+                int j = 0;
+                for (; j + 4 <= hiddenSize; j += 4) {
+                    int h = j * BLOCK_SIZE;
+                    int w = params + (outputWeightRow + k * hiddenSize + j) * BLOCK_SIZE;
+                    for (int c = 0; c < n; c++) {
+                        double sum = outputs[o + c];
+                        sum += hidden[h + c] * parameters[w + c];
+                        sum += hidden[h + BLOCK_SIZE + c] * parameters[w + BLOCK_SIZE + c];
+                        sum += hidden[h + 2 * BLOCK_SIZE + c] * parameters[w + 2 * BLOCK_SIZE + c];
+                        sum += hidden[h + 3 * BLOCK_SIZE + c] * parameters[w + 3 * BLOCK_SIZE + c];
+                        outputs[o + c] = sum;
+                    }
+                }
+                for (; j < hiddenSize; j++) {
+                    int h = j * BLOCK_SIZE;
+                    int w = params + (outputWeightRow + k * hiddenSize + j) * BLOCK_SIZE;
+                    for (int c = 0; c < n; c++) {
+                        outputs[o + c] += hidden[h + c] * parameters[w + c];
+                    }
+                }
+                activation.applyAll(outputs, o, o + n);
+            }
+        }
+
+        /**
+         * Fork/join task evaluating a range of blocks, halving until it is small enough.
+         */
+        private class BlockTask extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int fromBlock;
+            private final int toBlock;
+
+            BlockTask(int fromBlock, int toBlock) {
+                this.fromBlock = fromBlock;
+                this.toBlock = toBlock;
+            }
+
+            @Override
+            protected void compute() {
+                if (toBlock - fromBlock <= BLOCKS_PER_TASK) {
+                    computeBlocks(fromBlock, toBlock);
+                    return;
+                }
+                int mid = (fromBlock + toBlock) >>> 1;
+                invokeAll(new BlockTask(fromBlock, mid), new BlockTask(mid, toBlock));
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecoland.ai.nn;
+
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Estimates the heap the brain networks of a population take in every WeightPrecision, so the
+ * modes can be compared on the same population. Estimates assume a 64-bit JVM with compressed
+ * references and count each network's own object, weights and biases.
+ */
+public class BrainMemoryReport {
+    // Network count per shape, keyed "inputs x hidden x outputs"
+    private final Map<String, int[]> shapes = new TreeMap<>();
+    private final Set<NeuralNetwork> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final long[] bytes = new long[WeightPrecision.values().length];
+
+    /**
+     * Adds a brain's network, once however many brains share it.
+     */
+    public void add(AnimalBrain brain) {
+        NeuralNetwork network = brain.getNetwork();
+        if (!seen.add(network)) {
+            return;
+        }
+        String shape = network.getInputSize() + "x" + network.getHiddenSize() + "x" + network.getOutputSize();
+        shapes.computeIfAbsent(shape, key -> new int[1])[0]++;
+        for (WeightPrecision precision : WeightPrecision.values()) {
+            bytes[precision.ordinal()] += NeuralNetwork.estimateFootprintBytes(network.getInputSize(),
+                    network.getHiddenSize(), network.getOutputSize(), precision);
+        }
+    }
+
+    public int getNetworkCount() {
+        return seen.size();
+    }
+
+    /**
+     * Gets the estimated heap of all added networks stored in the given precision.
+     */
+    public long getEstimatedBytes(WeightPrecision precision) {
+        return bytes[precision.ordinal()];
+    }
+
+    /**
+     * Prints the network count per shape and, for every precision, the estimated heap of the
+     * added networks, per network and scaled to 100,000 networks.
+     *
+     * @param out Stream to print to
+     * @param current Precision the population actually uses, marked in the table
+     */
+    public void print(PrintStream out, WeightPrecision current) {
+        out.printf("Brain networks: %d", getNetworkCount());
+        for (Map.Entry<String, int[]> shape : shapes.entrySet()) {
+            out.printf(", %d of %s", shape.getValue()[0], shape.getKey());
+        }
+        out.println();
+        if (getNetworkCount() == 0) {
+            return;
+        }
+        out.printf("%-10s %12s %12s %16s%n", "precision", "total KB", "B/network", "MB per 100k");
+        for (WeightPrecision precision : WeightPrecision.values()) {
+            double perNetwork = (double) getEstimatedBytes(precision) / getNetworkCount();
+            out.printf("%-10s %12.1f %12.0f %16.1f%s%n", precision, getEstimatedBytes(precision) / 1024.0,
+                    perNetwork, perNetwork * 100_000 / (1024.0 * 1024.0), precision == current ? "  (in use)" : "");
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.ecoland.entity.SpeciesType;
 import com.ecoland.model.Tile;
 import com.ecoland.model.World;
 import com.ecoland.simulation.EntityManager;
+import com.ecoland.common.RandomStreams;
 
 import java.util.List;
 import java.util.HashMap;
@@ -29,7 +30,7 @@ public class CarnivoreBrain extends AnimalBrain {
     // Hunting memory
     private int[] lastSuccessfulHuntLocation = null;
     private int huntingSuccessCounter = 0;
-    private Map<Integer, Entity> trackedPrey = new HashMap<>();
+    private Map<Long, Entity> trackedPrey = new HashMap<>();
     
     // Learning parameters
     private double learningRate = 0.12;
@@ -44,8 +45,8 @@ public class CarnivoreBrain extends AnimalBrain {
     public CarnivoreBrain(int visionRange) {
         super(visionRange);
         // Initialize carnivore-specific features
-        this.learningRate = 0.08 + Math.random() * 0.1; // 0.08-0.18
-        this.aggressionMultiplier = 0.8 + Math.random() * 0.4; // 0.8-1.2
+        this.learningRate = 0.08 + RandomStreams.current().nextDouble() * 0.1; // 0.08-0.18
+        this.aggressionMultiplier = 0.8 + RandomStreams.current().nextDouble() * 0.4; // 0.8-1.2
     }
     
     /**
@@ -63,14 +64,14 @@ public class CarnivoreBrain extends AnimalBrain {
             this.huntingSuccessCounter = parent.huntingSuccessCounter / 4; // Inherit some hunting experience
             
             // Apply mutations to learning rate (15% chance)
-            if (Math.random() < 0.15) {
-                this.learningRate += (Math.random() * 0.06) - 0.03; // ±0.03
+            if (RandomStreams.current().nextDouble() < 0.15) {
+                this.learningRate += (RandomStreams.current().nextDouble() * 0.06) - 0.03; // ±0.03
                 this.learningRate = Math.max(0.05, Math.min(0.25, this.learningRate));
             }
             
             // Apply mutations to aggression (20% chance)
-            if (Math.random() < 0.2) {
-                this.aggressionMultiplier += (Math.random() * 0.3) - 0.15; // ±0.15
+            if (RandomStreams.current().nextDouble() < 0.2) {
+                this.aggressionMultiplier += (RandomStreams.current().nextDouble() * 0.3) - 0.15; // ±0.15
                 this.aggressionMultiplier = Math.max(0.6, Math.min(1.5, this.aggressionMultiplier));
             }
         }
@@ -101,7 +102,7 @@ public class CarnivoreBrain extends AnimalBrain {
             
             if (distanceToPrey <= entity.getVisionRange()) {
                 // Store prey for tracking
-                trackedPrey.put(bestPreyTarget.hashCode(), bestPreyTarget);
+                trackedPrey.put(bestPreyTarget.getId(), bestPreyTarget);
                 
                 // Normalize direction
                 int moveX = (dx == 0) ? 0 : (dx > 0 ? 1 : -1);
@@ -125,7 +126,7 @@ public class CarnivoreBrain extends AnimalBrain {
             lastSuccessfulHuntLocation = new int[] {entity.getX(), entity.getY()};
             
             // Positive reinforcement - successful hunt increases aggression
-            if (Math.random() < learningRate * 0.5) {
+            if (RandomStreams.current().nextDouble() < learningRate * 0.5) {
                 aggressionMultiplier = Math.min(1.5, aggressionMultiplier + 0.02);
             }
         } 
@@ -134,7 +135,7 @@ public class CarnivoreBrain extends AnimalBrain {
             consecutiveFailedHunts++;
             
             // Negative reinforcement - too many failed hunts decreases aggression
-            if (consecutiveFailedHunts > 3 && Math.random() < learningRate * 0.3) {
+            if (consecutiveFailedHunts > 3 && RandomStreams.current().nextDouble() < learningRate * 0.3) {
                 aggressionMultiplier = Math.max(0.6, aggressionMultiplier - 0.03);
                 // Clean up tracked prey that may be unreachable
                 cleanupTrackedPrey();
@@ -149,7 +150,7 @@ public class CarnivoreBrain extends AnimalBrain {
      */
     private Entity findOptimalPrey(Entity entity, EntityManager entityManager) {
         List<Entity> nearbyEntities = entityManager.getEntitiesInRange(
-                entity.getX(), entity.getY(), (int)entity.getVisionRange());
+                entity.getX(), entity.getY(), (int)entity.getVisionRange(), nearbyBuffer());
         
         Entity bestTarget = null;
         double bestTargetScore = -1;
@@ -174,7 +175,7 @@ public class CarnivoreBrain extends AnimalBrain {
                 double preyScore = (healthFactor * 0.6) + (distanceFactor * 0.4);
                 
                 // Bonus for previously tracked prey (persistence)
-                if (trackedPrey.containsKey(other.hashCode())) {
+                if (trackedPrey.containsKey(other.getId())) {
                     preyScore += 0.15;
                 }
                 
@@ -202,7 +203,7 @@ public class CarnivoreBrain extends AnimalBrain {
         int preyCount = 0;
         double totalPreyHealth = 0;
         
-        List<Entity> entities = entityManager.getEntitiesInRange(x, y, (int)entity.getVisionRange());
+        List<Entity> entities = entityManager.getEntitiesInRange(x, y, (int)entity.getVisionRange(), nearbyBuffer());
         
         for (Entity other : entities) {
             if (other.isAlive() && other.getSpeciesType() == SpeciesType.HERBIVORE) {
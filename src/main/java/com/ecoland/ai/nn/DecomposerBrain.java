@@ -6,6 +6,7 @@ import com.ecoland.model.TerrainType;
 import com.ecoland.model.Tile;
 import com.ecoland.model.World;
 import com.ecoland.simulation.EntityManager;
+import com.ecoland.common.RandomStreams;
 
 import java.util.List;
 
@@ -39,7 +40,7 @@ public class DecomposerBrain extends AnimalBrain {
     public DecomposerBrain(int visionRange) {
         super(visionRange);
         // Additional initialization for decomposer-specific brain features
-        this.learningRate = 0.04 + Math.random() * 0.08; // 0.04-0.12
+        this.learningRate = 0.04 + RandomStreams.current().nextDouble() * 0.08; // 0.04-0.12
     }
     
     /**
@@ -54,8 +55,8 @@ public class DecomposerBrain extends AnimalBrain {
             this.learningRate = parent.learningRate;
             
             // Apply mutation to learning rate with 10% chance
-            if (Math.random() < 0.10) {
-                this.learningRate += (Math.random() * 0.04) - 0.02; // ±0.02
+            if (RandomStreams.current().nextDouble() < 0.10) {
+                this.learningRate += (RandomStreams.current().nextDouble() * 0.04) - 0.02; // ±0.02
                 this.learningRate = Math.max(0.01, Math.min(0.15, this.learningRate));
             }
         }
@@ -78,7 +79,7 @@ public class DecomposerBrain extends AnimalBrain {
         
         // 1. Prioritize dead bodies if energy is low
         List<Entity> nearbyEntities = entityManager.getEntitiesInRange(
-                entity.getX(), entity.getY(), (int)entity.getVisionRange());
+                entity.getX(), entity.getY(), (int)entity.getVisionRange(), nearbyBuffer());
         
         Entity nearestDeadBody = null;
         double closestDeadBodyDist = Double.MAX_VALUE;
@@ -150,7 +151,7 @@ public class DecomposerBrain extends AnimalBrain {
         double totalDeadBodyEnergy = 0;
         int deadBodyCount = 0;
         
-        List<Entity> entities = entityManager.getEntitiesInRange(x, y, (int)entity.getVisionRange());
+        List<Entity> entities = entityManager.getEntitiesInRange(x, y, (int)entity.getVisionRange(), nearbyBuffer());
         
         for (Entity other : entities) {
             if (other.isDeadBody()) {
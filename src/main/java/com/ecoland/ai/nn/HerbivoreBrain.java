@@ -6,6 +6,7 @@ import com.ecoland.model.TerrainType;
 import com.ecoland.model.Tile;
 import com.ecoland.model.World;
 import com.ecoland.simulation.EntityManager;
+import com.ecoland.common.RandomStreams;
 
 import java.util.List;
 
@@ -39,7 +40,7 @@ public class HerbivoreBrain extends AnimalBrain {
     public HerbivoreBrain(int visionRange) {
         super(visionRange);
         // Additional initialization for herbivore-specific brain features
-        this.learningRate = 0.05 + Math.random() * 0.1; // 0.05-0.15
+        this.learningRate = 0.05 + RandomStreams.current().nextDouble() * 0.1; // 0.05-0.15
     }
     
     /**
@@ -54,8 +55,8 @@ public class HerbivoreBrain extends AnimalBrain {
             this.learningRate = parent.learningRate;
             
             // Apply mutation to learning rate with 15% chance
-            if (Math.random() < 0.15) {
-                this.learningRate += (Math.random() * 0.06) - 0.03; // ±0.03
+            if (RandomStreams.current().nextDouble() < 0.15) {
+                this.learningRate += (RandomStreams.current().nextDouble() * 0.06) - 0.03; // ±0.03
                 this.learningRate = Math.max(0.01, Math.min(0.2, this.learningRate));
             }
         }
@@ -77,27 +78,16 @@ public class HerbivoreBrain extends AnimalBrain {
         // Enhance decision with herbivore-specific logic
         
         // 1. Enhanced predator avoidance
-        List<Entity> nearbyEntities = entityManager.getEntitiesInRange(
-                entity.getX(), entity.getY(), (int)entity.getVisionRange());
+        Entity nearestPredator = entityManager.findNearest(
+                entity.getX(), entity.getY(), (int)entity.getVisionRange(),
+                other -> other.getSpeciesType() == SpeciesType.CARNIVORE ||
+                         other.getSpeciesType() == SpeciesType.APEX_PREDATOR);
         
-        Entity nearestPredator = null;
         double closestPredatorDist = Double.MAX_VALUE;
-        
-        for (Entity other : nearbyEntities) {
-            if (!other.isAlive()) continue;
-            
-            if (other.getSpeciesType() == SpeciesType.CARNIVORE || 
-                other.getSpeciesType() == SpeciesType.APEX_PREDATOR) {
-                
-                double dx = other.getX() - entity.getX();
-                double dy = other.getY() - entity.getY();
-                double distance = Math.sqrt(dx*dx + dy*dy);
-                
-                if (distance < closestPredatorDist) {
-                    closestPredatorDist = distance;
-                    nearestPredator = other;
-                }
-            }
+        if (nearestPredator != null) {
+            double dx = nearestPredator.getX() - entity.getX();
+            double dy = nearestPredator.getY() - entity.getY();
+            closestPredatorDist = Math.sqrt(dx*dx + dy*dy);
         }
         
         // If predator is very close, override movement to flee
@@ -173,7 +163,7 @@ public class HerbivoreBrain extends AnimalBrain {
         baseInputs[PLANT_AWARENESS_INPUT] = foodTiles > 0 ? totalPlantFood / foodTiles : 0;
         
         // Enhanced predator detection
-        List<Entity> entities = entityManager.getEntitiesInRange(x, y, (int)entity.getVisionRange());
+        List<Entity> entities = entityManager.getEntitiesInRange(x, y, (int)entity.getVisionRange(), nearbyBuffer());
         int predatorCount = 0;
         
         for (Entity other : entities) {
@@ -0,0 +1,48 @@
+package com.ecoland.ai.nn;
+
+/**
+ * Evaluates network layers with double weights, for one network at a time or for a block of
+ * BatchInference individuals. NeuralNetwork and BatchInference run their layers through one
+ * when vector inference is on; the Vector API implementation lives in its own source set, so
+ * only it is compiled against jdk.incubator.vector, and is loaded by name.
+ */
+interface LayerKernel {
+    /**
+     * Computes out[j] = activation(biases[j] + sum over i of in[i] * weights[j * inSize + i])
+     * for every neuron j of the layer.
+     *
+     * @param in Values of the layer's inputs, at least inSize long
+     * @param inSize Number of inputs
+     * @param weights Weights into each neuron, one contiguous run of inSize per neuron
+     * @param biases Bias of each neuron
+     * @param out Buffer the neuron values are written to, at least outSize long
+     * @param outSize Number of neurons
+     * @param activation Sigmoid implementation to apply
+     */
+    void layer(double[] in, int inSize, double[] weights, double[] biases, double[] out, int outSize,
+               Activation activation);
+
+    /**
+     * Computes one layer for n individuals stored structure-of-arrays: every value is a row of
+     * stride lanes, one lane per individual, and rows are stride apart. For each neuron j and
+     * individual c, sets out[outOffset + j * stride + c] to the activation of the bias at
+     * [biasOffset + j * stride + c] plus, in input order, in[inOffset + i * stride + c] times the
+     * weight at [weightOffset + (j * inSize + i) * stride + c]. Each individual's sum is taken
+     * in the same order as the scalar loops, one term after another.
+     *
+     * @param in Array holding the input rows
+     * @param inOffset Index of lane 0 of input row 0
+     * @param inSize Number of input rows
+     * @param parameters Array holding the weight and bias rows
+     * @param weightOffset Index of lane 0 of the weight row (0 -> 0)
+     * @param biasOffset Index of lane 0 of the bias row of neuron 0
+     * @param out Array the neuron rows are written to
+     * @param outOffset Index of lane 0 of neuron row 0
+     * @param outSize Number of neurons
+     * @param n Number of individuals, at most stride
+     * @param stride Distance between consecutive rows
+     * @param activation Sigmoid implementation to apply
+     */
+    void layerBlock(double[] in, int inOffset, int inSize, double[] parameters, int weightOffset, int biasOffset,
+                    double[] out, int outOffset, int outSize, int n, int stride, Activation activation);
+}
@@ -0,0 +1,195 @@
+package com.ecoland.ai.nn;
+
+import java.io.Serializable;
+
+/**
+ * The weights of one network layer in one WeightPrecision, as a flat row-major matrix:
+ * weight (column c -> row r) is at [r * columns + c]. Immutable once built, so copies of a
+ * network can share their layers; crossover builds new ones.
+ */
+abstract class LayerWeights implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Heap layout assumed by the footprint estimates: 64-bit JVM with compressed references
+    static final int OBJECT_HEADER_BYTES = 12;
+    static final int ARRAY_HEADER_BYTES = 16;
+    static final int REFERENCE_BYTES = 4;
+
+    /**
+     * Stores values in the given precision. A DOUBLE layer keeps the array itself, so it must
+     * not be changed afterwards.
+     */
+    static LayerWeights of(WeightPrecision precision, double[] values) {
+        switch (precision) {
+            case FLOAT32: return new Floats(values);
+            case INT8: return new Quantized(values);
+            default: return new Doubles(values);
+        }
+    }
+
+    abstract WeightPrecision getPrecision();
+
+    abstract int size();
+
+    /**
+     * Gets a weight as stored, widened to double.
+     */
+    abstract double get(int index);
+
+    /**
+     * Computes out[r] = biases[r] + in[0] * w(0 -> r) + in[1] * w(1 -> r) + ..., adding the
+     * terms in column order, for rows 0 to rows - 1.
+     */
+    abstract void multiply(double[] in, int columns, double[] biases, double[] out, int rows);
+
+    /**
+     * Estimates the heap bytes of a layer of the given precision and size.
+     */
+    static long footprintBytes(WeightPrecision precision, int size) {
+        // The object with its array reference, plus the INT8 scale
+        int fields = REFERENCE_BYTES + (precision == WeightPrecision.INT8 ? 8 : 0);
+        return align(OBJECT_HEADER_BYTES + fields) + arrayBytes(size, precision.getBytesPerWeight());
+    }
+
+    static long arrayBytes(int length, int elementBytes) {
+        return align(ARRAY_HEADER_BYTES + (long) length * elementBytes);
+    }
+
+    static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Weights as doubles, exactly as given.
+     */
+    static final class Doubles extends LayerWeights {
+        private static final long serialVersionUID = 1L;
+
+        final double[] values; // Read by the vector kernel; never written after construction
+
+        Doubles(double[] values) {
+            this.values = values;
+        }
+
+        @Override
+        WeightPrecision getPrecision() {
+            return WeightPrecision.DOUBLE;
+        }
+
+        @Override
+        int size() {
+            return values.length;
+        }
+
+        @Override
+        double get(int index) {
+            return values[index];
+        }
+
+        @Override
+        void multiply(double[] in, int columns, double[] biases, double[] out, int rows) {
+            for (int r = 0; r < rows; r++) {
+                int row = r * columns;
+                double sum = biases[r];
+                for (int c = 0; c < columns; c++) {
+                    sum += in[c] * values[row + c];
+                }
+                out[r] = sum;
+            }
+        }
+    }
+
+    /**
+     * Weights rounded to floats.
+     */
+    static final class Floats extends LayerWeights {
+        private static final long serialVersionUID = 1L;
+
+        private final float[] values;
+
+        Floats(double[] values) {
+            this.values = new float[values.length];
+            for (int i = 0; i < values.length; i++) {
+                this.values[i] = (float) values[i];
+            }
+        }
+
+        @Override
+        WeightPrecision getPrecision() {
+            return WeightPrecision.FLOAT32;
+        }
+
+        @Override
+        int size() {
+            return values.length;
+        }
+
+        @Override
+        double get(int index) {
+            return values[index];
+        }
+
+        @Override
+        void multiply(double[] in, int columns, double[] biases, double[] out, int rows) {
+            for (int r = 0; r < rows; r++) {
+                int row = r * columns;
+                double sum = biases[r];
+                for (int c = 0; c < columns; c++) {
+                    sum += in[c] * (double) values[row + c];
+                }
+                out[r] = sum;
+            }
+        }
+    }
+
+    /**
+     * Weights as signed bytes times one scale for the layer, chosen so the largest weight
+     * maps to +-127.
+     */
+    static final class Quantized extends LayerWeights {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] values;
+        private final double scale;
+
+        Quantized(double[] values) {
+            double max = 0.0;
+            for (double value : values) {
+                max = Math.max(max, Math.abs(value));
+            }
+            this.scale = max > 0.0 ? max / 127.0 : 1.0;
+            this.values = new byte[values.length];
+            for (int i = 0; i < values.length; i++) {
+                this.values[i] = (byte) Math.max(-127, Math.min(127, Math.round(values[i] / scale)));
+            }
+        }
+
+        @Override
+        WeightPrecision getPrecision() {
+            return WeightPrecision.INT8;
+        }
+
+        @Override
+        int size() {
+            return values.length;
+        }
+
+        @Override
+        double get(int index) {
+            return values[index] * scale;
+        }
+
+        @Override
+        void multiply(double[] in, int columns, double[] biases, double[] out, int rows) {
+            // Each weight is dequantised on its own, as get does, so results match the batched path
+            for (int r = 0; r < rows; r++) {
+                int row = r * columns;
+                double sum = biases[r];
+                for (int c = 0; c < columns; c++) {
+                    sum += in[c] * (values[row + c] * scale);
+                }
+                out[r] = sum;
+            }
+        }
+    }
+}
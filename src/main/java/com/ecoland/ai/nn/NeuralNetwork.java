@@ -1,24 +1,30 @@
 package com.ecoland.ai.nn;
 
+import com.ecoland.common.RandomStreams;
+
 import java.io.Serializable;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * A simple feed-forward neural network implementation with one hidden layer.
  * This network is used by creatures to make decisions based on their environment.
+ * Each layer's weights are kept in one flat array, transposed so that the weights into
+ * a neuron are contiguous: weight (i -> j) is at [j * fromSize + i]. The arrays hold the
+ * weights in the network's WeightPrecision; all arithmetic is done in double.
  */
 public class NeuralNetwork implements Serializable {
-    private static final long serialVersionUID = 1L;
-    private static final Random random = new Random();
+    private static final long serialVersionUID = 3L;
     
     // Network architecture
     private final int inputSize;
     private final int hiddenSize;
     private final int outputSize;
     
-    // Weights and biases
-    private final double[][] weightsInputToHidden;
-    private final double[][] weightsHiddenToOutput;
+    // Weights and biases; weightsInputToHidden[j * inputSize + i] connects input i to hidden j,
+    // weightsHiddenToOutput[k * hiddenSize + j] connects hidden j to output k. The weight
+    // layers are immutable, so copies of a network share them; crossover sets the child's
+    private LayerWeights weightsInputToHidden;
+    private LayerWeights weightsHiddenToOutput;
     private final double[] biasesHidden;
     private final double[] biasesOutput;
     
@@ -27,27 +33,54 @@ public class NeuralNetwork implements Serializable {
     private static final double MUTATION_RANGE = 0.2;
     
     /**
-     * Create a new neural network with random weights.
+     * System property that turns on the Vector API kernel, e.g. -Decoland.nn.vector=true
+     * together with --add-modules jdk.incubator.vector
+     */
+    public static final String VECTOR_PROPERTY = "ecoland.nn.vector";
+    
+    // Vector API kernel, built from its own source set so only it needs jdk.incubator.vector
+    private static final String VECTOR_KERNEL_CLASS = "com.ecoland.ai.nn.VectorKernel";
+    
+    // Kernel feedForward runs double layers on, or null for the scalar loops; fixed at startup
+    // so every network agrees
+    private static final LayerKernel VECTOR_KERNEL = initVectorKernel();
+    
+    /**
+     * Create a new neural network with random weights, stored in the precision bound to the
+     * current thread.
      *
      * @param inputSize Number of input neurons
      * @param hiddenSize Number of hidden neurons
      * @param outputSize Number of output neurons
      */
     public NeuralNetwork(int inputSize, int hiddenSize, int outputSize) {
+        this(inputSize, hiddenSize, outputSize, WeightPrecision.current());
+    }
+    
+    /**
+     * Create a new neural network with random weights.
+     *
+     * @param inputSize Number of input neurons
+     * @param hiddenSize Number of hidden neurons
+     * @param outputSize Number of output neurons
+     * @param precision How the weights are stored
+     */
+    public NeuralNetwork(int inputSize, int hiddenSize, int outputSize, WeightPrecision precision) {
         this.inputSize = inputSize;
         this.hiddenSize = hiddenSize;
         this.outputSize = outputSize;
         
         // Initialize weights with random values between -1 and 1
-        weightsInputToHidden = new double[inputSize][hiddenSize];
-        weightsHiddenToOutput = new double[hiddenSize][outputSize];
+        double[] weightsInputToHidden = new double[hiddenSize * inputSize];
+        double[] weightsHiddenToOutput = new double[outputSize * hiddenSize];
         biasesHidden = new double[hiddenSize];
         biasesOutput = new double[outputSize];
         
         // Initialize with random weights
+        SplittableRandom random = RandomStreams.current();
         for (int i = 0; i < inputSize; i++) {
             for (int j = 0; j < hiddenSize; j++) {
-                weightsInputToHidden[i][j] = random.nextDouble() * 2 - 1; // -1 to 1
+                weightsInputToHidden[j * inputSize + i] = random.nextDouble() * 2 - 1; // -1 to 1
             }
         }
         
@@ -55,13 +88,16 @@ public class NeuralNetwork implements Serializable {
             biasesHidden[i] = random.nextDouble() * 2 - 1; // -1 to 1
             
             for (int j = 0; j < outputSize; j++) {
-                weightsHiddenToOutput[i][j] = random.nextDouble() * 2 - 1; // -1 to 1
+                weightsHiddenToOutput[j * hiddenSize + i] = random.nextDouble() * 2 - 1; // -1 to 1
             }
         }
         
         for (int i = 0; i < outputSize; i++) {
             biasesOutput[i] = random.nextDouble() * 2 - 1; // -1 to 1
         }
+        
+        this.weightsInputToHidden = LayerWeights.of(precision, weightsInputToHidden);
+        this.weightsHiddenToOutput = LayerWeights.of(precision, weightsHiddenToOutput);
     }
     
     /**
@@ -74,77 +110,242 @@ public class NeuralNetwork implements Serializable {
         this.hiddenSize = other.hiddenSize;
         this.outputSize = other.outputSize;
         
-        // Deep copy the weights and biases
-        this.weightsInputToHidden = new double[inputSize][hiddenSize];
-        this.weightsHiddenToOutput = new double[hiddenSize][outputSize];
-        this.biasesHidden = new double[hiddenSize];
-        this.biasesOutput = new double[outputSize];
-        
-        for (int i = 0; i < inputSize; i++) {
-            for (int j = 0; j < hiddenSize; j++) {
-                this.weightsInputToHidden[i][j] = other.weightsInputToHidden[i][j];
-            }
+        // Share the immutable weight layers, deep copy the biases
+        this.weightsInputToHidden = other.weightsInputToHidden;
+        this.weightsHiddenToOutput = other.weightsHiddenToOutput;
+        this.biasesHidden = other.biasesHidden.clone();
+        this.biasesOutput = other.biasesOutput.clone();
+    }
+    
+    public int getInputSize() {
+        return inputSize;
+    }
+    
+    public int getHiddenSize() {
+        return hiddenSize;
+    }
+    
+    public int getOutputSize() {
+        return outputSize;
+    }
+    
+    public WeightPrecision getPrecision() {
+        return weightsInputToHidden.getPrecision();
+    }
+    
+    /**
+     * Estimates the heap bytes of this network: the object, its weight layers and its biases.
+     * Copies share their weight layers, so for copies this counts the shared layers again.
+     */
+    public long getFootprintBytes() {
+        return estimateFootprintBytes(inputSize, hiddenSize, outputSize, getPrecision());
+    }
+    
+    /**
+     * Estimates the heap bytes of a network of the given shape and precision, assuming a
+     * 64-bit JVM with compressed references.
+     */
+    public static long estimateFootprintBytes(int inputSize, int hiddenSize, int outputSize, WeightPrecision precision) {
+        // Three sizes and four references
+        long network = LayerWeights.align(LayerWeights.OBJECT_HEADER_BYTES + 3 * 4 + 4 * LayerWeights.REFERENCE_BYTES);
+        return network
+                + LayerWeights.footprintBytes(precision, hiddenSize * inputSize)
+                + LayerWeights.footprintBytes(precision, outputSize * hiddenSize)
+                + LayerWeights.arrayBytes(hiddenSize, 8)
+                + LayerWeights.arrayBytes(outputSize, 8);
+    }
+    
+    /**
+     * Whether feedForward runs on the Vector API kernel. It does when the VECTOR_PROPERTY
+     * system property is true and the jdk.incubator.vector module is present; otherwise,
+     * or if the kernel fails its self-test, the scalar loops are used.
+     */
+    public static boolean isVectorized() {
+        return VECTOR_KERNEL != null;
+    }
+    
+    private static LayerKernel initVectorKernel() {
+        if (!Boolean.getBoolean(VECTOR_PROPERTY)) {
+            return null;
         }
-        
-        for (int i = 0; i < hiddenSize; i++) {
-            this.biasesHidden[i] = other.biasesHidden[i];
-            
-            for (int j = 0; j < outputSize; j++) {
-                this.weightsHiddenToOutput[i][j] = other.weightsHiddenToOutput[i][j];
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            System.err.println(VECTOR_PROPERTY + " is set but jdk.incubator.vector is not present; " +
+                    "using scalar inference. Add --add-modules jdk.incubator.vector to enable it.");
+            return null;
+        }
+        try {
+            LayerKernel kernel = loadVectorKernel();
+            if (selfTest(kernel)) {
+                return kernel;
             }
+            System.err.println("Vector inference kernel gave wrong results; using scalar inference.");
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            System.err.println("Vector inference kernel unavailable (" + e + "); using scalar inference.");
         }
-        
-        for (int i = 0; i < outputSize; i++) {
-            this.biasesOutput[i] = other.biasesOutput[i];
+        return null;
+    }
+    
+    /**
+     * Gets the kernel double layers run on, or null while vector inference is off.
+     */
+    static LayerKernel vectorKernel() {
+        return VECTOR_KERNEL;
+    }
+    
+    /**
+     * Creates the Vector API kernel by name, so this class compiles and runs without it.
+     * Needs jdk.incubator.vector in the JVM, whatever VECTOR_PROPERTY says.
+     */
+    static LayerKernel loadVectorKernel() throws ReflectiveOperationException {
+        return (LayerKernel) Class.forName(VECTOR_KERNEL_CLASS).getDeclaredConstructor().newInstance();
+    }
+    
+    /**
+     * Checks that a kernel runs and gives the scalar results, so a broken or unsupported
+     * vector build falls back instead of failing mid-simulation.
+     */
+    static boolean selfTest(LayerKernel kernel) {
+        double[] inputs = {0.5, -1.0, 0.25, 2.0, -0.75, 1.5, 0.0, -2.5, 1.0, 0.125, -0.5};
+        int outputs = 3;
+        double[] weights = new double[outputs * inputs.length];
+        double[] biases = new double[outputs];
+        for (int p = 0; p < weights.length; p++) {
+            weights[p] = Math.sin(p);
+        }
+        for (int k = 0; k < outputs; k++) {
+            biases[k] = Math.cos(k);
+        }
+        double[] out = new double[outputs];
+        kernel.layer(inputs, inputs.length, weights, biases, out, outputs, Activation.EXACT);
+        for (int k = 0; k < outputs; k++) {
+            double sum = biases[k];
+            for (int i = 0; i < inputs.length; i++) {
+                sum += inputs[i] * weights[k * inputs.length + i];
+            }
+            if (Math.abs(out[k] - sigmoid(sum)) > 1e-12) {
+                return false;
+            }
         }
+        return true;
     }
     
     /**
-     * Forward pass through the network.
+     * Forward pass through the network, with the activation bound to the current thread.
      *
      * @param inputs The input values to the network
      * @return The output values from the network
      */
     public double[] feedForward(double[] inputs) {
+        double[] outputs = new double[outputSize];
+        feedForward(inputs, new double[hiddenSize], outputs);
+        return outputs;
+    }
+    
+    /**
+     * Forward pass through the network into caller-owned buffers, allocating nothing, with the
+     * activation bound to the current thread.
+     * Gives exactly the same outputs as feedForward(inputs). With the vector kernel on,
+     * sums are taken in a different order, so outputs differ from the scalar loops by rounding.
+     *
+     * @param inputs The input values to the network
+     * @param scratch Buffer for the hidden layer values, at least getHiddenSize() long
+     * @param out Buffer the output values are written to, at least getOutputSize() long
+     */
+    public void feedForward(double[] inputs, double[] scratch, double[] out) {
+        feedForward(inputs, scratch, out, Activation.current());
+    }
+    
+    /**
+     * Forward pass through the network into caller-owned buffers with a given activation.
+     *
+     * @param inputs The input values to the network
+     * @param scratch Buffer for the hidden layer values, at least getHiddenSize() long
+     * @param out Buffer the output values are written to, at least getOutputSize() long
+     * @param activation Sigmoid implementation applied to both layers
+     */
+    public void feedForward(double[] inputs, double[] scratch, double[] out, Activation activation) {
+        feedForward(inputs, scratch, out, activation, VECTOR_KERNEL);
+    }
+    
+    /**
+     * Forward pass through the network into caller-owned buffers, with double layers run on
+     * the given kernel.
+     *
+     * @param kernel Kernel for double layers, or null to use the scalar loops
+     */
+    void feedForward(double[] inputs, double[] scratch, double[] out, Activation activation, LayerKernel kernel) {
         if (inputs.length != inputSize) {
             throw new IllegalArgumentException("Input size doesn't match network input size");
         }
+        if (scratch.length < hiddenSize || out.length < outputSize) {
+            throw new IllegalArgumentException("Buffers are smaller than the network's layers");
+        }
         
-        // Calculate hidden layer values
-        double[] hiddenValues = new double[hiddenSize];
-        for (int j = 0; j < hiddenSize; j++) {
-            double sum = biasesHidden[j];
-            for (int i = 0; i < inputSize; i++) {
-                sum += inputs[i] * weightsInputToHidden[i][j];
-            }
-            hiddenValues[j] = sigmoid(sum);
+        if (kernel != null && weightsInputToHidden instanceof LayerWeights.Doubles) {
+            // The kernel reads double weights only; reduced precisions take the scalar loops
+            double[] hiddenWeights = ((LayerWeights.Doubles) weightsInputToHidden).values;
+            double[] outputWeights = ((LayerWeights.Doubles) weightsHiddenToOutput).values;
+            kernel.layer(inputs, inputSize, hiddenWeights, biasesHidden, scratch, hiddenSize, activation);
+            kernel.layer(scratch, hiddenSize, outputWeights, biasesOutput, out, outputSize, activation);
+            return;
         }
         
+        // Calculate hidden layer values; each neuron's weights are one contiguous run
+        weightsInputToHidden.multiply(inputs, inputSize, biasesHidden, scratch, hiddenSize);
+        activation.applyAll(scratch, 0, hiddenSize);
+        
         // Calculate output layer values
-        double[] outputs = new double[outputSize];
-        for (int j = 0; j < outputSize; j++) {
-            double sum = biasesOutput[j];
-            for (int i = 0; i < hiddenSize; i++) {
-                sum += hiddenValues[i] * weightsHiddenToOutput[i][j];
-            }
-            outputs[j] = sigmoid(sum);
+        weightsHiddenToOutput.multiply(scratch, hiddenSize, biasesOutput, out, outputSize);
+        activation.applyAll(out, 0, outputSize);
+    }
+    
+    /**
+     * Gets the number of weights and biases in the network.
+     */
+    int getParameterCount() {
+        return weightsInputToHidden.size() + biasesHidden.length + weightsHiddenToOutput.size() + biasesOutput.length;
+    }
+    
+    /**
+     * Writes every weight and bias into a strided column of a matrix, parameter p going to
+     * matrix[offset + p * stride]. Parameters are in the order: input-to-hidden weights as
+     * stored, hidden biases, hidden-to-output weights as stored, output biases. Weights are
+     * written widened to double.
+     */
+    void writeColumn(double[] matrix, int offset, int stride) {
+        int index = offset;
+        for (int p = 0; p < weightsInputToHidden.size(); p++) {
+            matrix[index] = weightsInputToHidden.get(p);
+            index += stride;
+        }
+        for (double bias : biasesHidden) {
+            matrix[index] = bias;
+            index += stride;
+        }
+        for (int p = 0; p < weightsHiddenToOutput.size(); p++) {
+            matrix[index] = weightsHiddenToOutput.get(p);
+            index += stride;
+        }
+        for (double bias : biasesOutput) {
+            matrix[index] = bias;
+            index += stride;
         }
-        
-        return outputs;
     }
     
     /**
-     * Sigmoid activation function.
+     * Exact sigmoid activation function, as Activation.EXACT.
      *
      * @param x Input value
      * @return Sigmoid of the input (between 0 and 1)
      */
-    private double sigmoid(double x) {
+    static double sigmoid(double x) {
         return 1.0 / (1.0 + Math.exp(-x));
     }
     
     /**
-     * Create a new neural network by crossover of two parent networks.
+     * Create a new neural network by crossover of two parent networks. Parents' weights are
+     * crossed and mutated as doubles, then stored in the first parent's precision; quantized
+     * layers get new scales fitted to the child's weights.
      *
      * @param parent1 First parent network
      * @param parent2 Second parent network
@@ -160,20 +361,24 @@ public class NeuralNetwork implements Serializable {
         
         // Create a new network with the same architecture
         NeuralNetwork child = new NeuralNetwork(
-            parent1.inputSize, parent1.hiddenSize, parent1.outputSize);
+            parent1.inputSize, parent1.hiddenSize, parent1.outputSize, parent1.getPrecision());
+        double[] weightsInputToHidden = new double[child.weightsInputToHidden.size()];
+        double[] weightsHiddenToOutput = new double[child.weightsHiddenToOutput.size()];
         
         // Crossover weights and biases (randomly choose from parents or average)
+        SplittableRandom random = RandomStreams.current();
         for (int i = 0; i < child.inputSize; i++) {
             for (int j = 0; j < child.hiddenSize; j++) {
+                int index = j * child.inputSize + i;
                 if (random.nextBoolean()) {
-                    child.weightsInputToHidden[i][j] = parent1.weightsInputToHidden[i][j];
+                    weightsInputToHidden[index] = parent1.weightsInputToHidden.get(index);
                 } else {
-                    child.weightsInputToHidden[i][j] = parent2.weightsInputToHidden[i][j];
+                    weightsInputToHidden[index] = parent2.weightsInputToHidden.get(index);
                 }
                 
                 // Small chance of mutation
                 if (random.nextDouble() < MUTATION_RATE) {
-                    child.weightsInputToHidden[i][j] += random.nextGaussian() * MUTATION_RANGE;
+                    weightsInputToHidden[index] += random.nextGaussian() * MUTATION_RANGE;
                 }
             }
         }
@@ -193,15 +398,16 @@ public class NeuralNetwork implements Serializable {
             
             // Hidden to output weights
             for (int j = 0; j < child.outputSize; j++) {
+                int index = j * child.hiddenSize + i;
                 if (random.nextBoolean()) {
-                    child.weightsHiddenToOutput[i][j] = parent1.weightsHiddenToOutput[i][j];
+                    weightsHiddenToOutput[index] = parent1.weightsHiddenToOutput.get(index);
                 } else {
-                    child.weightsHiddenToOutput[i][j] = parent2.weightsHiddenToOutput[i][j];
+                    weightsHiddenToOutput[index] = parent2.weightsHiddenToOutput.get(index);
                 }
                 
                 // Small chance of mutation
                 if (random.nextDouble() < MUTATION_RATE) {
-                    child.weightsHiddenToOutput[i][j] += random.nextGaussian() * MUTATION_RANGE;
+                    weightsHiddenToOutput[index] += random.nextGaussian() * MUTATION_RANGE;
                 }
             }
         }
@@ -220,6 +426,8 @@ public class NeuralNetwork implements Serializable {
             }
         }
         
+        child.weightsInputToHidden = LayerWeights.of(child.getPrecision(), weightsInputToHidden);
+        child.weightsHiddenToOutput = LayerWeights.of(child.getPrecision(), weightsHiddenToOutput);
         return child;
     }
 } 
\ No newline at end of file
@@ -6,6 +6,7 @@ import com.ecoland.model.TerrainType;
 import com.ecoland.model.Tile;
 import com.ecoland.model.World;
 import com.ecoland.simulation.EntityManager;
+import com.ecoland.common.RandomStreams;
 
 import java.util.List;
 
@@ -43,10 +44,10 @@ public class OmnivoreBrain extends AnimalBrain {
     public OmnivoreBrain(int visionRange) {
         super(visionRange);
         // Initialize omnivore-specific features
-        this.plantPreference = 0.4 + Math.random() * 0.4; // 0.4-0.8 (slight bias toward balanced diet)
-        this.adaptability = 0.8 + Math.random() * 0.4; // 0.8-1.2
-        this.opportunismFactor = 0.8 + Math.random() * 0.4; // 0.8-1.2
-        this.learningRate = 0.08 + Math.random() * 0.08; // 0.08-0.16
+        this.plantPreference = 0.4 + RandomStreams.current().nextDouble() * 0.4; // 0.4-0.8 (slight bias toward balanced diet)
+        this.adaptability = 0.8 + RandomStreams.current().nextDouble() * 0.4; // 0.8-1.2
+        this.opportunismFactor = 0.8 + RandomStreams.current().nextDouble() * 0.4; // 0.8-1.2
+        this.learningRate = 0.08 + RandomStreams.current().nextDouble() * 0.08; // 0.08-0.16
     }
     
     /**
@@ -69,18 +70,18 @@ public class OmnivoreBrain extends AnimalBrain {
             this.plantMealsCounter = parent.plantMealsCounter / 3;
             
             // Apply mutations (15% chance)
-            if (Math.random() < 0.15) {
-                this.plantPreference += (Math.random() * 0.2) - 0.1; // ±0.1
+            if (RandomStreams.current().nextDouble() < 0.15) {
+                this.plantPreference += (RandomStreams.current().nextDouble() * 0.2) - 0.1; // ±0.1
                 this.plantPreference = Math.max(0.1, Math.min(0.9, this.plantPreference));
             }
             
-            if (Math.random() < 0.15) {
-                this.adaptability += (Math.random() * 0.2) - 0.1; // ±0.1
+            if (RandomStreams.current().nextDouble() < 0.15) {
+                this.adaptability += (RandomStreams.current().nextDouble() * 0.2) - 0.1; // ±0.1
                 this.adaptability = Math.max(0.5, Math.min(1.5, this.adaptability));
             }
             
-            if (Math.random() < 0.15) {
-                this.opportunismFactor += (Math.random() * 0.2) - 0.1; // ±0.1
+            if (RandomStreams.current().nextDouble() < 0.15) {
+                this.opportunismFactor += (RandomStreams.current().nextDouble() * 0.2) - 0.1; // ±0.1
                 this.opportunismFactor = Math.max(0.5, Math.min(1.5, this.opportunismFactor));
             }
         }
@@ -168,7 +169,7 @@ public class OmnivoreBrain extends AnimalBrain {
             }
             
             // Adjust preferences based on successful meals
-            if (Math.random() < learningRate * adaptability) {
+            if (RandomStreams.current().nextDouble() < learningRate * adaptability) {
                 if (likelyAtePlant) {
                     // Successful plant meal increases plant preference slightly
                     plantPreference = Math.min(0.9, plantPreference + 0.02);
@@ -324,58 +325,21 @@ public class OmnivoreBrain extends AnimalBrain {
      * Find the nearest potential prey.
      */
     private Entity findNearestPrey(Entity entity, EntityManager entityManager) {
-        List<Entity> nearbyEntities = entityManager.getEntitiesInRange(
-                entity.getX(), entity.getY(), (int)entity.getVisionRange());
-        
-        Entity closestPrey = null;
-        double closestDistance = Double.MAX_VALUE;
-        
-        for (Entity other : nearbyEntities) {
-            if (!other.isAlive() || other == entity) continue;
-            
-            // Omnivores can prey on smaller herbivores and plants
-            boolean isPotentialPrey = (other.getSpeciesType() == SpeciesType.HERBIVORE && 
-                                     other.getHealth() < entity.getHealth()) || 
-                                     other.getSpeciesType() == SpeciesType.PLANT;
-            
-            if (isPotentialPrey) {
-                double distance = calculateDistance(entity, other);
-                if (distance < closestDistance) {
-                    closestDistance = distance;
-                    closestPrey = other;
-                }
-            }
-        }
-        
-        return closestPrey;
+        // Omnivores can prey on smaller herbivores and plants
+        return entityManager.findNearest(entity.getX(), entity.getY(), (int)entity.getVisionRange(),
+                other -> other != entity &&
+                         ((other.getSpeciesType() == SpeciesType.HERBIVORE &&
+                           other.getHealth() < entity.getHealth()) ||
+                          other.getSpeciesType() == SpeciesType.PLANT));
     }
     
     /**
      * Find the nearest predator threat.
      */
     private Entity findNearestPredator(Entity entity, EntityManager entityManager) {
-        List<Entity> nearbyEntities = entityManager.getEntitiesInRange(
-                entity.getX(), entity.getY(), (int)entity.getVisionRange());
-        
-        Entity closestPredator = null;
-        double closestDistance = Double.MAX_VALUE;
-        
-        for (Entity other : nearbyEntities) {
-            if (!other.isAlive() || other == entity) continue;
-            
-            boolean isPredator = other.getSpeciesType() == SpeciesType.CARNIVORE || 
-                              other.getSpeciesType() == SpeciesType.APEX_PREDATOR;
-            
-            if (isPredator) {
-                double distance = calculateDistance(entity, other);
-                if (distance < closestDistance) {
-                    closestDistance = distance;
-                    closestPredator = other;
-                }
-            }
-        }
-        
-        return closestPredator;
+        return entityManager.findNearest(entity.getX(), entity.getY(), (int)entity.getVisionRange(),
+                other -> other.getSpeciesType() == SpeciesType.CARNIVORE ||
+                         other.getSpeciesType() == SpeciesType.APEX_PREDATOR);
     }
     
     /**
@@ -422,7 +386,7 @@ public class OmnivoreBrain extends AnimalBrain {
         inputs[PLANT_DETECTION_INPUT] = Math.min(1.0, maxPlantFood);
         
         // Prey detection
-        List<Entity> entities = entityManager.getEntitiesInRange(x, y, (int)entity.getVisionRange());
+        List<Entity> entities = entityManager.getEntitiesInRange(x, y, (int)entity.getVisionRange(), nearbyBuffer());
         int preyCount = 0;
         
         for (Entity other : entities) {
@@ -5,6 +5,7 @@ import com.ecoland.model.TerrainType;
 import com.ecoland.model.Tile;
 import com.ecoland.model.World;
 import com.ecoland.simulation.EntityManager;
+import com.ecoland.common.RandomStreams;
 
 /**
  * Minimalist brain for Plants with basic environmental awareness.
@@ -41,10 +42,10 @@ public class PlantBrain extends AnimalBrain {
         super(1); // Plants can only sense their immediate surroundings
         
         // Initialize plant-specific parameters with some randomization
-        this.soilQualityAwareness = 0.9 + Math.random() * 0.2; // 0.9-1.1
-        this.waterSensitivity = 0.9 + Math.random() * 0.2; // 0.9-1.1
-        this.lightSensitivity = 0.9 + Math.random() * 0.2; // 0.9-1.1
-        this.spreadingChance = 0.01 + Math.random() * 0.03; // 0.01-0.04
+        this.soilQualityAwareness = 0.9 + RandomStreams.current().nextDouble() * 0.2; // 0.9-1.1
+        this.waterSensitivity = 0.9 + RandomStreams.current().nextDouble() * 0.2; // 0.9-1.1
+        this.lightSensitivity = 0.9 + RandomStreams.current().nextDouble() * 0.2; // 0.9-1.1
+        this.spreadingChance = 0.01 + RandomStreams.current().nextDouble() * 0.03; // 0.01-0.04
     }
     
     /**
@@ -123,7 +124,7 @@ public class PlantBrain extends AnimalBrain {
             if (highGrowthCounter > 5) spreadProbability *= 1.5;
             
             // Make the final decision
-            shouldSpread = Math.random() < spreadProbability;
+            shouldSpread = RandomStreams.current().nextDouble() < spreadProbability;
         }
         
         // Plants use the "eat" flag to absorb nutrients
@@ -167,8 +168,8 @@ public class PlantBrain extends AnimalBrain {
      * Mutate a value within bounds.
      */
     private double mutateValue(double value, double mutationChance, double min, double max) {
-        if (Math.random() < mutationChance) {
-            value += (Math.random() * 0.2) - 0.1; // ±0.1
+        if (RandomStreams.current().nextDouble() < mutationChance) {
+            value += (RandomStreams.current().nextDouble() * 0.2) - 0.1; // ±0.1
             return Math.max(min, Math.min(max, value));
         }
         return value;
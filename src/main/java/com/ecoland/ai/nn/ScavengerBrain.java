@@ -4,6 +4,7 @@ import com.ecoland.entity.Entity;
 import com.ecoland.entity.SpeciesType;
 import com.ecoland.model.World;
 import com.ecoland.simulation.EntityManager;
+import com.ecoland.common.RandomStreams;
 
 import java.util.List;
 import java.util.ArrayList;
@@ -41,9 +42,9 @@ public class ScavengerBrain extends AnimalBrain {
     public ScavengerBrain(int visionRange) {
         super(visionRange);
         // Initialize scavenger-specific features
-        this.learningRate = 0.07 + Math.random() * 0.08; // 0.07-0.15
-        this.scavengingEfficiency = 0.9 + Math.random() * 0.3; // 0.9-1.2
-        this.detectionBonus = 1.0 + Math.random() * 0.5; // 1.0-1.5
+        this.learningRate = 0.07 + RandomStreams.current().nextDouble() * 0.08; // 0.07-0.15
+        this.scavengingEfficiency = 0.9 + RandomStreams.current().nextDouble() * 0.3; // 0.9-1.2
+        this.detectionBonus = 1.0 + RandomStreams.current().nextDouble() * 0.5; // 1.0-1.5
     }
     
     /**
@@ -62,13 +63,13 @@ public class ScavengerBrain extends AnimalBrain {
             this.successfulScavenges = parent.successfulScavenges / 3; // Inherit some scavenging experience
             
             // Apply mutations (20% chance)
-            if (Math.random() < 0.2) {
-                this.scavengingEfficiency += (Math.random() * 0.2) - 0.1; // ±0.1
+            if (RandomStreams.current().nextDouble() < 0.2) {
+                this.scavengingEfficiency += (RandomStreams.current().nextDouble() * 0.2) - 0.1; // ±0.1
                 this.scavengingEfficiency = Math.max(0.7, Math.min(1.5, this.scavengingEfficiency));
             }
             
-            if (Math.random() < 0.2) {
-                this.detectionBonus += (Math.random() * 0.3) - 0.15; // ±0.15
+            if (RandomStreams.current().nextDouble() < 0.2) {
+                this.detectionBonus += (RandomStreams.current().nextDouble() * 0.3) - 0.15; // ±0.15
                 this.detectionBonus = Math.max(0.8, Math.min(2.0, this.detectionBonus));
             }
         }
@@ -146,7 +147,7 @@ public class ScavengerBrain extends AnimalBrain {
             successfulScavenges++;
             
             // Positive reinforcement - successful scavenging improves efficiency
-            if (Math.random() < learningRate * 0.5) {
+            if (RandomStreams.current().nextDouble() < learningRate * 0.5) {
                 scavengingEfficiency = Math.min(1.5, scavengingEfficiency + 0.02);
                 System.out.println("Scavenger improved efficiency to: " + scavengingEfficiency);
             }
@@ -160,7 +161,7 @@ public class ScavengerBrain extends AnimalBrain {
      */
     private Entity findNearestDeadBody(Entity entity, EntityManager entityManager) {
         List<Entity> deadBodies = entityManager.findDeadBodiesInRange(
-                entity.getX(), entity.getY(), entity.getVisionRange() * detectionBonus, null);
+                entity.getX(), entity.getY(), entity.getVisionRange() * detectionBonus, null, nearbyBuffer());
         
         return deadBodies.isEmpty() ? null : deadBodies.get(0); // Already sorted by distance
     }
@@ -169,28 +170,9 @@ public class ScavengerBrain extends AnimalBrain {
      * Find the nearest predator threat.
      */
     private Entity findNearestPredator(Entity entity, EntityManager entityManager) {
-        List<Entity> nearbyEntities = entityManager.getEntitiesInRange(
-                entity.getX(), entity.getY(), (int)entity.getVisionRange());
-        
-        Entity closestPredator = null;
-        double closestDistance = Double.MAX_VALUE;
-        
-        for (Entity other : nearbyEntities) {
-            if (!other.isAlive() || other == entity) continue;
-            
-            boolean isPredator = other.getSpeciesType() == SpeciesType.CARNIVORE || 
-                              other.getSpeciesType() == SpeciesType.APEX_PREDATOR;
-            
-            if (isPredator) {
-                double distance = calculateDistance(entity, other);
-                if (distance < closestDistance) {
-                    closestDistance = distance;
-                    closestPredator = other;
-                }
-            }
-        }
-        
-        return closestPredator;
+        return entityManager.findNearest(entity.getX(), entity.getY(), (int)entity.getVisionRange(),
+                other -> other.getSpeciesType() == SpeciesType.CARNIVORE ||
+                         other.getSpeciesType() == SpeciesType.APEX_PREDATOR);
     }
     
     /**
@@ -224,7 +206,7 @@ public class ScavengerBrain extends AnimalBrain {
         int x = entity.getX();
         int y = entity.getY();
         List<Entity> deadBodies = entityManager.findDeadBodiesInRange(
-                x, y, entity.getVisionRange() * detectionBonus, world);
+                x, y, entity.getVisionRange() * detectionBonus, world, nearbyBuffer());
         
         // Dead body density
         inputs[DEAD_BODY_DENSITY_INPUT] = Math.min(1.0, deadBodies.size() / 5.0);
@@ -239,7 +221,7 @@ public class ScavengerBrain extends AnimalBrain {
         }
         
         // Predator threat assessment
-        List<Entity> entities = entityManager.getEntitiesInRange(x, y, (int)entity.getVisionRange());
+        List<Entity> entities = entityManager.getEntitiesInRange(x, y, (int)entity.getVisionRange(), nearbyBuffer());
         double maxThreat = 0;
         
         for (Entity other : entities) {
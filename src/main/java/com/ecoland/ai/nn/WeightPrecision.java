@@ -0,0 +1,56 @@
+package com.ecoland.ai.nn;
+
+/**
+ * How a NeuralNetwork stores its weights. Lower precision shrinks every brain, which with large
+ * populations is most of the heap the networks take and of the memory traffic of inference.
+ * Biases are few and stay doubles in every mode, and inference always computes in double.
+ * A Simulation binds its precision to the threads building its entities, like RandomStreams,
+ * so networks pick it up without being handed it; threads with nothing bound use DOUBLE.
+ */
+public enum WeightPrecision {
+    /**
+     * 64-bit doubles, as the networks have always used. Exact.
+     */
+    DOUBLE(8),
+
+    /**
+     * 32-bit floats. Each weight is rounded to about 7 significant digits.
+     */
+    FLOAT32(4),
+
+    /**
+     * 8-bit integers with one scale per layer: a weight is stored as round(w / scale) with
+     * scale = (largest |w| in the layer) / 127, so it is off by at most scale / 2.
+     */
+    INT8(1);
+
+    private final int bytesPerWeight;
+
+    WeightPrecision(int bytesPerWeight) {
+        this.bytesPerWeight = bytesPerWeight;
+    }
+
+    public int getBytesPerWeight() {
+        return bytesPerWeight;
+    }
+
+    private static final ThreadLocal<WeightPrecision> BOUND = ThreadLocal.withInitial(() -> DOUBLE);
+
+    /**
+     * Gets the precision bound to the current thread.
+     */
+    public static WeightPrecision current() {
+        return BOUND.get();
+    }
+
+    /**
+     * Binds a precision to the current thread.
+     * @param precision The precision to bind.
+     * @return The previously bound precision, to restore with another call to bind once done.
+     */
+    public static WeightPrecision bind(WeightPrecision precision) {
+        WeightPrecision previous = BOUND.get();
+        BOUND.set(precision);
+        return previous;
+    }
+}
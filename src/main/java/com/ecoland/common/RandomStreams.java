@@ -0,0 +1,38 @@
+package com.ecoland.common;
+
+import java.util.SplittableRandom;
+
+/**
+ * Thread-bound random streams for reproducible simulation runs.
+ * A Simulation derives all of its randomness from one seed by splitting a SplittableRandom:
+ * one stream per phase (world generation, population setup, ...) and one per entity.
+ * Code that draws randomness without an owner at hand, such as gene mutation, brain
+ * construction and learning, or pathfinding, uses the stream bound to the current thread,
+ * which the simulation binds to the entity or phase being processed. Because every stream
+ * is owned by exactly one entity or phase, the same seed gives the same run at any thread count.
+ * Threads with nothing bound fall back to their own unseeded stream.
+ */
+public final class RandomStreams {
+    private static final ThreadLocal<SplittableRandom> BOUND = ThreadLocal.withInitial(SplittableRandom::new);
+
+    // Prevent instantiation
+    private RandomStreams() {}
+
+    /**
+     * Gets the stream bound to the current thread.
+     */
+    public static SplittableRandom current() {
+        return BOUND.get();
+    }
+
+    /**
+     * Binds a stream to the current thread.
+     * @param stream The stream to bind.
+     * @return The previously bound stream, to restore with another call to bind once done.
+     */
+    public static SplittableRandom bind(SplittableRandom stream) {
+        SplittableRandom previous = BOUND.get();
+        BOUND.set(stream);
+        return previous;
+    }
+}
@@ -52,7 +52,8 @@ public class DataLogger {
             tick,
             herbivoreCount,
             carnivoreCount,
-            plantCount
+            plantCount,
+            entityManager.getTotalPopulation()
         );
         
         dataPoints.add(dataPoint);
@@ -128,13 +129,19 @@ public class DataLogger {
         public final int herbivoreCount;
         public final int carnivoreCount;  
         public final int plantCount;
+        public final int totalCount; // Living entities of every species
         public final long timestamp;
         
         public DataPoint(long tick, int herbivoreCount, int carnivoreCount, int plantCount) {
+            this(tick, herbivoreCount, carnivoreCount, plantCount, herbivoreCount + carnivoreCount + plantCount);
+        }
+        
+        public DataPoint(long tick, int herbivoreCount, int carnivoreCount, int plantCount, int totalCount) {
             this.tick = tick;
             this.herbivoreCount = herbivoreCount;
             this.carnivoreCount = carnivoreCount;
             this.plantCount = plantCount;
+            this.totalCount = totalCount;
             this.timestamp = System.currentTimeMillis();
         }
     }
@@ -0,0 +1,143 @@
+package com.ecoland.data;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aggregates the DataLogger points of many simulation runs into a mean and a 95% confidence
+ * band per logged tick. Runs stream their points in as they are logged, from any thread.
+ */
+public class EnsembleStatistics {
+
+    /**
+     * Population series aggregated from each DataLogger point. TOTAL counts every living
+     * entity, of all species, not just the three broken out.
+     */
+    public enum Series {
+        HERBIVORES, CARNIVORES, PLANTS, TOTAL
+    }
+
+    private static final int SERIES_COUNT = Series.values().length;
+
+    // z value of a two-sided 95% interval under the normal approximation
+    private static final double Z_95 = 1.959964;
+
+    // Per tick: run count, then the sum and sum of squares of every series
+    private final Map<Long, double[]> accumulators = new TreeMap<>();
+
+    /**
+     * Adds one run's data point to the statistics of its tick
+     * @param point The point logged by the run's DataLogger
+     */
+    public synchronized void addPoint(DataLogger.DataPoint point) {
+        double[] sums = accumulators.computeIfAbsent(point.tick, tick -> new double[1 + 2 * SERIES_COUNT]);
+        sums[0]++;
+        double[] values = values(point);
+        for (int series = 0; series < SERIES_COUNT; series++) {
+            sums[1 + series] += values[series];
+            sums[1 + SERIES_COUNT + series] += values[series] * values[series];
+        }
+    }
+
+    private static double[] values(DataLogger.DataPoint point) {
+        double[] values = new double[SERIES_COUNT];
+        values[Series.HERBIVORES.ordinal()] = point.herbivoreCount;
+        values[Series.CARNIVORES.ordinal()] = point.carnivoreCount;
+        values[Series.PLANTS.ordinal()] = point.plantCount;
+        values[Series.TOTAL.ordinal()] = point.totalCount;
+        return values;
+    }
+
+    /**
+     * Gets the summary of every tick that has points so far, in tick order
+     * @return List of tick summaries
+     */
+    public synchronized List<TickSummary> getSummaries() {
+        List<TickSummary> summaries = new ArrayList<>(accumulators.size());
+        for (Map.Entry<Long, double[]> entry : accumulators.entrySet()) {
+            summaries.add(new TickSummary(entry.getKey(), entry.getValue()));
+        }
+        return summaries;
+    }
+
+    /**
+     * Saves the mean and confidence band of every series per tick to a CSV file
+     * @param filePath Path to save the data
+     * @throws IOException If an I/O error occurs
+     */
+    public void saveData(String filePath) throws IOException {
+        List<TickSummary> summaries = getSummaries();
+        if (summaries.isEmpty()) {
+            throw new IOException("No data to save");
+        }
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
+            StringBuilder header = new StringBuilder("Tick,Runs");
+            for (Series series : Series.values()) {
+                String name = series.name().charAt(0) + series.name().substring(1).toLowerCase();
+                header.append(',').append(name).append(" Mean")
+                      .append(',').append(name).append(" Lower")
+                      .append(',').append(name).append(" Upper");
+            }
+            writer.println(header);
+
+            for (TickSummary summary : summaries) {
+                StringBuilder row = new StringBuilder().append(summary.tick).append(',').append(summary.runCount);
+                for (Series series : Series.values()) {
+                    row.append(',').append(summary.getMean(series))
+                       .append(',').append(summary.getLower(series))
+                       .append(',').append(summary.getUpper(series));
+                }
+                writer.println(row);
+            }
+        }
+    }
+
+    /**
+     * Mean and 95% confidence band of every series at one tick, over the runs that logged it
+     */
+    public static class TickSummary {
+        public final long tick;
+        public final int runCount;
+        private final double[] means = new double[SERIES_COUNT];
+        private final double[] halfWidths = new double[SERIES_COUNT];
+
+        private TickSummary(long tick, double[] sums) {
+            this.tick = tick;
+            this.runCount = (int) sums[0];
+            for (int series = 0; series < SERIES_COUNT; series++) {
+                double mean = sums[1 + series] / runCount;
+                means[series] = mean;
+                if (runCount > 1) {
+                    // Sample variance; clamped since rounding can take it just below zero
+                    double variance = Math.max(0.0,
+                            (sums[1 + SERIES_COUNT + series] - runCount * mean * mean) / (runCount - 1));
+                    halfWidths[series] = Z_95 * Math.sqrt(variance / runCount);
+                }
+            }
+        }
+
+        public double getMean(Series series) {
+            return means[series.ordinal()];
+        }
+
+        /**
+         * Gets the lower bound of the 95% confidence interval of the mean (normal approximation)
+         */
+        public double getLower(Series series) {
+            return means[series.ordinal()] - halfWidths[series.ordinal()];
+        }
+
+        /**
+         * Gets the upper bound of the 95% confidence interval of the mean (normal approximation)
+         */
+        public double getUpper(Series series) {
+            return means[series.ordinal()] + halfWidths[series.ordinal()];
+        }
+    }
+}
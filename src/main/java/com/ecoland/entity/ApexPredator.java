@@ -8,10 +8,11 @@ import com.ecoland.model.TerrainType;
 import com.ecoland.simulation.Simulation;
 import com.ecoland.simulation.EntityManager;
 
-import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
 /**
  * ApexPredator represents the top predator in the ecosystem.
@@ -29,14 +30,16 @@ public class ApexPredator extends Entity {
     private static final double HUNGER_THRESHOLD_FACTOR = 0.7; // Higher hunger threshold
     private static final double ATTACK_RANGE = 2.0; // Longer attack range
     private static final double TERRITORIAL_RANGE = 10.0; // Range for defending territory
+    private static final Set<SpeciesType> PREY_SPECIES =
+            EnumSet.of(SpeciesType.HERBIVORE, SpeciesType.CARNIVORE, SpeciesType.OMNIVORE);
     
-    private static final Random random = new Random();
     
     // State and Pathfinding
     private enum State { IDLE, WANDERING, HUNTING, FOLLOWING_PATH, ATTACKING, REPRODUCING, DEFENDING, NEURAL }
     private State currentState = State.IDLE;
     private int[] targetCoords = null;
     private Entity targetPrey = null;
+    private long targetPreyHandle = EntityManager.NO_HANDLE; // Checked in O(1) to tell if the target is still in the simulation
     private LinkedList<int[]> currentPath = null;
     private final Pathfinder pathfinder = new Pathfinder();
     private int pathRepathAttempts = 0;
@@ -101,7 +104,7 @@ public class ApexPredator extends Entity {
      */
     private void updateNeuralBehavior(Simulation simulation, World world) {
         // Get decision from the brain
-        AnimalBrain.BrainDecision decision = brain.makeDecision(this, world, simulation.getEntityManager());
+        AnimalBrain.BrainDecision decision = takeDecision(simulation, world);
         
         // Apply the decision
         
@@ -135,7 +138,7 @@ public class ApexPredator extends Entity {
         // 2. Attack (if prey nearby)
         if (decision.attack) {
             EntityManager entityManager = simulation.getEntityManager();
-            List<Entity> nearbyEntities = entityManager.getEntitiesInRange(x, y, (int)ATTACK_RANGE);
+            List<Entity> nearbyEntities = entityManager.getEntitiesInRange(x, y, (int)ATTACK_RANGE, nearbyBuffer());
             
             Entity bestPrey = null;
             double bestScore = Double.MAX_VALUE;
@@ -226,7 +229,7 @@ public class ApexPredator extends Entity {
                 attackEntity(targetPrey);
                 if (targetPrey != null && !targetPrey.isAlive()) {
                     eatPrey(targetPrey);
-                    targetPrey = null;
+                    setTargetPrey(null);
                     decideState(simulation, world);
                     if (currentState == State.WANDERING) wander(simulation, world);
                 }
@@ -263,6 +266,7 @@ public class ApexPredator extends Entity {
     /**
      * Get whether neural behavior is active.
      */
+    @Override
     public boolean isUsingNeuralBehavior() {
         return useNeuralBehavior;
     }
@@ -283,7 +287,8 @@ public class ApexPredator extends Entity {
         }
         
         // Check if intruder in territory
-        List<Entity> intruders = entityManager.findEntitiesInRange(territoryCenterX, territoryCenterY, territoryRadius, world);
+        List<Entity> intruders = entityManager.findEntitiesInRange(territoryCenterX, territoryCenterY, territoryRadius, world,
+                nearbyBuffer());
         
         boolean hasIntruder = false;
         for (Entity entity : intruders) {
@@ -293,7 +298,7 @@ public class ApexPredator extends Entity {
                 random.nextDouble() < 0.7) { // 70% chance to defend territory
                 
                 hasIntruder = true;
-                targetPrey = entity;
+                setTargetPrey(entity);
                 currentState = State.DEFENDING;
                 clearPath();
                 return;
@@ -350,20 +355,9 @@ public class ApexPredator extends Entity {
         EntityManager entityManager = simulation.getEntityManager();
         double visionRange = getVisionRange();
         
-        // Find all potential prey
-        List<Entity> potentialPrey = new ArrayList<>();
-        
-        // Add herbivores
-        potentialPrey.addAll(entityManager.findEntitiesInRange(
-                x, y, visionRange, SpeciesType.HERBIVORE, world));
-        
-        // Add carnivores
-        potentialPrey.addAll(entityManager.findEntitiesInRange(
-                x, y, visionRange, SpeciesType.CARNIVORE, world));
-        
-        // Add omnivores
-        potentialPrey.addAll(entityManager.findEntitiesInRange(
-                x, y, visionRange, SpeciesType.OMNIVORE, world));
+        // Find all potential prey (herbivores, carnivores and omnivores) in one pass
+        List<Entity> potentialPrey = entityManager.findEntitiesInRange(x, y, visionRange, PREY_SPECIES, world,
+                nearbyBuffer());
         
         // Remove non-viable prey
         potentialPrey.removeIf(prey -> !prey.isAlive());
@@ -401,7 +395,7 @@ public class ApexPredator extends Entity {
         }
         
         if (bestPrey != null) {
-            targetPrey = bestPrey;
+            setTargetPrey(bestPrey);
             
             if (isInAttackRange(targetPrey)) {
                 currentState = State.ATTACKING;
@@ -412,7 +406,7 @@ public class ApexPredator extends Entity {
                 if (calculatePath(simulation, world, targetCoords[0], targetCoords[1])) {
                     currentState = State.FOLLOWING_PATH;
                 } else {
-                    targetPrey = null;
+                    setTargetPrey(null);
                     targetCoords = null;
                     currentState = State.WANDERING;
                 }
@@ -438,7 +432,7 @@ public class ApexPredator extends Entity {
                 if (targetPrey.getSpeciesType() != SpeciesType.APEX_PREDATOR) {
                     eatPrey(targetPrey);
                 }
-                targetPrey = null;
+                setTargetPrey(null);
                 currentState = State.IDLE;
             }
         } else {
@@ -449,7 +443,7 @@ public class ApexPredator extends Entity {
                 followPath(simulation, world);
             } else {
                 currentState = State.WANDERING;
-                targetPrey = null;
+                setTargetPrey(null);
                 targetCoords = null;
             }
         }
@@ -493,12 +487,20 @@ public class ApexPredator extends Entity {
     private void validateTargetPrey(Simulation simulation) {
         if (targetPrey != null) {
             if (!targetPrey.isAlive() || 
-                !simulation.getEntityManager().getAllEntities().contains(targetPrey)) {
-                targetPrey = null;
+                simulation.getEntityManager().resolve(targetPreyHandle) != targetPrey) {
+                setTargetPrey(null);
                 currentState = State.IDLE;
             }
         }
     }
+
+    /**
+     * Sets the prey being hunted, remembering its handle for later validity checks.
+     */
+    private void setTargetPrey(Entity prey) {
+        targetPrey = prey;
+        targetPreyHandle = prey != null ? prey.getHandle() : EntityManager.NO_HANDLE;
+    }
     
     /**
      * Follow a calculated path.
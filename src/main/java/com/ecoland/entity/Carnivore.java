@@ -31,13 +31,13 @@ public class Carnivore extends Entity {
     private static final double FLEE_SPEED_BOOST = 1.1; // Speed boost when fleeing
     private static final double THREAT_POWER_THRESHOLD = 1.5; // Flee when threat is 1.5x stronger
 
-    private static final Random random = new Random();
 
     // State and Pathfinding
     private enum State { IDLE, WANDERING, HUNTING, FOLLOWING_PATH, ATTACKING, REPRODUCING, FLEEING, NEURAL }
     private State currentState = State.IDLE;
     private int[] targetCoords = null;
     private Entity targetPrey = null;
+    private long targetPreyHandle = EntityManager.NO_HANDLE; // Checked in O(1) to tell if the target is still in the simulation
     private LinkedList<int[]> currentPath = null;
     private final Pathfinder pathfinder = new Pathfinder();
     private int pathRepathAttempts = 0;
@@ -85,7 +85,7 @@ public class Carnivore extends Entity {
      */
     private void updateNeuralBehavior(Simulation simulation, World world) {
         // Get decision from the brain
-        AnimalBrain.BrainDecision decision = brain.makeDecision(this, world, simulation.getEntityManager());
+        AnimalBrain.BrainDecision decision = takeDecision(simulation, world);
         
         // Apply the decision
         
@@ -119,7 +119,7 @@ public class Carnivore extends Entity {
         // 2. Attack (if prey nearby)
         if (decision.attack) {
             EntityManager entityManager = simulation.getEntityManager();
-            List<Entity> nearbyEntities = entityManager.getEntitiesInRange(x, y, 1); // Range 1 for adjacent tiles
+            List<Entity> nearbyEntities = entityManager.getEntitiesInRange(x, y, 1, nearbyBuffer()); // Range 1 for adjacent tiles
             
             Entity bestPrey = null;
             double lowestHealth = Double.MAX_VALUE;
@@ -180,7 +180,7 @@ public class Carnivore extends Entity {
                 if (targetPrey != null && !targetPrey.isAlive()) { // If prey dies from this attack
                     eatPrey(targetPrey);
                     // After eating, re-evaluate state immediately
-                    targetPrey = null;
+                    setTargetPrey(null);
                     decideState(simulation, world);
                     if (currentState == State.WANDERING) wander(simulation, world); // Execute wander if decided
                 }
@@ -218,6 +218,7 @@ public class Carnivore extends Entity {
     /**
      * Get whether neural behavior is active.
      */
+    @Override
     public boolean isUsingNeuralBehavior() {
         return useNeuralBehavior;
     }
@@ -229,12 +230,20 @@ public class Carnivore extends Entity {
         if (targetPrey != null) {
             // Check if prey is still alive and exists in the simulation
             if (!targetPrey.isAlive() || 
-                !simulation.getEntityManager().getAllEntities().contains(targetPrey)) {
-                targetPrey = null;
+                simulation.getEntityManager().resolve(targetPreyHandle) != targetPrey) {
+                setTargetPrey(null);
                 currentState = State.IDLE;
             }
         }
     }
+
+    /**
+     * Sets the prey being hunted, remembering its handle for later validity checks.
+     */
+    private void setTargetPrey(Entity prey) {
+        targetPrey = prey;
+        targetPreyHandle = prey != null ? prey.getHandle() : EntityManager.NO_HANDLE;
+    }
     
     /**
      * Attack a prey entity
@@ -280,10 +289,10 @@ public class Carnivore extends Entity {
         EntityManager entityManager = simulation.getEntityManager();
         double currentVisionRange = getVisionRange();
         List<Entity> threats = entityManager.findEntitiesInRange(
-                x, y, currentVisionRange * THREAT_RANGE_FACTOR, SpeciesType.CARNIVORE, world);
+                x, y, currentVisionRange * THREAT_RANGE_FACTOR, SpeciesType.CARNIVORE, world, nearbyBuffer());
                 
         // Filter threats by removing self
-        threats.removeIf(e -> e == this);
+        threats.remove(this);
         
         if (threats.isEmpty()) {
             return;
@@ -358,7 +367,7 @@ public class Carnivore extends Entity {
         
         // Find nearby prey (herbivores)
         List<Entity> nearbyPrey = entityManager.findEntitiesInRange(
-                x, y, currentVisionRange, SpeciesType.HERBIVORE, world);
+                x, y, currentVisionRange, SpeciesType.HERBIVORE, world, nearbyBuffer());
         
         // Find the best prey target based on health or distance
         Entity bestPrey = null;
@@ -381,7 +390,7 @@ public class Carnivore extends Entity {
         }
         
         if (bestPrey != null) {
-            targetPrey = bestPrey;
+            setTargetPrey(bestPrey);
             
             // If prey is in attack range, switch to attacking
             if (isInAttackRange(targetPrey)) {
@@ -395,14 +404,14 @@ public class Carnivore extends Entity {
                     currentState = State.FOLLOWING_PATH;
                 } else {
                     // If pathing fails, wander
-                    targetPrey = null;
+                    setTargetPrey(null);
                     targetCoords = null;
                     currentState = State.WANDERING;
                 }
             }
         } else {
             // No prey found, wander
-            targetPrey = null;
+            setTargetPrey(null);
             currentState = State.WANDERING;
         }
     }
@@ -574,10 +583,10 @@ public class Carnivore extends Entity {
         // Check if should flee from stronger predators
         if (health < getMaxHealth() * HEALTH_FLEE_THRESHOLD) {
             List<Entity> threats = entityManager.findEntitiesInRange(
-                    x, y, getVisionRange() * THREAT_RANGE_FACTOR, SpeciesType.CARNIVORE, world);
+                    x, y, getVisionRange() * THREAT_RANGE_FACTOR, SpeciesType.CARNIVORE, world, nearbyBuffer());
             
             // Remove self from threats
-            threats.removeIf(e -> e == this);
+            threats.remove(this);
             
             if (!threats.isEmpty()) {
                 // Evaluate if any threats are significantly stronger
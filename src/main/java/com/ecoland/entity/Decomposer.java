@@ -24,7 +24,6 @@ public class Decomposer extends Entity {
     private static final double PREDATOR_DETECTION_RANGE_FACTOR = 0.8;
     private static final double FLEE_SPEED_BOOST = 1.1;
 
-    private static final Random random = new Random();
 
     // State and Pathfinding
     private enum State { IDLE, WANDERING, SEEKING_FOOD, FOLLOWING_PATH, DECOMPOSING, REPRODUCING, FLEEING, NEURAL }
@@ -63,8 +62,9 @@ public class Decomposer extends Entity {
     public void update(Simulation simulation, World world) {
         if (!isAlive) return;
 
-        // Base energy depletion
-        depleteEnergy(BASE_ENERGY_DEPLETION);
+        // Base energy depletion, for every tick since the last update when updated less often
+        int period = simulation.getUpdatePeriod(SpeciesType.DECOMPOSER);
+        depleteEnergy(BASE_ENERGY_DEPLETION * period);
         if (!isAlive) return;
         
         // Choose between neural behavior and traditional behavior
@@ -79,10 +79,8 @@ public class Decomposer extends Entity {
      * Neural network-based behavior update.
      */
     private void updateNeuralBehavior(Simulation simulation, World world) {
-        EntityManager entityManager = simulation.getEntityManager();
-        
         // Make a decision based on sensory inputs
-        AnimalBrain.BrainDecision decision = brain.makeDecision(this, world, entityManager);
+        AnimalBrain.BrainDecision decision = takeDecision(simulation, world);
         
         // Check if the decision is to eat (decompose)
         if (decision.eat) {
@@ -209,37 +207,31 @@ public class Decomposer extends Entity {
      */
     private boolean findAndTargetDeadOrganics(EntityManager entityManager, World world) {
         // Look for dead entities within vision range
-        List<Entity> nearbyEntities = entityManager.findEntitiesInRange(x, y, genes.visionRange, world);
-        List<Entity> deadEntities = new ArrayList<>();
+        List<Entity> nearbyEntities = entityManager.findDeadBodiesInRange(x, y, genes.visionRange, world,
+                nearbyBuffer());
         
-        for (Entity entity : nearbyEntities) {
-            if (!entity.isAlive() && entity.getSpeciesType() != SpeciesType.PLANT && entity != this) {
-                deadEntities.add(entity);
-            }
-        }
+        // Find the closest dead entity
+        Entity closestDead = null;
+        double minDistance = Double.MAX_VALUE;
         
-        if (!deadEntities.isEmpty()) {
-            // Find the closest dead entity
-            Entity closestDead = null;
-            double minDistance = Double.MAX_VALUE;
+        for (Entity dead : nearbyEntities) {
+            if (dead.isAlive() || dead.getSpeciesType() == SpeciesType.PLANT || dead == this) continue;
             
-            for (Entity dead : deadEntities) {
-                double dx = dead.getX() - x;
-                double dy = dead.getY() - y;
-                double distance = Math.sqrt(dx*dx + dy*dy);
-                
-                if (distance < minDistance) {
-                    minDistance = distance;
-                    closestDead = dead;
-                }
-            }
+            double dx = dead.getX() - x;
+            double dy = dead.getY() - y;
+            double distance = Math.sqrt(dx*dx + dy*dy);
             
-            if (closestDead != null) {
-                setTarget(closestDead.getX(), closestDead.getY(), world);
-                return true;
+            if (distance < minDistance) {
+                minDistance = distance;
+                closestDead = dead;
             }
         }
         
+        if (closestDead != null) {
+            setTarget(closestDead.getX(), closestDead.getY(), world);
+            return true;
+        }
+        
         // If no dead entities, look for tiles with high organic content
         // (Here we would ideally check for high organic content, but for simplicity,
         // we'll just pick a random valid tile within range)
@@ -319,7 +311,8 @@ public class Decomposer extends Entity {
     private void decomposeDeadOrganics(Simulation simulation, World world) {
         // Check if there's a dead entity here to decompose
         Entity deadEntity = null;
-        List<Entity> entitiesHere = simulation.getEntityManager().findEntitiesInRange(x, y, 0.5, world);
+        List<Entity> entitiesHere = simulation.getEntityManager().findDeadBodiesInRange(x, y, 0.5, world,
+                nearbyBuffer());
         
         for (Entity entity : entitiesHere) {
             if (!entity.isAlive() && entity != this && entity.getSpeciesType() != SpeciesType.PLANT) {
@@ -330,7 +323,7 @@ public class Decomposer extends Entity {
         
         if (deadEntity != null) {
             // Decompose the dead entity
-            simulation.getEntityManager().removeEntity(deadEntity);
+            deadEntity.setDecomposed();
             
             // Gain energy from decomposition
             double energyGain = DECOMPOSE_ENERGY_GAIN_FACTOR * genes.energyEfficiency;
@@ -349,9 +342,10 @@ public class Decomposer extends Entity {
             // Return to seeking food state
             currentState = State.SEEKING_FOOD;
         } else {
-            // No dead entity here, just improve soil fertility slightly
+            // No dead entity here, just improve soil fertility slightly, as much as every tick would have
             Tile currentTile = world.getTile(x, y);
-            double newFertility = Math.min(1.0, currentTile.getFertility() + FERTILITY_BOOST_FACTOR * 0.2);
+            int period = simulation.getUpdatePeriod(SpeciesType.DECOMPOSER);
+            double newFertility = Math.min(1.0, currentTile.getFertility() + FERTILITY_BOOST_FACTOR * 0.2 * period);
             currentTile.setFertility(newFertility);
         }
     }
@@ -410,8 +404,7 @@ public class Decomposer extends Entity {
         if (!isAlive) return;
         
         // Update position
-        x = newX;
-        y = newY;
+        setPosition(newX, newY);
     }
     
     /**
@@ -422,16 +415,18 @@ public class Decomposer extends Entity {
         double predatorDetectionRange = genes.visionRange * PREDATOR_DETECTION_RANGE_FACTOR;
         
         // Look for carnivores or apex predators
-        List<Entity> nearbyPredators = new ArrayList<>();
-        for (Entity entity : simulation.getEntityManager().findEntitiesInRange(x, y, predatorDetectionRange, world)) {
+        boolean predatorNearby = false;
+        for (Entity entity : simulation.getEntityManager().findEntitiesInRange(x, y, predatorDetectionRange, world,
+                nearbyBuffer())) {
             if (entity.isAlive() && 
                 (entity.getSpeciesType() == SpeciesType.CARNIVORE || 
                  entity.getSpeciesType() == SpeciesType.APEX_PREDATOR)) {
-                nearbyPredators.add(entity);
+                predatorNearby = true;
+                break;
             }
         }
         
-        if (!nearbyPredators.isEmpty()) {
+        if (predatorNearby) {
             // Found a predator, start fleeing
             currentState = State.FLEEING;
             flee(simulation, world);
@@ -451,7 +446,7 @@ public class Decomposer extends Entity {
         double minDistance = Double.MAX_VALUE;
         
         double predatorDetectionRange = genes.visionRange * PREDATOR_DETECTION_RANGE_FACTOR;
-        for (Entity entity : entityManager.findEntitiesInRange(x, y, predatorDetectionRange, world)) {
+        for (Entity entity : entityManager.findEntitiesInRange(x, y, predatorDetectionRange, world, nearbyBuffer())) {
             if (entity.isAlive() && 
                 (entity.getSpeciesType() == SpeciesType.CARNIVORE || 
                  entity.getSpeciesType() == SpeciesType.APEX_PREDATOR)) {
@@ -497,4 +492,12 @@ public class Decomposer extends Entity {
     public void setUseNeuralBehavior(boolean useNeural) {
         this.useNeuralBehavior = useNeural;
     }
+
+    /**
+     * Get whether neural behavior is active.
+     */
+    @Override
+    public boolean isUsingNeuralBehavior() {
+        return useNeuralBehavior;
+    }
 } 
\ No newline at end of file
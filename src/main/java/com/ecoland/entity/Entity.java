@@ -2,9 +2,15 @@ package com.ecoland.entity;
 
 import com.ecoland.ai.nn.AnimalBrain;
 import com.ecoland.ai.nn.SpeciesBrainFactory;
+import com.ecoland.common.RandomStreams;
 import com.ecoland.model.World;
+import com.ecoland.simulation.EntityManager;
 import com.ecoland.simulation.Simulation;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
 public abstract class Entity {
     protected int x;
     protected int y;
@@ -15,12 +21,21 @@ public abstract class Entity {
     protected final Genes genes;
     protected AnimalBrain brain; // Neural network brain for advanced decision-making
     protected boolean isDecomposed = false;
+    protected final SplittableRandom random; // This entity's own random stream, split from the stream bound at creation
+    private EntityManager entityManager; // Manager indexing this entity, notified when it moves
+    private int slot = -1; // Index in the manager's entity slot array, or -1 when not in it
+    private long id = -1; // Stable id, assigned when first added to a simulation
+    private long handle = EntityManager.NO_HANDLE; // Generation-checked handle issued by the manager
+    private boolean markedForRemoval = false;
+    private AnimalBrain.BrainDecision plannedDecision; // Made in the decide phase of the current tick, if any
+    private List<Entity> nearby; // Filled by this entity's range queries; created on first use
 
     public Entity(int x, int y, SpeciesType speciesType, Genes genes) {
         this.x = x;
         this.y = y;
         this.speciesType = speciesType;
         this.genes = genes;
+        this.random = RandomStreams.current().split();
         this.health = genes.maxHealth;
         this.energy = genes.maxEnergy * 0.7;
         
@@ -53,6 +68,45 @@ public abstract class Entity {
      */
     public abstract void update(Simulation simulation, World world);
 
+    /**
+     * Runs the read-only part of this entity's update ahead of time: gathering senses and
+     * letting the brain decide. Simulation.tick calls this for every living entity concurrently,
+     * before any entity is updated, so it must not modify anything but this entity's own brain
+     * and planned decision. update() then applies the planned decision via takeDecision.
+     *
+     * @param simulation The main simulation instance.
+     * @param world The current state of the simulation world.
+     */
+    public void decide(Simulation simulation, World world) {
+        plannedDecision = decidesWithBrain()
+                ? brain.makeDecision(this, world, simulation.getEntityManager())
+                : null;
+    }
+
+    /**
+     * Whether decide() asks the brain this tick: the entity is alive, has a brain and uses neural behavior.
+     */
+    public boolean decidesWithBrain() {
+        return isAlive && brain != null && isUsingNeuralBehavior();
+    }
+
+    /**
+     * Takes the decision planned for this tick by decide(), or asks the brain now if none was
+     * planned (e.g. for an entity born during this tick).
+     */
+    protected AnimalBrain.BrainDecision takeDecision(Simulation simulation, World world) {
+        AnimalBrain.BrainDecision decision = plannedDecision;
+        plannedDecision = null;
+        return decision != null ? decision : brain.makeDecision(this, world, simulation.getEntityManager());
+    }
+
+    /**
+     * Get whether neural behavior is active. Entities without neural behavior plan nothing in decide().
+     */
+    public boolean isUsingNeuralBehavior() {
+        return false;
+    }
+
     public void update(World world) {
          System.err.println("Warning: Entity.update(World) called directly. Use update(Simulation, World). Entity: " + this.speciesType);
          depleteEnergy(0.01 * genes.energyEfficiency);
@@ -83,7 +137,11 @@ public abstract class Entity {
     }
 
     protected void die() {
+        boolean wasAlive = this.isAlive;
         this.isAlive = false;
+        if (wasAlive && entityManager != null) {
+            entityManager.onEntityDied(this);
+        }
         System.out.println(speciesType + " at (" + x + ", " + y + ") died. Genes: " + genes.toString());
         // Don't remove entity from the world immediately - it will remain as a dead body
         // Decomposition will happen over time in the simulation tick
@@ -121,6 +179,14 @@ public abstract class Entity {
         return brain;
     }
 
+    /**
+     * Gets this entity's own random stream. The simulation binds it to the current thread
+     * while the entity decides and updates, so everything the entity draws comes from it.
+     */
+    public SplittableRandom getRandom() {
+        return random;
+    }
+
     public double getSpeed() {
         return genes.speed;
     }
@@ -150,8 +216,107 @@ public abstract class Entity {
     }
 
     public void setPosition(int x, int y) {
+        int oldX = this.x;
+        int oldY = this.y;
         this.x = x;
         this.y = y;
+        if (entityManager != null && (oldX != x || oldY != y)) {
+            entityManager.onEntityMoved(this, oldX, oldY);
+        }
+    }
+
+    /**
+     * Gets the entity manager that currently owns this entity.
+     * @return The owning manager, or null if the entity is not in a simulation
+     */
+    public EntityManager getEntityManager() {
+        return entityManager;
+    }
+
+    /**
+     * Sets the entity manager that spatially indexes this entity.
+     * Called by the EntityManager when the entity enters or leaves the simulation.
+     * @param entityManager The owning manager, or null once removed
+     */
+    public void setEntityManager(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Gets this entity's stable id.
+     * @return The id, or -1 if the entity has never been added to a simulation
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Sets this entity's stable id. Assigned by the EntityManager.
+     * @param id The id
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the handle issued for this entity, which resolves through EntityManager.resolve
+     * only while the entity is still in the simulation.
+     * @return The handle, or EntityManager.NO_HANDLE if none has been issued
+     */
+    public long getHandle() {
+        return handle;
+    }
+
+    /**
+     * Sets this entity's handle. Issued by the EntityManager.
+     * @param handle The handle
+     */
+    public void setHandle(long handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * Gets this entity's index in its manager's slot array.
+     * @return The slot index, or -1 if the entity is not in the active list
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Sets this entity's slot index. Maintained by the EntityManager.
+     * @param slot The slot index, or -1 once removed
+     */
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    /**
+     * Checks if this entity is pending removal at the end of the current tick.
+     * @return true if the entity has been marked for removal
+     */
+    public boolean isMarkedForRemoval() {
+        return markedForRemoval;
+    }
+
+    /**
+     * Flags this entity as pending removal. Maintained by the EntityManager.
+     * @param markedForRemoval Whether the entity is pending removal
+     */
+    public void setMarkedForRemoval(boolean markedForRemoval) {
+        this.markedForRemoval = markedForRemoval;
+    }
+
+    /**
+     * Gets the buffer this entity's range queries fill, so its updates do not build a new list per query.
+     * Every query clears it, so one result must be finished with before the next query runs.
+     * @return The entity's reusable query buffer
+     */
+    protected List<Entity> nearbyBuffer() {
+        if (nearby == null) {
+            nearby = new ArrayList<>();
+        }
+        return nearby;
     }
 
     /**
@@ -174,7 +339,11 @@ public abstract class Entity {
      * Mark this entity as fully decomposed
      */
     public void setDecomposed() {
+        boolean wasDeadBody = isDeadBody();
         this.isDecomposed = true;
+        if (wasDeadBody && entityManager != null) {
+            entityManager.onEntityDecomposed(this);
+        }
     }
     
     /**
@@ -1,12 +1,14 @@
 package com.ecoland.entity;
 
-import java.util.Random;
+import com.ecoland.common.RandomStreams;
+
+import java.util.SplittableRandom;
+
 
 /**
  * Represents the genetic makeup of an entity, holding inheritable traits.
  */
 public class Genes {
-    private static final Random random = new Random();
     private static final double MUTATION_RATE = 0.05; // 5% chance per gene to mutate
     private static final double MUTATION_MAGNITUDE = 0.1; // Mutate by +/- 10% of original value
 
@@ -131,6 +133,7 @@ public class Genes {
      * @return The potentially mutated value.
      */
     private double mutate(double value) {
+        SplittableRandom random = RandomStreams.current();
         if (random.nextDouble() < MUTATION_RATE) {
             double change = value * MUTATION_MAGNITUDE * (random.nextDouble() * 2 - 1); // +/- change
             double mutatedValue = value + change;
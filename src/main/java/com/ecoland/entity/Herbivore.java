@@ -11,7 +11,6 @@ import com.ecoland.simulation.EntityManager;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Random;
 
 public class Herbivore extends Entity {
 
@@ -23,7 +22,6 @@ public class Herbivore extends Entity {
     private static final double PREDATOR_DETECTION_RANGE_FACTOR = 1.0;
     private static final double FLEE_SPEED_BOOST = 1.2; // Factor applied to base speed when fleeing
 
-    private static final Random random = new Random();
 
     // State and Pathfinding
     private enum State { IDLE, WANDERING, SEEKING_FOOD, FOLLOWING_PATH, EATING, REPRODUCING, FLEEING, NEURAL }
@@ -76,7 +74,7 @@ public class Herbivore extends Entity {
      */
     private void updateNeuralBehavior(Simulation simulation, World world) {
         // Get decision from the brain
-        AnimalBrain.BrainDecision decision = brain.makeDecision(this, world, simulation.getEntityManager());
+        AnimalBrain.BrainDecision decision = takeDecision(simulation, world);
         
         // Apply the decision
         
@@ -180,6 +178,7 @@ public class Herbivore extends Entity {
     /**
      * Get whether neural behavior is active.
      */
+    @Override
     public boolean isUsingNeuralBehavior() {
         return useNeuralBehavior;
     }
@@ -190,7 +189,8 @@ public class Herbivore extends Entity {
         double predatorDetectionRange = currentVisionRange * PREDATOR_DETECTION_RANGE_FACTOR;
 
         // --- Check for Predators --- (Highest Priority)
-        List<Entity> nearbyPredators = entityManager.findEntitiesInRange(x, y, predatorDetectionRange, SpeciesType.CARNIVORE, world);
+        List<Entity> nearbyPredators = entityManager.findEntitiesInRange(x, y, predatorDetectionRange, SpeciesType.CARNIVORE, world,
+                nearbyBuffer());
         if (!nearbyPredators.isEmpty()) {
             if (currentState != State.FLEEING) { // Avoid clearing path if already fleeing
                  clearPath();
@@ -259,7 +259,8 @@ public class Herbivore extends Entity {
     private void flee(Simulation simulation, World world) {
         EntityManager entityManager = simulation.getEntityManager();
         double currentVisionRange = getVisionRange();
-        List<Entity> nearbyPredators = entityManager.findEntitiesInRange(x, y, currentVisionRange, SpeciesType.CARNIVORE, world);
+        List<Entity> nearbyPredators = entityManager.findEntitiesInRange(x, y, currentVisionRange, SpeciesType.CARNIVORE, world,
+                nearbyBuffer());
 
         if (nearbyPredators.isEmpty()) {
             // currentState = State.IDLE; // State change handled in decideState
@@ -9,9 +9,11 @@ import com.ecoland.simulation.Simulation;
 import com.ecoland.simulation.EntityManager;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
 /**
  * Omnivore class representing animals that can consume both plants and meat.
@@ -30,14 +32,15 @@ public class Omnivore extends Entity {
     private static final double ATTACK_RANGE = 1.3; // Medium attack range
     private static final double PREDATOR_DETECTION_RANGE_FACTOR = 1.0; // Standard detection
     private static final double FLEE_SPEED_BOOST = 1.15; // Medium flee boost
+    private static final Set<SpeciesType> PREDATOR_SPECIES = EnumSet.of(SpeciesType.CARNIVORE, SpeciesType.APEX_PREDATOR);
     
-    private static final Random random = new Random();
     
     // State and Pathfinding
     private enum State { IDLE, WANDERING, HUNTING, SEEKING_FOOD, FOLLOWING_PATH, EATING, ATTACKING, REPRODUCING, FLEEING, NEURAL }
     private State currentState = State.IDLE;
     private int[] targetCoords = null;
     private Entity targetPrey = null;
+    private long targetPreyHandle = EntityManager.NO_HANDLE; // Checked in O(1) to tell if the target is still in the simulation
     private LinkedList<int[]> currentPath = null;
     private final Pathfinder pathfinder = new Pathfinder();
     private int pathRepathAttempts = 0;
@@ -88,7 +91,7 @@ public class Omnivore extends Entity {
      */
     private void updateNeuralBehavior(Simulation simulation, World world) {
         // Get decision from the brain
-        AnimalBrain.BrainDecision decision = brain.makeDecision(this, world, simulation.getEntityManager());
+        AnimalBrain.BrainDecision decision = takeDecision(simulation, world);
         
         // Apply the decision
         
@@ -131,7 +134,7 @@ public class Omnivore extends Entity {
         // 3. Attacking 
         if (decision.attack) {
             EntityManager entityManager = simulation.getEntityManager();
-            List<Entity> nearbyEntities = entityManager.getEntitiesInRange(x, y, 1);
+            List<Entity> nearbyEntities = entityManager.getEntitiesInRange(x, y, 1, nearbyBuffer());
             
             Entity bestPrey = null;
             double bestPreyScore = Double.MAX_VALUE;
@@ -218,7 +221,7 @@ public class Omnivore extends Entity {
                 attackEntity(targetPrey);
                 if (targetPrey != null && !targetPrey.isAlive()) {
                     eatPrey(targetPrey);
-                    targetPrey = null;
+                    setTargetPrey(null);
                     decideState(simulation, world);
                     if (currentState == State.WANDERING) wander(simulation, world);
                 }
@@ -264,7 +267,7 @@ public class Omnivore extends Entity {
         
         // Check for prey
         EntityManager entityManager = simulation.getEntityManager();
-        List<Entity> nearbyEntities = entityManager.getEntitiesInRange(x, y, visionRange);
+        List<Entity> nearbyEntities = entityManager.getEntitiesInRange(x, y, visionRange, nearbyBuffer());
         
         for (Entity entity : nearbyEntities) {
             if (entity != this && entity.isAlive() && entity.getSpeciesType() == SpeciesType.HERBIVORE) {
@@ -310,6 +313,7 @@ public class Omnivore extends Entity {
     /**
      * Get whether neural behavior is active.
      */
+    @Override
     public boolean isUsingNeuralBehavior() {
         return useNeuralBehavior;
     }
@@ -322,19 +326,20 @@ public class Omnivore extends Entity {
         
         // Check for threats first (highest priority)
         double predatorDetectionRange = getVisionRange() * PREDATOR_DETECTION_RANGE_FACTOR;
+        // Carnivores and apex predators are both threats
         List<Entity> nearbyPredators = entityManager.findEntitiesInRange(
-                x, y, predatorDetectionRange, SpeciesType.CARNIVORE, world);
-        
-        // Add apex predators to the threat list
-        nearbyPredators.addAll(entityManager.findEntitiesInRange(
-                x, y, predatorDetectionRange, SpeciesType.APEX_PREDATOR, world));
+                x, y, predatorDetectionRange, PREDATOR_SPECIES, world, nearbyBuffer());
         
-        // Filter out non-threats
-        nearbyPredators.removeIf(predator -> 
-                !predator.isAlive() || 
-                (predator.getHealth() < health * 0.5)); // Ignore weakened predators
+        // Look for a real threat
+        boolean threatened = false;
+        for (Entity predator : nearbyPredators) {
+            if (predator.isAlive() && predator.getHealth() >= health * 0.5) { // Ignore weakened predators
+                threatened = true;
+                break;
+            }
+        }
         
-        if (!nearbyPredators.isEmpty()) {
+        if (threatened) {
             if (currentState != State.FLEEING) {
                 clearPath();
                 currentState = State.FLEEING;
@@ -417,7 +422,7 @@ public class Omnivore extends Entity {
         
         // Find nearby herbivores
         List<Entity> nearbyPrey = entityManager.findEntitiesInRange(
-                x, y, visionRange, SpeciesType.HERBIVORE, world);
+                x, y, visionRange, SpeciesType.HERBIVORE, world, nearbyBuffer());
         
         Entity bestPrey = null;
         double bestScore = Double.MAX_VALUE;
@@ -438,7 +443,7 @@ public class Omnivore extends Entity {
         }
         
         if (bestPrey != null) {
-            targetPrey = bestPrey;
+            setTargetPrey(bestPrey);
             
             if (isInAttackRange(targetPrey)) {
                 currentState = State.ATTACKING;
@@ -449,7 +454,7 @@ public class Omnivore extends Entity {
                 if (calculatePath(simulation, world, targetCoords[0], targetCoords[1])) {
                     currentState = State.FOLLOWING_PATH;
                 } else {
-                    targetPrey = null;
+                    setTargetPrey(null);
                     targetCoords = null;
                     currentState = State.WANDERING;
                 }
@@ -580,12 +585,20 @@ public class Omnivore extends Entity {
     private void validateTargetPrey(Simulation simulation) {
         if (targetPrey != null) {
             if (!targetPrey.isAlive() || 
-                !simulation.getEntityManager().getAllEntities().contains(targetPrey)) {
-                targetPrey = null;
+                simulation.getEntityManager().resolve(targetPreyHandle) != targetPrey) {
+                setTargetPrey(null);
                 currentState = State.IDLE;
             }
         }
     }
+
+    /**
+     * Sets the prey being hunted, remembering its handle for later validity checks.
+     */
+    private void setTargetPrey(Entity prey) {
+        targetPrey = prey;
+        targetPreyHandle = prey != null ? prey.getHandle() : EntityManager.NO_HANDLE;
+    }
     
     /**
      * Flee from predators.
@@ -596,28 +609,24 @@ public class Omnivore extends Entity {
         
         // Get all nearby predators (both carnivores and apex predators)
         List<Entity> nearbyPredators = entityManager.findEntitiesInRange(
-                x, y, visionRange, SpeciesType.CARNIVORE, world);
+                x, y, visionRange, PREDATOR_SPECIES, world, nearbyBuffer());
         
-        nearbyPredators.addAll(entityManager.findEntitiesInRange(
-                x, y, visionRange, SpeciesType.APEX_PREDATOR, world));
-        
-        // Filter out non-threats
-        nearbyPredators.removeIf(predator -> 
-                !predator.isAlive() || 
-                (predator.getHealth() < health * 0.5));
-        
-        if (nearbyPredators.isEmpty()) {
-            return;
-        }
-        
-        // Calculate average predator location
+        // Calculate average location of the threats, skipping weakened predators
         double avgPredatorX = 0, avgPredatorY = 0;
+        int threatCount = 0;
         for (Entity predator : nearbyPredators) {
+            if (!predator.isAlive() || predator.getHealth() < health * 0.5) continue;
             avgPredatorX += predator.getX();
             avgPredatorY += predator.getY();
+            threatCount++;
         }
-        avgPredatorX /= nearbyPredators.size();
-        avgPredatorY /= nearbyPredators.size();
+        
+        if (threatCount == 0) {
+            return;
+        }
+        
+        avgPredatorX /= threatCount;
+        avgPredatorY /= threatCount;
         
         // Calculate flee direction (away from average predator location)
         double fleeVectorX = x - avgPredatorX;
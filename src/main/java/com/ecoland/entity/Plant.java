@@ -5,7 +5,6 @@ import com.ecoland.model.World;
 import com.ecoland.model.TerrainType;
 import com.ecoland.simulation.Simulation;
 
-import java.util.Random;
 
 public class Plant extends Entity {
 
@@ -17,7 +16,6 @@ public class Plant extends Entity {
     private static final double INITIAL_PLANT_ENERGY = 1.0; // Represents initial size/maturity
     private static final double PLANT_ENERGY_DEPLETION = 0.001; // Slow decay
 
-    private static final Random random = new Random();
 
     /** Constructor for initial placement (uses default genes) */
     public Plant(int x, int y) {
@@ -44,25 +42,32 @@ public class Plant extends Entity {
             return;
         }
 
+        // Plants may be updated only every few ticks; each update then covers the whole period
+        int period = simulation.getUpdatePeriod(SpeciesType.PLANT);
+
         // 1. Grow based on tile fertility
-        grow(currentTile);
+        grow(currentTile, period);
 
-        // 2. Attempt to spread seeds using genetic spreadChance
-        if (random.nextDouble() < getSpreadChance()) { // Use getter for genetic trait
+        // 2. Attempt to spread seeds using genetic spreadChance, at least once over the period
+        double spreadChance = getSpreadChance(); // Use getter for genetic trait
+        if (period > 1) {
+            spreadChance = 1.0 - Math.pow(1.0 - spreadChance, period);
+        }
+        if (random.nextDouble() < spreadChance) {
             spreadSeeds(simulation);
         }
 
         // 3. Deplete internal 'energy' (size/maturity)
-        depleteEnergy(PLANT_ENERGY_DEPLETION);
+        depleteEnergy(PLANT_ENERGY_DEPLETION * period);
         if (!isAlive) {
             // If plant dies, maybe remove some food value from tile?
             currentTile.setPlantFoodValue(currentTile.getPlantFoodValue() * 0.5); // Decay
         }
     }
 
-    private void grow(Tile tile) {
+    private void grow(Tile tile, int ticks) {
         double growthAmount = BASE_GROWTH_RATE + (tile.getFertility() * FERTILITY_SCALING);
-        growthAmount = Math.min(growthAmount, MAX_GROWTH_PER_TICK); // Cap growth
+        growthAmount = Math.min(growthAmount, MAX_GROWTH_PER_TICK) * ticks; // Cap growth per tick
         tile.growPlantFood(growthAmount);
         // Maybe link internal energy gain to growth?
         gainEnergy(growthAmount * 0.1); // Gain a little 'maturity'
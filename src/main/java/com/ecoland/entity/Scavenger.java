@@ -28,13 +28,13 @@ public class Scavenger extends Entity {
     private static final double PREDATOR_DETECTION_RANGE_FACTOR = 1.0; // Standard detection range for predators
     private static final double FLEE_SPEED_BOOST = 1.2; // Good at fleeing
     
-    private static final Random random = new Random();
     
     // State and Pathfinding
     private enum State { IDLE, WANDERING, SEEKING_FOOD, FOLLOWING_PATH, EATING, REPRODUCING, FLEEING, NEURAL }
     private State currentState = State.IDLE;
     private int[] targetCoords = null;
     private Entity targetDeadBody = null;
+    private long targetDeadBodyHandle = EntityManager.NO_HANDLE; // Checked in O(1) to tell if the target is still in the simulation
     private LinkedList<int[]> currentPath = null;
     private final Pathfinder pathfinder = new Pathfinder();
     private int pathRepathAttempts = 0;
@@ -82,7 +82,7 @@ public class Scavenger extends Entity {
      */
     private void updateNeuralBehavior(Simulation simulation, World world) {
         // Get decision from the brain
-        AnimalBrain.BrainDecision decision = brain.makeDecision(this, world, simulation.getEntityManager());
+        AnimalBrain.BrainDecision decision = takeDecision(simulation, world);
         
         // Apply the decision
         
@@ -222,16 +222,7 @@ public class Scavenger extends Entity {
      * Find nearby dead bodies at the current location.
      */
     private List<Entity> findNearbyDeadBodies(Simulation simulation) {
-        List<Entity> nearbyEntities = simulation.getEntityManager().getAllEntities();
-        List<Entity> deadBodies = new ArrayList<>();
-        
-        for (Entity entity : nearbyEntities) {
-            if (entity.isDeadBody() && entity.getX() == x && entity.getY() == y) {
-                deadBodies.add(entity);
-            }
-        }
-        
-        return deadBodies;
+        return simulation.getEntityManager().findDeadBodiesInRange(x, y, 0, null, nearbyBuffer());
     }
     
     /**
@@ -243,7 +234,7 @@ public class Scavenger extends Entity {
         
         // Find all dead bodies in range, sorted by proximity (closest first)
         List<Entity> deadBodies = simulation.getEntityManager().findDeadBodiesInRange(
-                x, y, effectiveVisionRange, world);
+                x, y, effectiveVisionRange, world, nearbyBuffer());
         
         if (deadBodies.isEmpty()) {
             return false;
@@ -251,7 +242,7 @@ public class Scavenger extends Entity {
         
         // Target the closest dead body (first in the list)
         Entity closestDeadBody = deadBodies.get(0);
-        targetDeadBody = closestDeadBody;
+        setTargetDeadBody(closestDeadBody);
         targetCoords = new int[]{closestDeadBody.getX(), closestDeadBody.getY()};
         
         // Calculate path to target
@@ -288,7 +279,7 @@ public class Scavenger extends Entity {
         simulation.getEntityManager().removeEntity(deadBody);
         
         // Clear target references
-        targetDeadBody = null;
+        setTargetDeadBody(null);
         targetCoords = null;
         clearPath();
     }
@@ -411,12 +402,21 @@ public class Scavenger extends Entity {
      * Validate that the target dead body is still valid.
      */
     private void validateTargetDeadBody(Simulation simulation) {
-        if (targetDeadBody != null && !targetDeadBody.isDeadBody()) {
-            targetDeadBody = null;
+        if (targetDeadBody != null && (!targetDeadBody.isDeadBody() ||
+                simulation.getEntityManager().resolve(targetDeadBodyHandle) != targetDeadBody)) {
+            setTargetDeadBody(null);
             targetCoords = null;
             clearPath();
         }
     }
+
+    /**
+     * Sets the dead body being approached, remembering its handle for later validity checks.
+     */
+    private void setTargetDeadBody(Entity deadBody) {
+        targetDeadBody = deadBody;
+        targetDeadBodyHandle = deadBody != null ? deadBody.getHandle() : EntityManager.NO_HANDLE;
+    }
     
     /**
      * Wander randomly around the environment.
@@ -476,8 +476,7 @@ public class Scavenger extends Entity {
         }
         
         // Move to the new position
-        x = newX;
-        y = newY;
+        setPosition(newX, newY);
         
         // Deplete energy based on movement cost
         depleteEnergy(MOVE_ENERGY_COST_FACTOR);
@@ -495,7 +494,8 @@ public class Scavenger extends Entity {
         Entity nearestDangerousPredator = null;
         double minDistance = Double.MAX_VALUE;
         
-        for (Entity entity : simulation.getEntityManager().findEntitiesInRange(x, y, predatorDetectionRange, world)) {
+        for (Entity entity : simulation.getEntityManager().findEntitiesInRange(x, y, predatorDetectionRange, world,
+                nearbyBuffer())) {
             if (entity.isAlive() && 
                 (entity.getSpeciesType() == SpeciesType.CARNIVORE || 
                  entity.getSpeciesType() == SpeciesType.APEX_PREDATOR)) {
@@ -524,7 +524,7 @@ public class Scavenger extends Entity {
             // Clear path and targets
             clearPath();
             targetCoords = null;
-            targetDeadBody = null;
+            setTargetDeadBody(null);
             
             // Flee from predator
             flee(simulation, world, nearestDangerousPredator);
@@ -554,7 +554,7 @@ public class Scavenger extends Entity {
     private Entity findNearestPredator(Simulation simulation, World world) {
         double effectiveVisionRange = getVisionRange() * PREDATOR_DETECTION_RANGE_FACTOR;
         List<Entity> nearbyEntities = simulation.getEntityManager().getEntitiesInRange(
-                x, y, (int)effectiveVisionRange);
+                x, y, (int)effectiveVisionRange, nearbyBuffer());
         
         Entity nearestPredator = null;
         double closestDistance = Double.MAX_VALUE;
@@ -586,6 +586,14 @@ public class Scavenger extends Entity {
         this.useNeuralBehavior = useNeural;
     }
 
+    /**
+     * Get whether neural behavior is active.
+     */
+    @Override
+    public boolean isUsingNeuralBehavior() {
+        return useNeuralBehavior;
+    }
+
     /**
      * Try to reproduce if conditions are right.
      * @param simulation The simulation instance
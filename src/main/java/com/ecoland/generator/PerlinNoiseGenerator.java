@@ -1,5 +1,6 @@
 package com.ecoland.generator;
 
+import com.ecoland.common.RandomStreams;
 import com.ecoland.model.BiomeType;
 import com.ecoland.model.TerrainType;
 import com.ecoland.model.Tile;
@@ -52,10 +53,10 @@ public class PerlinNoiseGenerator implements WorldGenerator {
     }
 
     /**
-     * Creates a PerlinNoiseGenerator with default parameters
+     * Creates a PerlinNoiseGenerator with default parameters, seeded from the current thread's random stream
      */
     public PerlinNoiseGenerator() {
-        this(new Random().nextLong(), 50.0, 4, 0.5, 2.0);
+        this(RandomStreams.current().nextLong(), 50.0, 4, 0.5, 2.0);
     }
 
     /**
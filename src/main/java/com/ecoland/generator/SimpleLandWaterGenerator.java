@@ -1,10 +1,11 @@
 package com.ecoland.generator;
 
+import com.ecoland.common.RandomStreams;
 import com.ecoland.model.TerrainType;
 import com.ecoland.model.Tile;
 import com.ecoland.model.World;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * A very basic world generator that randomly assigns Land (Grass) or Water tiles.
@@ -12,12 +13,13 @@ import java.util.Random;
  */
 public class SimpleLandWaterGenerator implements WorldGenerator {
 
-    private final Random random = new Random();
     private static final double INITIAL_FOOD_MULTIPLIER = 0.8; // How much food relative to fertility
 
     @Override
     public void generate(World world) {
         System.out.println("Generating world using SimpleLandWaterGenerator...");
+        // Drawn per run from the stream bound by the simulation, so a seeded simulation gets the same world
+        SplittableRandom random = RandomStreams.current();
         for (int x = 0; x < world.getWidth(); x++) {
             for (int y = 0; y < world.getHeight(); y++) {
                 // Simple random assignment for now
@@ -5,6 +5,9 @@ import com.ecoland.entity.Entity;
 // TODO: Add imports for any resource classes if needed later
 
 public class Tile {
+    // Passive plant food regrowth per tick on grass and forest, as a fraction of fertility
+    public static final double PASSIVE_REGROWTH_RATE = 0.01;
+
     private final TerrainType terrainType;
     private final BiomeType biomeType;
     private final double elevation;
@@ -13,6 +16,17 @@ public class Tile {
     private double plantFoodValue; // Represents available food for herbivores or plant density
     private double temperature; // Added temperature for biome effects (0.0 to 1.0 scale, 0 = cold, 1 = hot)
     private double moisture; // Added moisture for biome effects (0.0 to 1.0 scale, 0 = dry, 1 = wet)
+
+    // Passive regrowth is applied lazily: plantFoodValue is the food as of lastUpdatedTick on the
+    // owning world's regrowth clock, and reads add the regrowth since then in closed form
+    private World world;
+    private long lastUpdatedTick;
+    private long fullAtTick = NOT_REGROWING; // Tick at which passive regrowth reaches the cap
+    // Tick and bucket index of the tile's entry in the world's schedule; the tick lags
+    // fullAtTick while the world defers the tile's reschedule
+    private long scheduledTick = NOT_REGROWING;
+    private int scheduleIndex;
+    private static final long NOT_REGROWING = -1;
     // TODO: Add other resource fields (e.g., water presence for drinking)
 
     /**
@@ -100,17 +114,25 @@ public class Tile {
         return moisture;
     }
 
+    /**
+     * Gets the plant food on the tile, including passive regrowth up to the current tick.
+     * Does not modify the tile, so it is safe to call while other threads read it.
+     */
     public double getPlantFoodValue() {
-        return plantFoodValue;
+        return plantFoodAt(world != null ? world.getRegrowthTick() : lastUpdatedTick);
     }
 
     // Setters for mutable properties
     public void setFertility(double fertility) {
+        materialize(); // Regrowth so far used the old fertility
         this.fertility = Math.max(0, fertility); // Ensure non-negative
+        scheduleRegrowth();
     }
 
     public void setPlantFoodValue(double plantFoodValue) {
+        materialize();
         this.plantFoodValue = Math.max(0, plantFoodValue); // Ensure non-negative
+        scheduleRegrowth();
     }
 
     /**
@@ -119,7 +141,142 @@ public class Tile {
      * regardless of natural caps.
      */
     public void forceSetPlantFoodValue(double value) {
+        materialize();
         this.plantFoodValue = Math.max(0, value);
+        scheduleRegrowth();
+    }
+
+    /**
+     * Whether the tile regrows plant food by itself every tick.
+     */
+    public boolean regrowsPassively() {
+        return terrainType == TerrainType.GRASS || terrainType == TerrainType.FOREST;
+    }
+
+    /**
+     * Gets the most plant food the tile grows to.
+     */
+    public double getMaxPlantFood() {
+        return fertility * 5.0 * biomeType.getBaseResourceDensity();
+    }
+
+    /**
+     * Computes the plant food at a tick of the regrowth clock in closed form. Each tick of passive
+     * regrowth adds a fixed amount and then clamps to the cap, so after n >= 1 ticks the value is
+     * min(cap, value + n * growth).
+     */
+    private double plantFoodAt(long tick) {
+        long elapsed = tick - lastUpdatedTick;
+        if (elapsed <= 0 || !regrowsPassively()) {
+            return plantFoodValue;
+        }
+        double growth = adjustGrowth(fertility * PASSIVE_REGROWTH_RATE);
+        return Math.min(getMaxPlantFood(), plantFoodValue + growth * elapsed);
+    }
+
+    /**
+     * Folds the regrowth since the last update into the stored value, before it is changed.
+     */
+    private void materialize() {
+        if (world != null) {
+            long now = world.getRegrowthTick();
+            plantFoodValue = plantFoodAt(now);
+            lastUpdatedTick = now;
+        }
+    }
+
+    /**
+     * Tells the world when passive regrowth will next bring the tile to its cap, after the stored
+     * value has changed. Tiles that will not change by themselves leave the world's regrowing set.
+     */
+    private void scheduleRegrowth() {
+        if (world == null) {
+            return;
+        }
+        long due = computeFullAtTick();
+        if (due != fullAtTick) {
+            fullAtTick = due;
+            world.rescheduleTile(this);
+        }
+    }
+
+    private long computeFullAtTick() {
+        if (!regrowsPassively()) {
+            return NOT_REGROWING;
+        }
+        double cap = getMaxPlantFood();
+        if (plantFoodValue >= cap) {
+            // Food above the cap is clamped by the next tick of regrowth
+            return plantFoodValue > cap ? lastUpdatedTick + 1 : NOT_REGROWING;
+        }
+        double growth = adjustGrowth(fertility * PASSIVE_REGROWTH_RATE);
+        if (growth <= 0) {
+            return NOT_REGROWING;
+        }
+        // Smallest n >= 1 with value + n * growth >= cap, matching plantFoodAt exactly
+        long ticks = Math.max(1, (long) Math.ceil((cap - plantFoodValue) / growth));
+        while (plantFoodValue + growth * ticks < cap) {
+            ticks++;
+        }
+        while (ticks > 1 && plantFoodValue + growth * (ticks - 1) >= cap) {
+            ticks--;
+        }
+        return lastUpdatedTick + ticks;
+    }
+
+    /**
+     * Attaches the tile to the world whose regrowth clock it follows, keeping its current food value.
+     */
+    void attach(World world) {
+        detach();
+        this.world = world;
+        this.lastUpdatedTick = world.getRegrowthTick();
+        scheduleRegrowth();
+    }
+
+    /**
+     * Takes the tile off the regrowth clock and schedule of its world, keeping its current food value.
+     */
+    void detach() {
+        materialize();
+        fullAtTick = NOT_REGROWING;
+        if (world != null) {
+            world.rescheduleTile(this);
+        }
+        world = null;
+    }
+
+    /**
+     * Called by the world on the tick the tile reaches its cap, after taking it off the schedule.
+     */
+    void retire() {
+        materialize();
+        fullAtTick = NOT_REGROWING;
+        scheduledTick = NOT_REGROWING;
+    }
+
+    /**
+     * Gets the tick at which passive regrowth brings the tile to its cap, or a negative value if
+     * it is not regrowing.
+     */
+    long getFullAtTick() {
+        return fullAtTick;
+    }
+
+    long getScheduledTick() {
+        return scheduledTick;
+    }
+
+    void setScheduledTick(long scheduledTick) {
+        this.scheduledTick = scheduledTick;
+    }
+
+    int getScheduleIndex() {
+        return scheduleIndex;
+    }
+
+    void setScheduleIndex(int scheduleIndex) {
+        this.scheduleIndex = scheduleIndex;
     }
 
     /**
@@ -149,6 +306,23 @@ public class Tile {
      * Increases food value based on biome and fertility
      */
     public void growPlantFood(double amount) {
+        materialize();
+        
+        // Add the growth
+        this.plantFoodValue += adjustGrowth(amount);
+        
+        // Cap food value based on biome and fertility
+        double maxFood = getMaxPlantFood();
+        if (this.plantFoodValue > maxFood) {
+            this.plantFoodValue = maxFood;
+        }
+        scheduleRegrowth();
+    }
+
+    /**
+     * Applies the biome and moisture modifiers to a raw growth amount.
+     */
+    private double adjustGrowth(double amount) {
         // Apply biome-specific growth modifiers
         double adjustedGrowth = amount;
         
@@ -172,16 +346,7 @@ public class Tile {
         }
         
         // Moisture affects plant growth
-        adjustedGrowth *= (0.5 + moisture * 0.5);
-        
-        // Add the growth
-        this.plantFoodValue += adjustedGrowth;
-        
-        // Cap food value based on biome and fertility
-        double maxFood = fertility * 5.0 * biomeType.getBaseResourceDensity();
-        if (this.plantFoodValue > maxFood) {
-            this.plantFoodValue = maxFood;
-        }
+        return adjustedGrowth * (0.5 + moisture * 0.5);
     }
 
     /**
@@ -189,25 +354,12 @@ public class Tile {
      * Returns the actual amount consumed (might be less than requested)
      */
     public double consumePlantFood(double amount) {
+        materialize();
         double consumed = Math.min(this.plantFoodValue, amount);
         this.plantFoodValue -= consumed;
+        scheduleRegrowth();
         return consumed;
     }
     
-    /**
-     * Update the tile for environmental effects during a simulation tick.
-     * This allows for dynamic changes like seasonal effects, erosion, etc.
-     * @param worldTime The current world time
-     */
-    public void update(long worldTime) {
-        // For now, just natural regrowth based on biome
-        if (isPassable(null) && fertility > 0) { // Null check is just for terrain passability
-            double baseGrowth = 0.01 * fertility * biomeType.getWaterRetention();
-            growPlantFood(baseGrowth);
-        }
-        
-        // Future: Could add seasonal effects, natural disasters, etc. based on worldTime
-    }
-
     // TODO: Add methods related to resources or tile state changes
 } 
\ No newline at end of file
@@ -3,11 +3,26 @@ package com.ecoland.model;
 import com.ecoland.common.Constants;
 import com.ecoland.generator.WorldGenerator;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 public class World {
     private final int width;
     private final int height;
     private final Tile[][] grid;
 
+    // Ticks of passive plant regrowth applied so far; tiles compute their food from it lazily
+    private long regrowthTick = 0;
+    // Tiles still regrowing, bucketed by the tick they reach their food cap. Each tile has exactly
+    // one entry and records its index in the bucket, so a change moves it with a swap-remove and
+    // the schedule stays as large as the regrowing set however often tiles change.
+    private final Map<Long, List<Tile>> tilesFullAt = new HashMap<>();
+    private int regrowingTileCount = 0;
+    // Buffer the current thread collects tile reschedules in instead of applying them, if any
+    private final ThreadLocal<List<Tile>> deferredReschedules = new ThreadLocal<>();
+
     /**
      * Creates a new world with the specified dimensions.
      * The world is automatically initialized with terrain using the default generator.
@@ -52,7 +67,14 @@ public class World {
     // Protected or package-private might be better depending on generator location
     public void setTile(int x, int y, Tile tile) {
         if (isValidCoordinate(x, y)) {
+            Tile replaced = grid[x][y];
+            if (replaced != null && replaced != tile) {
+                replaced.detach();
+            }
             grid[x][y] = tile;
+            if (tile != null) {
+                tile.attach(this);
+            }
         } else {
             // Consider logging a warning or throwing an exception
             System.err.println("Attempted to set tile at invalid coordinates: (" + x + ", " + y + ")");
@@ -78,5 +100,104 @@ public class World {
         return height;
     }
 
+    /**
+     * Gets the current tick of the regrowth clock that tiles compute their plant food against.
+     */
+    public long getRegrowthTick() {
+        return regrowthTick;
+    }
+
+    /**
+     * Applies one tick of passive plant regrowth to every tile. Tiles regrow lazily, so this only
+     * advances the clock and retires the tiles that reach their cap on this tick; the cost scales
+     * with the tiles that were changed rather than with the size of the world.
+     */
+    public void advanceRegrowth() {
+        regrowthTick++;
+        List<Tile> due = tilesFullAt.remove(regrowthTick);
+        if (due != null) {
+            for (Tile tile : due) {
+                tile.retire();
+            }
+            regrowingTileCount -= due.size();
+        }
+    }
+
+    /**
+     * Gets the number of tiles currently below their food cap and regrowing.
+     */
+    public int getRegrowingTileCount() {
+        return regrowingTileCount;
+    }
+
+    /**
+     * Sends the reschedules of tiles changed on the current thread to a buffer instead of the
+     * shared regrowth schedule, so passes on several threads can change tiles safely. The tiles
+     * only report their new ticks; applyReschedules files them afterwards, from one thread.
+     * @param buffer Buffer to collect the changed tiles in, or null to apply reschedules directly.
+     * @return The previously bound buffer, to restore with another call to deferReschedules once done.
+     */
+    public List<Tile> deferReschedules(List<Tile> buffer) {
+        List<Tile> previous = deferredReschedules.get();
+        if (buffer != null) {
+            deferredReschedules.set(buffer);
+        } else {
+            deferredReschedules.remove();
+        }
+        return previous;
+    }
+
+    /**
+     * Files the tiles collected while reschedules were deferred, in buffer order. Must not run
+     * alongside anything else that changes this world's tiles.
+     */
+    public void applyReschedules(List<Tile> buffer) {
+        for (Tile tile : buffer) {
+            moveScheduleEntry(tile);
+        }
+    }
+
+    /**
+     * Moves a tile's entry in the regrowing set to its current full-at tick, or defers the move
+     * if the current thread is collecting reschedules; a negative tick means not regrowing.
+     */
+    void rescheduleTile(Tile tile) {
+        List<Tile> deferred = deferredReschedules.get();
+        if (deferred != null) {
+            deferred.add(tile);
+        } else {
+            moveScheduleEntry(tile);
+        }
+    }
+
+    private void moveScheduleEntry(Tile tile) {
+        long oldTick = tile.getScheduledTick();
+        long newTick = tile.getFullAtTick();
+        if (oldTick == newTick) {
+            return; // Changed more than once while deferred, and already filed
+        }
+        if (oldTick >= 0) {
+            regrowingTileCount--;
+            // Swap the last entry of the bucket into the tile's place
+            List<Tile> bucket = tilesFullAt.get(oldTick);
+            int index = tile.getScheduleIndex();
+            Tile last = bucket.remove(bucket.size() - 1);
+            if (last != tile) {
+                bucket.set(index, last);
+                last.setScheduleIndex(index);
+            }
+            if (bucket.isEmpty()) {
+                tilesFullAt.remove(oldTick);
+            }
+        }
+        if (newTick >= 0) {
+            regrowingTileCount++;
+            List<Tile> bucket = tilesFullAt.computeIfAbsent(newTick, tick -> new ArrayList<>());
+            tile.setScheduleIndex(bucket.size());
+            bucket.add(tile);
+        }
+        tile.setScheduledTick(newTick);
+    }
+
     // TODO: Add methods to get neighbors, manage entities within the world, etc.
 } 
\ No newline at end of file
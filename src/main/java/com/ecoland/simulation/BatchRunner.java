@@ -0,0 +1,380 @@
+package com.ecoland.simulation;
+
+import com.ecoland.ai.nn.Activation;
+import com.ecoland.ai.nn.BrainMemoryReport;
+import com.ecoland.ai.nn.WeightPrecision;
+import com.ecoland.data.EnsembleStatistics;
+import com.ecoland.entity.Entity;
+import com.ecoland.entity.SpeciesType;
+import com.ecoland.generator.SimpleLandWaterGenerator;
+import com.ecoland.generator.WorldGenerator;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Headless command-line entry point that runs a Simulation without JavaFX, as fast as it can.
+ * Runs a fixed number of ticks or until every species is extinct, then reports throughput,
+ * the population curve and final statistics. Suitable for servers without a display.
+ * With --runs N it runs an ensemble of N simulations instead, seeded seed, seed + 1, ...,
+ * and reports the mean population and its 95% confidence band per logged tick.
+ *
+ * Usage: BatchRunner [--width N] [--height N] [--seed N] [--ticks N] [--sample N]
+ *        [--herbivores N] [--carnivores N] [--omnivores N] [--scavengers N]
+ *        [--apex-predators N] [--decomposers N] [--generator perlin|simple]
+ *        [--index grid|loose_quadtree|kd_tree] [--threads N] [--update-period SPECIES=K]...
+ *        [--activation exact|lookup_table|rational] [--precision double|float32|int8]
+ *        [--runs N] [--csv FILE] [--profile] [--memory] [--verbose]
+ */
+public class BatchRunner {
+    private int width = 100;
+    private int height = 100;
+    private long seed = new SplittableRandom().nextLong();
+    private long ticks = 1000;
+    private int sampleInterval = 10;
+    private int herbivores = 100;
+    private int carnivores = 20;
+    private int omnivores = 10;
+    private int scavengers = 10;
+    private int apexPredators = 5;
+    private int decomposers = 10;
+    private String generator = "perlin";
+    private SpatialIndexType indexType = SpatialIndexType.GRID;
+    private int threads = 0; // 0 keeps the simulation's default pool
+    private final int[] updatePeriods = new int[SpeciesType.values().length]; // 0 keeps the default
+    private Activation activation = Activation.EXACT;
+    private WeightPrecision precision = WeightPrecision.DOUBLE;
+    private int runs = 1;
+    private String csvPath = null;
+    private boolean verbose = false;
+    private boolean profile = false;
+    private boolean memory = false;
+
+    /**
+     * Population of every species at one sampled tick.
+     */
+    private static final class Sample {
+        final long tick;
+        final int[] counts;
+        final int total;
+
+        Sample(long tick, EntityManager entityManager) {
+            this.tick = tick;
+            this.counts = new int[SpeciesType.values().length];
+            for (SpeciesType type : SpeciesType.values()) {
+                counts[type.ordinal()] = entityManager.getPopulationCount(type);
+            }
+            this.total = entityManager.getTotalPopulation();
+        }
+    }
+
+    public static void main(String[] args) {
+        BatchRunner runner = new BatchRunner();
+        try {
+            runner.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: BatchRunner [--width N] [--height N] [--seed N] [--ticks N] [--sample N]\n"
+                    + "       [--herbivores N] [--carnivores N] [--omnivores N] [--scavengers N]\n"
+                    + "       [--apex-predators N] [--decomposers N] [--generator perlin|simple]\n"
+                    + "       [--index grid|loose_quadtree|kd_tree] [--threads N] [--update-period SPECIES=K]...\n"
+                    + "       [--activation exact|lookup_table|rational] [--precision double|float32|int8]\n"
+                    + "       [--runs N] [--csv FILE] [--profile] [--memory] [--verbose]");
+            System.exit(2);
+        }
+        if (runner.runs > 1) {
+            runner.runEnsemble();
+        } else {
+            runner.run();
+        }
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--verbose")) {
+                verbose = true;
+                continue;
+            }
+            if (option.equals("--profile")) {
+                profile = true;
+                continue;
+            }
+            if (option.equals("--memory")) {
+                memory = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            try {
+                switch (option) {
+                    case "--width": width = positive(option, Integer.parseInt(value)); break;
+                    case "--height": height = positive(option, Integer.parseInt(value)); break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    case "--ticks": ticks = Long.parseLong(value); break;
+                    case "--sample": sampleInterval = positive(option, Integer.parseInt(value)); break;
+                    case "--herbivores": herbivores = Integer.parseInt(value); break;
+                    case "--carnivores": carnivores = Integer.parseInt(value); break;
+                    case "--omnivores": omnivores = Integer.parseInt(value); break;
+                    case "--scavengers": scavengers = Integer.parseInt(value); break;
+                    case "--apex-predators": apexPredators = Integer.parseInt(value); break;
+                    case "--decomposers": decomposers = Integer.parseInt(value); break;
+                    case "--generator": generator = value.toLowerCase(Locale.ROOT); break;
+                    case "--index": indexType = SpatialIndexType.valueOf(value.toUpperCase(Locale.ROOT)); break;
+                    case "--threads": threads = positive(option, Integer.parseInt(value)); break;
+                    case "--update-period": parseUpdatePeriod(value); break;
+                    case "--activation": activation = Activation.valueOf(value.toUpperCase(Locale.ROOT)); break;
+                    case "--precision": precision = WeightPrecision.valueOf(value.toUpperCase(Locale.ROOT)); break;
+                    case "--runs": runs = positive(option, Integer.parseInt(value)); break;
+                    case "--csv": csvPath = value; break;
+                    default: throw new IllegalArgumentException("Unknown option " + option);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+            }
+        }
+        if (!generator.equals("perlin") && !generator.equals("simple")) {
+            throw new IllegalArgumentException("Unknown generator " + generator);
+        }
+    }
+
+    // Parses SPECIES=K, e.g. plant=4
+    private void parseUpdatePeriod(String value) {
+        int separator = value.indexOf('=');
+        if (separator < 0) {
+            throw new IllegalArgumentException("--update-period expects SPECIES=K: " + value);
+        }
+        SpeciesType type;
+        try {
+            type = SpeciesType.valueOf(value.substring(0, separator).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown species in --update-period: " + value);
+        }
+        updatePeriods[type.ordinal()] = positive("--update-period", Integer.parseInt(value.substring(separator + 1)));
+    }
+
+    private static int positive(String option, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(option + " must be positive");
+        }
+        return value;
+    }
+
+    /**
+     * Runs the configured simulation and prints the report to standard output.
+     */
+    private void run() {
+        PrintStream report = System.out;
+        if (!verbose) {
+            // Entities log every death and meal to System.out; drop that chatter unless asked for
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+        try {
+            report.printf("Ecoland batch run: %dx%d world, seed %d, %s generator, %s index, %s weights%n",
+                    width, height, seed, generator, indexType, precision);
+
+            Simulation simulation = createSimulation(seed);
+            if (threads > 0) {
+                simulation.setParallelism(threads);
+            }
+            simulation.setProfilingEnabled(profile);
+            EntityManager entityManager = simulation.getEntityManager();
+
+            List<Sample> samples = new ArrayList<>();
+            int[] peaks = new int[SpeciesType.values().length];
+            samples.add(new Sample(simulation.getCurrentTick(), entityManager));
+            recordPeaks(entityManager, peaks);
+
+            long start = System.nanoTime();
+            long ticksRun = 0;
+            while (ticksRun < ticks && entityManager.getTotalPopulation() > 0) {
+                simulation.tick();
+                ticksRun++;
+                recordPeaks(entityManager, peaks);
+                if (ticksRun % sampleInterval == 0) {
+                    samples.add(new Sample(simulation.getCurrentTick(), entityManager));
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            if (ticksRun % sampleInterval != 0) {
+                samples.add(new Sample(simulation.getCurrentTick(), entityManager));
+            }
+
+            printCurve(report, samples);
+            printSummary(report, entityManager, ticksRun, seconds, peaks);
+            if (profile) {
+                printProfile(report, simulation.getProfile());
+            }
+            if (memory) {
+                printMemory(report, simulation);
+            }
+            if (csvPath != null) {
+                writeCsv(samples);
+                report.println("Population curve written to " + csvPath);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing CSV: " + e.getMessage());
+        } finally {
+            System.setOut(report);
+        }
+    }
+
+    /**
+     * Runs the configured simulation --runs times on a pool of --threads threads and prints
+     * the aggregated population statistics.
+     */
+    private void runEnsemble() {
+        PrintStream report = System.out;
+        if (!verbose) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+        try {
+            report.printf("Ecoland ensemble: %d runs of %d ticks, %dx%d world, seeds %d to %d%n",
+                    runs, ticks, width, height, seed, seed + runs - 1);
+
+            EnsembleRunner ensemble = threads > 0 ? new EnsembleRunner(threads) : new EnsembleRunner();
+            long start = System.nanoTime();
+            EnsembleStatistics statistics = ensemble.run(runs, ticks, run -> createSimulation(seed + run));
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            printEnsemble(report, statistics);
+            report.println();
+            report.printf("Elapsed:       %.3f s%n", seconds);
+            report.printf("Throughput:    %.1f ticks/sec over all runs%n", seconds > 0 ? runs * ticks / seconds : 0.0);
+            if (csvPath != null) {
+                statistics.saveData(csvPath);
+                report.println("Ensemble statistics written to " + csvPath);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Ensemble interrupted");
+        } catch (IOException e) {
+            System.err.println("Error writing CSV: " + e.getMessage());
+        } finally {
+            System.setOut(report);
+        }
+    }
+
+    private Simulation createSimulation(long runSeed) {
+        Simulation simulation = new Simulation(width, height, herbivores, carnivores, omnivores,
+                scavengers, apexPredators, decomposers, createGenerator(), indexType, runSeed, precision);
+        for (SpeciesType type : SpeciesType.values()) {
+            if (updatePeriods[type.ordinal()] > 0) {
+                simulation.setUpdatePeriod(type, updatePeriods[type.ordinal()]);
+            }
+        }
+        simulation.setActivation(activation);
+        return simulation;
+    }
+
+    private WorldGenerator createGenerator() {
+        // Left to the simulation, which draws both from its world stream, so the seed fixes the terrain
+        return generator.equals("simple") ? new SimpleLandWaterGenerator() : null;
+    }
+
+    private static void recordPeaks(EntityManager entityManager, int[] peaks) {
+        for (SpeciesType type : SpeciesType.values()) {
+            peaks[type.ordinal()] = Math.max(peaks[type.ordinal()], entityManager.getPopulationCount(type));
+        }
+    }
+
+    private static void printCurve(PrintStream out, List<Sample> samples) {
+        out.println();
+        out.printf("%8s", "tick");
+        for (SpeciesType type : SpeciesType.values()) {
+            out.printf(" %13s", type);
+        }
+        out.printf(" %8s%n", "total");
+        for (Sample sample : samples) {
+            out.printf("%8d", sample.tick);
+            for (int count : sample.counts) {
+                out.printf(" %13d", count);
+            }
+            out.printf(" %8d%n", sample.total);
+        }
+    }
+
+    private static void printSummary(PrintStream out, EntityManager entityManager, long ticksRun,
+                                     double seconds, int[] peaks) {
+        out.println();
+        out.printf("Ticks run:     %d%s%n", ticksRun,
+                entityManager.getTotalPopulation() == 0 ? " (all species extinct)" : "");
+        out.printf("Elapsed:       %.3f s%n", seconds);
+        out.printf("Throughput:    %.1f ticks/sec%n", seconds > 0 ? ticksRun / seconds : 0.0);
+        out.printf("Final total:   %d alive, %d dead bodies%n",
+                entityManager.getTotalPopulation(), entityManager.getDeadBodyCount());
+        out.printf("%-14s %8s %8s%n", "species", "final", "peak");
+        for (SpeciesType type : SpeciesType.values()) {
+            out.printf("%-14s %8d %8d%n", type, entityManager.getPopulationCount(type), peaks[type.ordinal()]);
+        }
+    }
+
+    private static void printProfile(PrintStream out, TickProfile profile) {
+        out.println();
+        out.printf("Tick phases over the last %d ticks (microseconds):%n", profile.getTickCount());
+        out.printf("%-22s %10s %10s %10s %10s%n", "phase", "p50", "p99", "mean", "max");
+        for (TickProfile.PhaseTiming phase : profile.getPhases()) {
+            out.printf("%-22s %10.1f %10.1f %10.1f %10.1f%n", phase.getName(), phase.getP50() / 1e3,
+                    phase.getP99() / 1e3, phase.getMean() / 1e3, phase.getMax() / 1e3);
+        }
+    }
+
+    // Prints the estimated heap of the final population's brains in every weight precision
+    private static void printMemory(PrintStream out, Simulation simulation) {
+        BrainMemoryReport memoryReport = new BrainMemoryReport();
+        for (Entity entity : simulation.getEntityManager().getAllEntities()) {
+            if (entity.getBrain() != null) {
+                memoryReport.add(entity.getBrain());
+            }
+        }
+        out.println();
+        memoryReport.print(out, simulation.getWeightPrecision());
+    }
+
+    // Prints the mean and 95% band of each series, for the logged ticks on the sample interval
+    private void printEnsemble(PrintStream out, EnsembleStatistics statistics) {
+        out.println();
+        out.printf("%8s %5s", "tick", "runs");
+        for (EnsembleStatistics.Series series : EnsembleStatistics.Series.values()) {
+            out.printf(" %26s", series);
+        }
+        out.println();
+        for (EnsembleStatistics.TickSummary summary : statistics.getSummaries()) {
+            if (summary.tick % sampleInterval != 0) {
+                continue;
+            }
+            out.printf("%8d %5d", summary.tick, summary.runCount);
+            for (EnsembleStatistics.Series series : EnsembleStatistics.Series.values()) {
+                out.printf(" %26s", String.format("%.1f [%.1f, %.1f]", summary.getMean(series),
+                        summary.getLower(series), summary.getUpper(series)));
+            }
+            out.println();
+        }
+    }
+
+    private void writeCsv(List<Sample> samples) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(csvPath))) {
+            StringBuilder header = new StringBuilder("Tick");
+            for (SpeciesType type : SpeciesType.values()) {
+                header.append(',').append(type);
+            }
+            writer.println(header.append(",Total"));
+            for (Sample sample : samples) {
+                StringBuilder row = new StringBuilder().append(sample.tick);
+                for (int count : sample.counts) {
+                    row.append(',').append(count);
+                }
+                writer.println(row.append(',').append(sample.total));
+            }
+        }
+    }
+}
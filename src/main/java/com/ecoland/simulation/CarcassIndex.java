@@ -0,0 +1,141 @@
+package com.ecoland.simulation;
+
+import com.ecoland.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Holds the dead bodies managed by an EntityManager in their own spatial grid and
+ * schedules their natural decomposition.
+ * Instead of rolling a decomposition chance for every body every tick, each body
+ * draws its decomposition tick once when it enters the index (a geometric draw with
+ * the same per-tick chance) and waits in a timer wheel, so advancing a tick only
+ * touches the bodies that are due.
+ */
+class CarcassIndex {
+    // Number of slots in the timer wheel; bodies due further out wait for extra revolutions
+    private static final int WHEEL_SLOTS = 256;
+
+    private final SpatialGrid grid;
+    private final Set<Entity> bodies = new LinkedHashSet<>();
+    private final Collection<Entity> bodiesView = Collections.unmodifiableCollection(bodies);
+    private final List<List<ScheduledDecomposition>> wheel = new ArrayList<>(WHEEL_SLOTS);
+    private final double decompositionChance;
+    private final SplittableRandom random;
+    private long currentTick = 0;
+
+    /**
+     * A dead body waiting in the timer wheel for its decomposition tick.
+     */
+    private static class ScheduledDecomposition {
+        final Entity body;
+        final long dueTick;
+
+        ScheduledDecomposition(Entity body, long dueTick) {
+            this.body = body;
+            this.dueTick = dueTick;
+        }
+    }
+
+    /**
+     * @param worldWidth Width of the world in tiles.
+     * @param worldHeight Height of the world in tiles.
+     * @param cellSize Side length of a spatial grid cell in tiles.
+     * @param decompositionChance Chance per tick that a body decomposes naturally.
+     * @param random Stream the decomposition ticks are drawn from.
+     */
+    CarcassIndex(int worldWidth, int worldHeight, int cellSize, double decompositionChance, SplittableRandom random) {
+        this.grid = new SpatialGrid(worldWidth, worldHeight, cellSize);
+        this.decompositionChance = decompositionChance;
+        this.random = random;
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Adds a dead body and schedules its natural decomposition.
+     */
+    void add(Entity body) {
+        if (!bodies.add(body)) {
+            return;
+        }
+        grid.insert(body);
+        long dueTick = currentTick + drawTicksUntilDecomposition();
+        wheel.get((int) (dueTick % WHEEL_SLOTS)).add(new ScheduledDecomposition(body, dueTick));
+    }
+
+    /**
+     * Removes a dead body, e.g. once it has been eaten or decomposed.
+     * Its timer wheel entry is discarded lazily when its slot comes up.
+     * @return true if the body was in the index.
+     */
+    boolean remove(Entity body) {
+        if (bodies.remove(body)) {
+            grid.remove(body);
+            return true;
+        }
+        return false;
+    }
+
+    boolean contains(Entity body) {
+        return bodies.contains(body);
+    }
+
+    void move(Entity body, int oldX, int oldY) {
+        grid.move(body, oldX, oldY);
+    }
+
+    int size() {
+        return bodies.size();
+    }
+
+    /**
+     * Gets a read-only live view of all dead bodies, in the order they died.
+     */
+    Collection<Entity> getBodies() {
+        return bodiesView;
+    }
+
+    SpatialIndex getGrid() {
+        return grid;
+    }
+
+    /**
+     * Advances the timer wheel by one tick and collects the bodies due to decompose now.
+     * The bodies stay in the index; the caller decides how to decompose them.
+     * @param due Buffer to fill with due bodies; cleared first.
+     */
+    void advance(List<Entity> due) {
+        due.clear();
+        currentTick++;
+        List<ScheduledDecomposition> slot = wheel.get((int) (currentTick % WHEEL_SLOTS));
+        int kept = 0;
+        for (int i = 0; i < slot.size(); i++) {
+            ScheduledDecomposition scheduled = slot.get(i);
+            if (scheduled.dueTick == currentTick) {
+                if (bodies.contains(scheduled.body)) {
+                    due.add(scheduled.body);
+                }
+            } else {
+                slot.set(kept++, scheduled); // Due on a later revolution of the wheel
+            }
+        }
+        slot.subList(kept, slot.size()).clear();
+    }
+
+    /**
+     * Draws how many ticks a body lasts before decomposing: the number of trials until
+     * the first success when each tick succeeds with decompositionChance.
+     */
+    private long drawTicksUntilDecomposition() {
+        double u = 1.0 - random.nextDouble(); // In (0, 1], so the log is finite
+        return 1 + (long) Math.floor(Math.log(u) / Math.log(1.0 - decompositionChance));
+    }
+}
@@ -0,0 +1,189 @@
+package com.ecoland.simulation;
+
+import com.ecoland.data.DataLogger;
+import com.ecoland.data.EnsembleStatistics;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Runs many independent Simulations concurrently on a bounded pool, for parameter sweeps and
+ * repeated seeds, and streams each run's DataLogger points into one EnsembleStatistics.
+ * Runs yield between slices of ticks: a run ticks for a slice, hands its new points to the
+ * statistics and goes to the back of the pool's queue, so the runs in flight advance together
+ * and the statistics fill in evenly while the ensemble is still running.
+ * Every simulation keeps its random streams to itself, so a run gives the same result as it
+ * would alone, whichever thread ticks it.
+ */
+public class EnsembleRunner {
+    // Ticks a run advances before yielding its thread to the next run in the queue
+    private static final int TICKS_PER_SLICE = 50;
+
+    private final int threads;
+    private final int maxRunsInFlight;
+
+    /**
+     * Creates a runner with one thread per available processor.
+     */
+    public EnsembleRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a runner on a pool of the given size.
+     * @param threads Number of runs ticking at once, at least 1.
+     */
+    public EnsembleRunner(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be at least 1.");
+        }
+        this.threads = threads;
+        // Enough runs interleave to keep every thread busy; the rest are not built until one finishes
+        this.maxRunsInFlight = threads * 4;
+    }
+
+    /**
+     * Runs an ensemble and waits for it to finish.
+     * @param runs Number of simulations to run.
+     * @param ticks Ticks to run each simulation for. Runs carry on after going extinct, so every
+     *              run contributes to every logged tick.
+     * @param factory Creates the simulation for a run index, e.g. with a seed and initial counts
+     *                derived from it. Called on a pool thread. Each simulation runs its own ticks
+     *                on one thread, since the ensemble already spreads runs across the pool.
+     * @return The mean and confidence band per logged tick over all runs. A run that fails is
+     *         reported on standard error and contributes only the points it logged before failing.
+     * @throws InterruptedException If interrupted while waiting; the pool is stopped.
+     */
+    public EnsembleStatistics run(int runs, long ticks, IntFunction<Simulation> factory) throws InterruptedException {
+        EnsembleStatistics statistics = new EnsembleStatistics();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "ensemble");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Ensemble ensemble = new Ensemble(pool, runs, ticks, factory, statistics);
+        try {
+            ensemble.start(Math.min(runs, maxRunsInFlight));
+            ensemble.finished.await();
+        } finally {
+            pool.shutdownNow();
+        }
+        return statistics;
+    }
+
+    /**
+     * State shared by the runs of one ensemble.
+     */
+    private static class Ensemble {
+        final ExecutorService pool;
+        final int runs;
+        final long ticks;
+        final IntFunction<Simulation> factory;
+        final EnsembleStatistics statistics;
+        final AtomicInteger nextRun = new AtomicInteger();
+        final CountDownLatch finished;
+
+        Ensemble(ExecutorService pool, int runs, long ticks, IntFunction<Simulation> factory,
+                 EnsembleStatistics statistics) {
+            this.pool = pool;
+            this.runs = runs;
+            this.ticks = ticks;
+            this.factory = factory;
+            this.statistics = statistics;
+            this.finished = new CountDownLatch(runs);
+        }
+
+        void start(int count) {
+            for (int i = 0; i < count; i++) {
+                startNext();
+            }
+        }
+
+        void startNext() {
+            int index = nextRun.getAndIncrement();
+            if (index >= runs) {
+                return;
+            }
+            try {
+                pool.execute(new Run(this, index));
+            } catch (RejectedExecutionException e) {
+                // The pool was stopped, so nobody waits for the ensemble any more
+            }
+        }
+    }
+
+    /**
+     * One simulation of the ensemble; each execution ticks one slice and then requeues itself.
+     */
+    private static class Run implements Runnable {
+        private final Ensemble ensemble;
+        private final int index;
+        private Simulation simulation;
+        private long ticksRun = 0;
+        private int pointsStreamed = 0;
+
+        Run(Ensemble ensemble, int index) {
+            this.ensemble = ensemble;
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            // Anything but a slice that completes normally with ticks left ends the run, so the
+            // latch counts down even when a slice throws an Error
+            boolean done = true;
+            try {
+                if (simulation == null) {
+                    simulation = ensemble.factory.apply(index);
+                    simulation.setParallelism(1);
+                    streamPoints();
+                }
+                long sliceEnd = Math.min(ensemble.ticks, ticksRun + TICKS_PER_SLICE);
+                while (ticksRun < sliceEnd) {
+                    simulation.tick();
+                    ticksRun++;
+                }
+                streamPoints();
+                done = ticksRun >= ensemble.ticks;
+            } catch (RuntimeException e) {
+                System.err.println("Ensemble run " + index + " failed: " + e);
+            } finally {
+                if (done) {
+                    finish();
+                } else {
+                    requeue();
+                }
+            }
+        }
+
+        // Goes to the back of the queue for its next slice
+        private void requeue() {
+            try {
+                ensemble.pool.execute(this);
+            } catch (RejectedExecutionException e) {
+                finish(); // The pool was stopped; the ensemble is being abandoned
+            }
+        }
+
+        // Counts the run as finished and starts the next one in its place
+        private void finish() {
+            simulation = null;
+            ensemble.finished.countDown();
+            ensemble.startNext();
+        }
+
+        // Hands the points logged since the last call to the ensemble's statistics
+        private void streamPoints() {
+            List<DataLogger.DataPoint> points = simulation.getDataLogger().getDataPoints();
+            for (int i = pointsStreamed; i < points.size(); i++) {
+                ensemble.statistics.addPoint(points.get(i));
+            }
+            pointsStreamed = points.size();
+        }
+    }
+}
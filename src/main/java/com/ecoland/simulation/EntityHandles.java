@@ -0,0 +1,72 @@
+package com.ecoland.simulation;
+
+import com.ecoland.entity.Entity;
+
+import java.util.Arrays;
+
+/**
+ * Table of generation-checked entity handles.
+ * A handle packs a table index in its low 32 bits and the generation of that index
+ * in its high bits. Releasing an entity bumps the generation of its index, so stale
+ * handles stop resolving even after the index is reused for another entity.
+ */
+class EntityHandles {
+    private static final int GENERATION_MASK = 0x7fffffff;
+
+    private Entity[] entries = new Entity[64];
+    private int[] generations = new int[64];
+    private int[] freeIndices = new int[64];
+    private int freeCount = 0;
+    private int used = 0;
+
+    /**
+     * Issues a handle for an entity.
+     * @return The new handle.
+     */
+    long issue(Entity entity) {
+        int index;
+        if (freeCount > 0) {
+            index = freeIndices[--freeCount];
+        } else {
+            if (used == entries.length) {
+                entries = Arrays.copyOf(entries, used * 2);
+                generations = Arrays.copyOf(generations, used * 2);
+            }
+            index = used++;
+        }
+        entries[index] = entity;
+        return ((long) generations[index] << 32) | index;
+    }
+
+    /**
+     * Releases a handle so it no longer resolves and its index can be reused.
+     */
+    void release(long handle) {
+        int index = (int) handle;
+        if (resolve(handle) == null) {
+            return;
+        }
+        entries[index] = null;
+        generations[index] = (generations[index] + 1) & GENERATION_MASK;
+        if (freeCount == freeIndices.length) {
+            freeIndices = Arrays.copyOf(freeIndices, freeCount * 2);
+        }
+        freeIndices[freeCount++] = index;
+    }
+
+    /**
+     * Looks up the entity a handle refers to.
+     * @return The entity, or null if the handle is invalid or has been released.
+     */
+    Entity resolve(long handle) {
+        if (handle < 0) {
+            return null;
+        }
+        int index = (int) handle;
+        int generation = (int) (handle >>> 32);
+        if (index >= used || generations[index] != generation) {
+            return null;
+        }
+        return entries[index];
+    }
+}
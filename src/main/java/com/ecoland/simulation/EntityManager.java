@@ -1,22 +1,111 @@
 package com.ecoland.simulation;
 
+import com.ecoland.common.RandomStreams;
 import com.ecoland.entity.Entity;
 import com.ecoland.entity.SpeciesType;
 import com.ecoland.model.World;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Manages the collection of entities in the simulation.
  * Provides methods for querying entities based on location, type, etc.
- * TODO: Implement spatial hashing or quadtrees for efficient querying in large worlds.
+ * Location queries go through a pluggable SpatialIndex (a uniform grid by default, or a
+ * loose quadtree or KD-tree chosen at construction), so their cost depends on local
+ * density rather than on the total population. Species filters are passed down as
+ * bitmasks, so species-filtered queries (including several species at once) are answered
+ * in a single pass.
+ * Living entities are also partitioned by species, with population counters
+ * updated incrementally on birth, death and decomposition.
+ * List-returning queries have overloads that fill a caller-owned buffer, and the
+ * forEach visitors walk matches without building a list at all, so hot paths can
+ * query the world without producing garbage. The distance filter the queries hand
+ * the index is a reused per-thread object rather than a fresh lambda.
+ * Dead bodies live in a separate carcass index with its own spatial grid and a
+ * timer wheel that schedules their natural decomposition, so the main index only
+ * ever holds living entities.
+ * A per-tile count of living entities answers occupancy checks with a single array read.
+ * Each entity receives a stable id and a generation-checked handle when it is added;
+ * resolve(handle) finds it in O(1) and returns null once it has left the simulation.
  */
 public class EntityManager {
+    /** Handle value that never resolves to an entity. */
+    public static final long NO_HANDLE = -1L;
+
+    // Chance per tick that a dead body decomposes naturally
+    private static final double NATURAL_DECOMPOSITION_CHANCE = 0.01;
+
+    private static final SpeciesType[] SPECIES = SpeciesType.values();
+
+    // Which entities the range queries keep
+    private static final Predicate<Entity> ANY = entity -> true;
+    private static final Predicate<Entity> LIVING = Entity::isAlive;
+    private static final Predicate<Entity> DEAD_BODIES = Entity::isDeadBody;
+
+    // One range filter per thread, since decisions query the world concurrently
+    private static final ThreadLocal<RangeQuery> RANGE_QUERIES = ThreadLocal.withInitial(RangeQuery::new);
+
+    // Slot array of active entities; each entity records its own slot so it can be swap-removed in O(1)
     private final List<Entity> entities = new ArrayList<>();
     private final List<Entity> entitiesToAdd = new ArrayList<>();
     private final List<Entity> entitiesToRemove = new ArrayList<>();
+    private final SpatialIndex index;
+
+    // Number of living entities standing on each tile, indexed by y * worldWidth + x
+    private final int worldWidth;
+    private final int worldHeight;
+    private final int[] tileOccupancy;
+
+    // Living entities per species, in insertion order, with read-only views handed out to callers
+    private final Map<SpeciesType, Set<Entity>> livingBySpecies = new EnumMap<>(SpeciesType.class);
+    private final Map<SpeciesType, Collection<Entity>> livingViews = new EnumMap<>(SpeciesType.class);
+    private final int[] aliveCounts = new int[SpeciesType.values().length];
+    private int totalAlive = 0;
+
+    private final EntityHandles handles = new EntityHandles();
+    private long nextEntityId = 1;
+
+    private final CarcassIndex carcasses;
+    private final List<Entity> dueForDecomposition = new ArrayList<>();
+
+    /**
+     * Creates an entity manager for a world of the given dimensions, indexed by a uniform grid.
+     * @param worldWidth Width of the world in tiles.
+     * @param worldHeight Height of the world in tiles.
+     */
+    public EntityManager(int worldWidth, int worldHeight) {
+        this(worldWidth, worldHeight, SpatialIndexType.GRID);
+    }
+
+    /**
+     * Creates an entity manager for a world of the given dimensions.
+     * @param worldWidth Width of the world in tiles.
+     * @param worldHeight Height of the world in tiles.
+     * @param spatialIndexType The spatial index used for location queries over living entities.
+     */
+    public EntityManager(int worldWidth, int worldHeight, SpatialIndexType spatialIndexType) {
+        this.index = spatialIndexType.create(worldWidth, worldHeight);
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        this.tileOccupancy = new int[worldWidth * worldHeight];
+        this.carcasses = new CarcassIndex(worldWidth, worldHeight, SpatialIndexType.GRID_CELL_SIZE,
+                NATURAL_DECOMPOSITION_CHANCE, RandomStreams.current().split());
+        for (SpeciesType type : SpeciesType.values()) {
+            Set<Entity> partition = new LinkedHashSet<>();
+            livingBySpecies.put(type, partition);
+            livingViews.put(type, Collections.unmodifiableCollection(partition));
+        }
+    }
 
     /**
      * Adds an entity to be included in the simulation at the end of the current tick.
@@ -31,10 +120,12 @@ public class EntityManager {
 
     /**
      * Marks an entity for removal from the simulation at the end of the current tick.
+     * The mark is a flag on the entity, so marking the same entity repeatedly is free.
      * @param entity The entity to remove.
      */
     public void removeEntity(Entity entity) {
-        if (entity != null) {
+        if (entity != null && !entity.isMarkedForRemoval()) {
+            entity.setMarkedForRemoval(true);
             entitiesToRemove.add(entity);
         }
     }
@@ -42,14 +133,126 @@ public class EntityManager {
     /**
      * Updates the main entity list by adding pending entities and removing marked entities.
      * Only entities that are dead and not needed anymore are actually removed.
+     * Removed entities that are still dead bodies remain in the carcass index until
+     * they are eaten or decompose.
+     * Removal swaps the last entity into the freed slot, so the cost is proportional
+     * to the number of removals rather than to the population.
      * Should be called once per simulation tick, after all entity updates are done.
      */
     public void updateEntityList() {
         // Remove entities that are marked for removal
-        entities.removeIf(entity -> entitiesToRemove.contains(entity) && !entity.isAlive());
-        entities.addAll(entitiesToAdd);
+        for (Entity entity : entitiesToRemove) {
+            entity.setMarkedForRemoval(false);
+            int slot = entity.getSlot();
+            if (slot < 0 || entity.isAlive()) {
+                continue;
+            }
+            Entity last = entities.remove(entities.size() - 1);
+            if (last != entity) {
+                entities.set(slot, last);
+                last.setSlot(slot);
+            }
+            entity.setSlot(-1);
+            if (!entity.isDeadBody()) {
+                release(entity);
+            }
+        }
+        for (Entity entity : entitiesToAdd) {
+            entity.setSlot(entities.size());
+            entities.add(entity);
+            entity.setEntityManager(this);
+            if (entity.getId() < 0) {
+                entity.setId(nextEntityId++);
+            }
+            entity.setHandle(handles.issue(entity));
+            if (entity.isAlive()) {
+                index.insert(entity);
+                adjustOccupancy(entity.getX(), entity.getY(), 1);
+                livingBySpecies.get(entity.getSpeciesType()).add(entity);
+                aliveCounts[entity.getSpeciesType().ordinal()]++;
+                totalAlive++;
+            } else if (entity.isDeadBody()) {
+                carcasses.add(entity);
+            }
+        }
         entitiesToRemove.clear();
         entitiesToAdd.clear();
+        index.maintain();
+    }
+
+    /**
+     * Keeps the spatial index in sync when an entity changes position.
+     * Called by Entity.setPosition for entities owned by this manager.
+     * @param entity The entity that moved.
+     * @param oldX X coordinate before the move.
+     * @param oldY Y coordinate before the move.
+     */
+    public void onEntityMoved(Entity entity, int oldX, int oldY) {
+        if (entity.isAlive()) {
+            index.move(entity, oldX, oldY);
+            adjustOccupancy(oldX, oldY, -1);
+            adjustOccupancy(entity.getX(), entity.getY(), 1);
+        } else if (carcasses.contains(entity)) {
+            carcasses.move(entity, oldX, oldY);
+        }
+    }
+
+    /**
+     * Moves an entity from the living partitions and spatial index into the carcass index when it dies.
+     * Called by Entity.die for entities owned by this manager.
+     * @param entity The entity that just died.
+     */
+    public void onEntityDied(Entity entity) {
+        index.remove(entity);
+        adjustOccupancy(entity.getX(), entity.getY(), -1);
+        livingBySpecies.get(entity.getSpeciesType()).remove(entity);
+        aliveCounts[entity.getSpeciesType().ordinal()]--;
+        totalAlive--;
+        if (entity.isDeadBody()) {
+            carcasses.add(entity);
+        }
+    }
+
+    /**
+     * Drops a dead body from the carcass index once it has been eaten or has decomposed.
+     * Called by Entity.setDecomposed for entities owned by this manager.
+     * @param entity The dead body that decomposed.
+     */
+    public void onEntityDecomposed(Entity entity) {
+        carcasses.remove(entity);
+        release(entity);
+    }
+
+    /**
+     * Detaches an entity that has left the simulation for good and invalidates its handle.
+     */
+    private void release(Entity entity) {
+        if (entity.getEntityManager() == this) {
+            handles.release(entity.getHandle());
+            entity.setEntityManager(null);
+        }
+    }
+
+    /**
+     * Resolves an entity handle in O(1).
+     * @param handle A handle previously obtained from Entity.getHandle().
+     * @return The entity, or null if it has since been removed or decomposed.
+     */
+    public Entity resolve(long handle) {
+        return handles.resolve(handle);
+    }
+
+    /**
+     * Decomposes the dead bodies whose natural decomposition is scheduled for this tick.
+     * Each body's decomposition tick is drawn once when it dies, so this only touches
+     * the bodies that are due. Should be called once per simulation tick.
+     */
+    public void decomposeDueDeadBodies() {
+        carcasses.advance(dueForDecomposition);
+        for (Entity deadBody : dueForDecomposition) {
+            deadBody.setDecomposed();
+        }
+        dueForDecomposition.clear();
     }
 
     /**
@@ -60,9 +263,30 @@ public class EntityManager {
         return List.copyOf(entities); // Return an unmodifiable copy
     }
 
+    /**
+     * Copies all currently active entities into a caller-owned buffer.
+     * @param out Buffer to fill; cleared first.
+     * @return The filled buffer.
+     */
+    public List<Entity> getAllEntities(List<Entity> out) {
+        out.clear();
+        for (int i = 0; i < entities.size(); i++) {
+            out.add(entities.get(i));
+        }
+        return out;
+    }
+
+    /**
+     * Checks whether an entity is currently active in this manager, either alive or as a dead body.
+     * @param entity The entity to look up.
+     * @return true if the entity has been added and has not yet been removed or decomposed.
+     */
+    public boolean contains(Entity entity) {
+        return entity != null && entity.getEntityManager() == this;
+    }
+
     /**
      * Finds entities within a certain radius of a point.
-     * Current implementation is brute-force O(N). Needs optimization.
      * @param x Center x coordinate.
      * @param y Center y coordinate.
      * @param radius Search radius.
@@ -70,22 +294,24 @@ public class EntityManager {
      * @return List of entities within the radius.
      */
     public List<Entity> findEntitiesInRange(double x, double y, double radius, World world) {
-        List<Entity> found = new ArrayList<>();
-        double radiusSq = radius * radius;
-        for (Entity entity : entities) {
-            if (!entity.isAlive()) continue;
-            double dx = entity.getX() - x;
-            double dy = entity.getY() - y;
-            if (dx*dx + dy*dy <= radiusSq) {
-                found.add(entity);
-            }
-        }
-        return found;
+        return findEntitiesInRange(x, y, radius, world, new ArrayList<>());
+    }
+
+    /**
+     * Finds entities within a certain radius of a point, filling a caller-owned buffer.
+     * @param x Center x coordinate.
+     * @param y Center y coordinate.
+     * @param radius Search radius.
+     * @param world The world model.
+     * @param found Buffer to fill; cleared first.
+     * @return The filled buffer.
+     */
+    public List<Entity> findEntitiesInRange(double x, double y, double radius, World world, List<Entity> found) {
+        return collectInRange(x, y, radius, SpatialIndex.ALL_SPECIES, found);
     }
 
     /**
      * Finds entities of a specific species within a certain radius.
-     * Also O(N).
      * @param x Center x coordinate.
      * @param y Center y coordinate.
      * @param radius Search radius.
@@ -94,19 +320,172 @@ public class EntityManager {
      * @return List of matching entities within the radius.
      */
     public List<Entity> findEntitiesInRange(double x, double y, double radius, SpeciesType speciesType, World world) {
-        List<Entity> found = new ArrayList<>();
-        double radiusSq = radius * radius;
-        for (Entity entity : entities) {
-             if (!entity.isAlive() || entity.getSpeciesType() != speciesType) continue;
-             double dx = entity.getX() - x;
-             double dy = entity.getY() - y;
-             if (dx*dx + dy*dy <= radiusSq) {
-                found.add(entity);
-             }
+        return findEntitiesInRange(x, y, radius, speciesType, world, new ArrayList<>());
+    }
+
+    /**
+     * Finds entities of a specific species within a certain radius, filling a caller-owned buffer.
+     * @param x Center x coordinate.
+     * @param y Center y coordinate.
+     * @param radius Search radius.
+     * @param speciesType The species to filter by.
+     * @param world The world model.
+     * @param found Buffer to fill; cleared first.
+     * @return The filled buffer.
+     */
+    public List<Entity> findEntitiesInRange(double x, double y, double radius, SpeciesType speciesType, World world,
+                                            List<Entity> found) {
+        return collectInRange(x, y, radius, 1 << speciesType.ordinal(), found);
+    }
+
+    /**
+     * Finds entities of any of several species within a certain radius in a single pass over the spatial index.
+     * @param x Center x coordinate.
+     * @param y Center y coordinate.
+     * @param radius Search radius.
+     * @param speciesTypes The species to include.
+     * @param world The world model.
+     * @return List of matching entities within the radius.
+     */
+    public List<Entity> findEntitiesInRange(double x, double y, double radius, Set<SpeciesType> speciesTypes, World world) {
+        return findEntitiesInRange(x, y, radius, speciesTypes, world, new ArrayList<>());
+    }
+
+    /**
+     * Finds entities of any of several species within a certain radius in a single pass over the spatial index,
+     * filling a caller-owned buffer.
+     * @param x Center x coordinate.
+     * @param y Center y coordinate.
+     * @param radius Search radius.
+     * @param speciesTypes The species to include.
+     * @param world The world model.
+     * @param found Buffer to fill; cleared first.
+     * @return The filled buffer.
+     */
+    public List<Entity> findEntitiesInRange(double x, double y, double radius, Set<SpeciesType> speciesTypes, World world,
+                                            List<Entity> found) {
+        return collectInRange(x, y, radius, speciesMask(speciesTypes), found);
+    }
+
+    // Like SpatialIndex.speciesMask, without iterating the set
+    private static int speciesMask(Set<SpeciesType> speciesTypes) {
+        int mask = 0;
+        for (SpeciesType speciesType : SPECIES) {
+            if (speciesTypes.contains(speciesType)) {
+                mask |= 1 << speciesType.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Collects living entities within a radius whose species bit is set in speciesMask.
+     */
+    private List<Entity> collectInRange(double x, double y, double radius, int speciesMask, List<Entity> found) {
+        found.clear();
+        RangeQuery query = RangeQuery.start(x, y, radius * radius, LIVING, found, null);
+        try {
+            index.forEachInBox((int) Math.floor(x - radius), (int) Math.floor(y - radius),
+                    (int) Math.ceil(x + radius), (int) Math.ceil(y + radius), speciesMask, query);
+        } finally {
+            query.finish();
         }
         return found;
     }
 
+    /**
+     * Filter the range queries pass to an index as their visitor: keeps the entities the state
+     * filter accepts within radiusSq of (x, y), adding them to a list or handing them to a visitor.
+     * Reused by every query on its thread instead of allocating a capturing lambda per query.
+     */
+    private static final class RangeQuery implements Consumer<Entity>, Comparator<Entity> {
+        private double x;
+        private double y;
+        private double radiusSq;
+        private Predicate<Entity> state;
+        private List<Entity> found;
+        private Consumer<Entity> visitor;
+        private boolean inUse;
+
+        /**
+         * Gets the current thread's filter set up for a query. A query started from inside
+         * another one's visitor gets a fresh filter, leaving the outer query untouched.
+         */
+        static RangeQuery start(double x, double y, double radiusSq, Predicate<Entity> state,
+                                List<Entity> found, Consumer<Entity> visitor) {
+            RangeQuery query = RANGE_QUERIES.get();
+            if (query.inUse) {
+                query = new RangeQuery();
+            }
+            query.x = x;
+            query.y = y;
+            query.radiusSq = radiusSq;
+            query.state = state;
+            query.found = found;
+            query.visitor = visitor;
+            query.inUse = true;
+            return query;
+        }
+
+        void finish() {
+            found = null;
+            visitor = null;
+            inUse = false;
+        }
+
+        @Override
+        public void accept(Entity entity) {
+            if (!state.test(entity)) return;
+            double dx = entity.getX() - x;
+            double dy = entity.getY() - y;
+            if (dx*dx + dy*dy <= radiusSq) {
+                if (found != null) {
+                    found.add(entity);
+                } else {
+                    visitor.accept(entity);
+                }
+            }
+        }
+
+        /**
+         * Orders entities by distance from the query point, nearest first.
+         */
+        @Override
+        public int compare(Entity e1, Entity e2) {
+            return Double.compare(distanceSq(e1, x, y), distanceSq(e2, x, y));
+        }
+    }
+
+    /**
+     * Visits every living entity within a certain radius of a point without building a list.
+     * The visitor must not add, remove or move entities.
+     * @param x Center x coordinate.
+     * @param y Center y coordinate.
+     * @param radius Search radius.
+     * @param visitor Called once for each entity within the radius.
+     */
+    public void forEachInRange(double x, double y, double radius, Consumer<Entity> visitor) {
+        RangeQuery query = RangeQuery.start(x, y, radius * radius, LIVING, null, visitor);
+        try {
+            index.forEachInBox((int) Math.floor(x - radius), (int) Math.floor(y - radius),
+                    (int) Math.ceil(x + radius), (int) Math.ceil(y + radius), SpatialIndex.ALL_SPECIES, query);
+        } finally {
+            query.finish();
+        }
+    }
+
+    /**
+     * Visits every living entity within a square range of a point, the same area as getEntitiesInRange.
+     * The visitor must not add, remove or move entities.
+     * @param x Center x coordinate
+     * @param y Center y coordinate
+     * @param range Range to search along each axis
+     * @param visitor Called once for each entity within the range
+     */
+    public void forEachInSquare(int x, int y, int range, Consumer<Entity> visitor) {
+        index.forEachInBox(x - range, y - range, x + range, y + range, SpatialIndex.ALL_SPECIES, visitor);
+    }
+
      /**
      * Gets the entity at a specific tile coordinate, if any.
      * @param x X coordinate.
@@ -114,13 +493,10 @@ public class EntityManager {
      * @return The entity at (x, y), or null if the tile is empty or occupied by multiple (returns first found).
      */
     public Entity getEntityAt(int x, int y) {
-        // Inefficient O(N) search. Spatial hashing would make this O(1) average.
-        for (Entity entity : entities) {
-            if (entity.isAlive() && entity.getX() == x && entity.getY() == y) {
-                return entity;
-            }
+        if (getOccupancy(x, y) == 0) {
+            return null;
         }
-        return null;
+        return index.findNearest(x, y, 0, SpatialIndex.ALL_SPECIES, entity -> true);
     }
 
      /**
@@ -130,36 +506,54 @@ public class EntityManager {
      * @return true if an entity exists at (x, y), false otherwise.
      */
     public boolean isTileOccupied(int x, int y) {
-        // Inefficient O(N) search.
-        for (Entity entity : entities) {
-            if (entity.isAlive() && entity.getX() == x && entity.getY() == y) {
-                return true;
-            }
+        return getOccupancy(x, y) > 0;
+    }
+
+    /**
+     * Gets the number of living entities standing on a tile.
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @return The occupant count, or 0 for coordinates outside the world.
+     */
+    public int getOccupancy(int x, int y) {
+        if (x < 0 || x >= worldWidth || y < 0 || y >= worldHeight) {
+            return 0;
+        }
+        return tileOccupancy[y * worldWidth + x];
+    }
+
+    private void adjustOccupancy(int x, int y, int delta) {
+        if (x >= 0 && x < worldWidth && y >= 0 && y < worldHeight) {
+            tileOccupancy[y * worldWidth + x] += delta;
         }
-        return false;
     }
 
     public int getPopulationCount(SpeciesType speciesType) {
-        return (int) entities.stream()
-                .filter(Entity::isAlive)
-                .filter(e -> e.getSpeciesType() == speciesType)
-                .count();
+        return aliveCounts[speciesType.ordinal()];
     }
 
     public int getTotalPopulation() {
-         return (int) entities.stream().filter(Entity::isAlive).count();
+        return totalAlive;
     }
 
     /**
-     * Gets a list of all entities of a specific species type.
+     * Gets the number of dead bodies that have not yet decomposed.
+     * @return Current dead body count
+     */
+    public int getDeadBodyCount() {
+        return carcasses.size();
+    }
+
+    /**
+     * Gets the living entities of a specific species type.
+     * The returned collection is a read-only live view of the species partition,
+     * so it reflects births and deaths as they happen and must not be iterated
+     * while entities of that species may die.
      * @param speciesType The species type to filter by
-     * @return List of entities of the specified type
+     * @return Live view of the living entities of the specified type
      */
-    public List<Entity> getEntitiesByType(SpeciesType speciesType) {
-        return entities.stream()
-                .filter(Entity::isAlive)
-                .filter(e -> e.getSpeciesType() == speciesType)
-                .collect(Collectors.toList());
+    public Collection<Entity> getEntitiesByType(SpeciesType speciesType) {
+        return livingViews.get(speciesType);
     }
     
     /**
@@ -170,13 +564,13 @@ public class EntityManager {
      * @return true if the tile is occupied by another entity, false otherwise.
      */
     public boolean isTileOccupiedByOther(int x, int y, Entity excludeEntity) {
-        // Check if any entity (excluding the specified one) occupies the tile
-        for (Entity entity : entities) {
-            if (entity.isAlive() && entity.getX() == x && entity.getY() == y && entity != excludeEntity) {
-                return true;
-            }
+        int occupants = getOccupancy(x, y);
+        // Don't count the excluded entity if it is one of the living entities standing there
+        if (excludeEntity != null && excludeEntity.isAlive() && excludeEntity.getEntityManager() == this &&
+            excludeEntity.getX() == x && excludeEntity.getY() == y) {
+            occupants--;
         }
-        return false;
+        return occupants > 0;
     }
 
     /**
@@ -188,30 +582,77 @@ public class EntityManager {
      * @return List of entities within the range
      */
     public List<Entity> getEntitiesInRange(int x, int y, int range) {
-        List<Entity> result = new ArrayList<>();
-        for (Entity entity : entities) {
-            if (entity.isAlive()) {
-                int dx = Math.abs(entity.getX() - x);
-                int dy = Math.abs(entity.getY() - y);
-                if (dx <= range && dy <= range) {
-                    result.add(entity);
-                }
-            }
+        return getEntitiesInRange(x, y, range, new ArrayList<>());
+    }
+
+    /**
+     * Get all entities within a specific range of a point, filling a caller-owned buffer.
+     *
+     * @param x Center x coordinate
+     * @param y Center y coordinate
+     * @param range Range to search along each axis
+     * @param result Buffer to fill; cleared first
+     * @return The filled buffer
+     */
+    public List<Entity> getEntitiesInRange(int x, int y, int range, List<Entity> result) {
+        result.clear();
+        RangeQuery query = RangeQuery.start(x, y, Double.POSITIVE_INFINITY, ANY, result, null);
+        try {
+            index.forEachInBox(x - range, y - range, x + range, y + range, SpatialIndex.ALL_SPECIES, query);
+        } finally {
+            query.finish();
         }
         return result;
     }
 
+    /**
+     * Finds the living entity closest to a point (by straight-line distance) that matches a predicate,
+     * considering the same square area as getEntitiesInRange.
+     * The spatial index prunes everything that cannot beat the best match found so far,
+     * and no intermediate list is built.
+     *
+     * @param x Center x coordinate
+     * @param y Center y coordinate
+     * @param maxRadius Maximum distance to search along each axis
+     * @param predicate Filter the entity must satisfy
+     * @return The nearest matching entity, or null if none is in range
+     */
+    public Entity findNearest(int x, int y, int maxRadius, Predicate<Entity> predicate) {
+        return index.findNearest(x, y, maxRadius, SpatialIndex.ALL_SPECIES, predicate);
+    }
+
+    /**
+     * Finds the living entity of one species closest to a point that matches a predicate,
+     * considering the same square area as getEntitiesInRange. Only that species' entities
+     * are visited, so the predicate need not check the species.
+     *
+     * @param x Center x coordinate
+     * @param y Center y coordinate
+     * @param maxRadius Maximum distance to search along each axis
+     * @param speciesType The species to search
+     * @param predicate Filter the entity must satisfy
+     * @return The nearest matching entity, or null if none is in range
+     */
+    public Entity findNearest(int x, int y, int maxRadius, SpeciesType speciesType, Predicate<Entity> predicate) {
+        return index.findNearest(x, y, maxRadius, 1 << speciesType.ordinal(), predicate);
+    }
+
     /**
      * Gets all dead bodies in the simulation
      * @return List of all dead bodies in the simulation
      */
     public List<Entity> getAllDeadBodies() {
-        List<Entity> deadBodies = new ArrayList<>();
-        for (Entity entity : entities) {
-            if (entity.isDeadBody()) {
-                deadBodies.add(entity);
-            }
-        }
+        return getAllDeadBodies(new ArrayList<>(carcasses.size()));
+    }
+
+    /**
+     * Gets all dead bodies in the simulation, filling a caller-owned buffer
+     * @param deadBodies Buffer to fill; cleared first
+     * @return The filled buffer
+     */
+    public List<Entity> getAllDeadBodies(List<Entity> deadBodies) {
+        deadBodies.clear();
+        deadBodies.addAll(carcasses.getBodies());
         return deadBodies;
     }
     
@@ -222,12 +663,25 @@ public class EntityManager {
      * @param x Center x coordinate.
      * @param y Center y coordinate.
      * @param radius Search radius.
-     * @param world The world model (used for potential future optimizations with spatial partitioning).
+     * @param world The world model.
      * @return List of dead bodies within the radius, sorted by proximity.
      */
     public List<Entity> findDeadBodiesInRange(double x, double y, double radius, World world) {
-        List<Entity> found = new ArrayList<>();
-        double radiusSq = radius * radius;
+        return findDeadBodiesInRange(x, y, radius, world, new ArrayList<>());
+    }
+
+    /**
+     * Finds dead bodies within a certain radius of a point, filling a caller-owned buffer.
+     *
+     * @param x Center x coordinate.
+     * @param y Center y coordinate.
+     * @param radius Search radius.
+     * @param world The world model.
+     * @param found Buffer to fill; cleared first.
+     * @return The filled buffer, sorted by proximity.
+     */
+    public List<Entity> findDeadBodiesInRange(double x, double y, double radius, World world, List<Entity> found) {
+        found.clear();
         
         // First-pass filter: Only consider entities that could be in range based on rough bounds checking
         int minX = (int) Math.floor(x - radius);
@@ -235,35 +689,25 @@ public class EntityManager {
         int minY = (int) Math.floor(y - radius);
         int maxY = (int) Math.ceil(y + radius);
         
-        // Find all dead bodies in possible range
-        for (Entity entity : entities) {
-            if (!entity.isDeadBody()) continue;
-            
-            int entityX = entity.getX();
-            int entityY = entity.getY();
-            
-            // Quick bounds check before expensive distance calculation
-            if (entityX < minX || entityX > maxX || entityY < minY || entityY > maxY) {
-                continue;
-            }
-            
-            // Precise distance check
-            double dx = entityX - x;
-            double dy = entityY - y;
-            double distSq = dx*dx + dy*dy;
+        // Find all dead bodies in the carcass grid cells overlapping the bounds, checking the precise distance
+        RangeQuery query = RangeQuery.start(x, y, radius * radius, DEAD_BODIES, found, null);
+        try {
+            carcasses.getGrid().forEachInBox(minX, minY, maxX, maxY, SpatialIndex.ALL_SPECIES, query);
             
-            if (distSq <= radiusSq) {
-                found.add(entity);
+            // Sort by distance (useful for scavengers to prioritize closest dead bodies)
+            if (found.size() > 1) {
+                found.sort(query);
             }
+        } finally {
+            query.finish();
         }
         
-        // Sort by distance (useful for scavengers to prioritize closest dead bodies)
-        found.sort((e1, e2) -> {
-            double d1 = Math.pow(e1.getX() - x, 2) + Math.pow(e1.getY() - y, 2);
-            double d2 = Math.pow(e2.getX() - x, 2) + Math.pow(e2.getY() - y, 2);
-            return Double.compare(d1, d2);
-        });
-        
         return found;
     }
-} 
\ No newline at end of file
+
+    private static double distanceSq(Entity entity, double x, double y) {
+        double dx = entity.getX() - x;
+        double dy = entity.getY() - y;
+        return dx*dx + dy*dy;
+    }
+}
@@ -0,0 +1,361 @@
+package com.ecoland.simulation;
+
+import com.ecoland.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Balanced two-dimensional KD-tree that is rebuilt periodically rather than rebalanced in place.
+ * Every node keeps the bounding box and species of its subtree, and queries prune by those.
+ * A move updates the entity where it sits and widens the boxes on its path from the root, in
+ * O(log n); boxes only grow until the next rebuild. New entities wait in a backlog of at most
+ * MAX_BACKLOG entries that queries scan linearly, and removed ones are blanked out.
+ * The rebuild splits at medians found by quickselect, in O(n log n), and runs at the tick
+ * boundary once the changes since the last one reach a quarter of the tree, so it costs an
+ * amortised O(log n) per move.
+ */
+class KdTree implements SpatialIndex {
+    // Longest the backlog may get before an insert rebuilds the tree, bounding the linear scans
+    private static final int MAX_BACKLOG = 64;
+
+    // Changes below which maintain never rebuilds the tree
+    private static final int MIN_REBUILD_CHANGES = 64;
+
+    // Implicit tree: the subtree over [lo, hi) has its root at (lo + hi) >>> 1 and was split on x
+    // at even depths and y at odd depths. Positions are kept live; blanked entries keep theirs.
+    private Entity[] nodes = new Entity[0];
+    private int[] nodeX = new int[0];
+    private int[] nodeY = new int[0];
+    // Per subtree root: bounds (inclusive) of every position its entries have had since the
+    // rebuild, and the species bits of its entries
+    private int[] minX = new int[0];
+    private int[] minY = new int[0];
+    private int[] maxX = new int[0];
+    private int[] maxY = new int[0];
+    private int[] species = new int[0];
+    private final Map<Entity, Integer> treeSlot = new IdentityHashMap<>();
+    private int changes = 0;
+
+    // Entities inserted since the last rebuild
+    private final List<Entity> backlog = new ArrayList<>();
+    private final Map<Entity, Integer> backlogSlot = new IdentityHashMap<>();
+
+    /**
+     * Running best match of a nearest-neighbour search.
+     */
+    private static final class Nearest {
+        Entity entity;
+        long distSq = Long.MAX_VALUE;
+    }
+
+    @Override
+    public void insert(Entity entity) {
+        backlogSlot.put(entity, backlog.size());
+        backlog.add(entity);
+        changes++;
+        if (backlog.size() > MAX_BACKLOG) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public void remove(Entity entity) {
+        Integer slot = treeSlot.remove(entity);
+        if (slot != null) {
+            nodes[slot] = null;
+            changes++;
+        } else {
+            removeFromBacklog(entity);
+        }
+    }
+
+    @Override
+    public void move(Entity entity, int oldX, int oldY) {
+        Integer slot = treeSlot.get(entity);
+        if (slot == null) {
+            return; // Backlog entries are read at their live position
+        }
+        int x = entity.getX(), y = entity.getY();
+        nodeX[slot] = x;
+        nodeY[slot] = y;
+        // Widen the box of every subtree on the way down to the entity's slot
+        int lo = 0, hi = nodes.length;
+        while (true) {
+            int mid = (lo + hi) >>> 1;
+            if (x < minX[mid]) minX[mid] = x;
+            if (x > maxX[mid]) maxX[mid] = x;
+            if (y < minY[mid]) minY[mid] = y;
+            if (y > maxY[mid]) maxY[mid] = y;
+            if (slot == mid) {
+                break;
+            } else if (slot < mid) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        changes++;
+    }
+
+    /**
+     * Rebuilds the tree at the tick boundary once the changes since the last rebuild are a
+     * quarter of the tree, before the grown boxes make queries visit much more than they need.
+     */
+    @Override
+    public void maintain() {
+        if (changes > Math.max(MIN_REBUILD_CHANGES, treeSlot.size() / 4)) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public void forEachInBox(int minX, int minY, int maxX, int maxY, int speciesMask, Consumer<Entity> visitor) {
+        visitBox(0, nodes.length, minX, minY, maxX, maxY, speciesMask, visitor);
+        for (int i = 0; i < backlog.size(); i++) {
+            Entity entity = backlog.get(i);
+            int ex = entity.getX(), ey = entity.getY();
+            if (ex >= minX && ex <= maxX && ey >= minY && ey <= maxY
+                    && (speciesMask & (1 << entity.getSpeciesType().ordinal())) != 0) {
+                visitor.accept(entity);
+            }
+        }
+    }
+
+    @Override
+    public Entity findNearest(int x, int y, int maxRadius, int speciesMask, Predicate<Entity> predicate) {
+        Nearest best = new Nearest();
+        if (nodes.length > 0) {
+            search(0, nodes.length, x, y, maxRadius, speciesMask, predicate, best);
+        }
+        for (int i = 0; i < backlog.size(); i++) {
+            Entity entity = backlog.get(i);
+            if ((speciesMask & (1 << entity.getSpeciesType().ordinal())) == 0) continue;
+            int dx = entity.getX() - x;
+            int dy = entity.getY() - y;
+            if (Math.abs(dx) > maxRadius || Math.abs(dy) > maxRadius) continue;
+            long distSq = (long) dx * dx + (long) dy * dy;
+            if (distSq < best.distSq && predicate.test(entity)) {
+                best.entity = entity;
+                best.distSq = distSq;
+            }
+        }
+        return best.entity;
+    }
+
+    /**
+     * Rebuilds the tree from its live entries and the backlog, in a deterministic order.
+     */
+    private void rebuild() {
+        int count = treeSlot.size() + backlog.size();
+        Entity[] all = new Entity[count];
+        int[] xs = new int[count];
+        int[] ys = new int[count];
+        int n = 0;
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i] != null) {
+                all[n] = nodes[i];
+                xs[n] = nodeX[i];
+                ys[n] = nodeY[i];
+                n++;
+            }
+        }
+        for (Entity entity : backlog) {
+            all[n] = entity;
+            xs[n] = entity.getX();
+            ys[n] = entity.getY();
+            n++;
+        }
+
+        nodes = all;
+        nodeX = xs;
+        nodeY = ys;
+        build(0, count, true);
+
+        minX = new int[count];
+        minY = new int[count];
+        maxX = new int[count];
+        maxY = new int[count];
+        species = new int[count];
+        computeBounds(0, count);
+
+        treeSlot.clear();
+        for (int i = 0; i < count; i++) {
+            treeSlot.put(all[i], i);
+        }
+        changes = 0;
+        backlog.clear();
+        backlogSlot.clear();
+    }
+
+    private void build(int lo, int hi, boolean splitX) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi, mid, splitX ? nodeX : nodeY);
+        build(lo, mid, !splitX);
+        build(mid + 1, hi, !splitX);
+    }
+
+    /**
+     * Reorders [lo, hi) so the entry at k is the one that belongs there in key order, with no
+     * greater key before it and no smaller key after it. Quickselect with three-way partitioning,
+     * so runs of equal coordinates, common in dense worlds, take linear time.
+     */
+    private void select(int lo, int hi, int k, int[] keys) {
+        while (hi - lo > 1) {
+            int pivot = medianOfThree(keys[lo], keys[(lo + hi) >>> 1], keys[hi - 1]);
+            // [lo, lt) < pivot, [lt, i) == pivot, [gt, hi) > pivot
+            int lt = lo, i = lo, gt = hi;
+            while (i < gt) {
+                if (keys[i] < pivot) {
+                    swap(lt++, i++);
+                } else if (keys[i] > pivot) {
+                    swap(i, --gt);
+                } else {
+                    i++;
+                }
+            }
+            if (k < lt) {
+                hi = lt;
+            } else if (k >= gt) {
+                lo = gt;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static int medianOfThree(int a, int b, int c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private void swap(int i, int j) {
+        Entity entity = nodes[i];
+        nodes[i] = nodes[j];
+        nodes[j] = entity;
+        int t = nodeX[i];
+        nodeX[i] = nodeX[j];
+        nodeX[j] = t;
+        t = nodeY[i];
+        nodeY[i] = nodeY[j];
+        nodeY[j] = t;
+    }
+
+    /**
+     * Fills in the bounds and species of the subtree over [lo, hi) and of all subtrees below it.
+     */
+    private void computeBounds(int lo, int hi) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        minX[mid] = maxX[mid] = nodeX[mid];
+        minY[mid] = maxY[mid] = nodeY[mid];
+        species[mid] = 1 << nodes[mid].getSpeciesType().ordinal();
+        if (lo < mid) {
+            computeBounds(lo, mid);
+            merge(mid, (lo + mid) >>> 1);
+        }
+        if (mid + 1 < hi) {
+            computeBounds(mid + 1, hi);
+            merge(mid, (mid + 1 + hi) >>> 1);
+        }
+    }
+
+    private void merge(int into, int child) {
+        minX[into] = Math.min(minX[into], minX[child]);
+        minY[into] = Math.min(minY[into], minY[child]);
+        maxX[into] = Math.max(maxX[into], maxX[child]);
+        maxY[into] = Math.max(maxY[into], maxY[child]);
+        species[into] |= species[child];
+    }
+
+    private void visitBox(int lo, int hi, int minX, int minY, int maxX, int maxY,
+                          int speciesMask, Consumer<Entity> visitor) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if ((species[mid] & speciesMask) == 0 || this.minX[mid] > maxX || this.maxX[mid] < minX
+                || this.minY[mid] > maxY || this.maxY[mid] < minY) {
+            return;
+        }
+        int ex = nodeX[mid], ey = nodeY[mid];
+        Entity entity = nodes[mid];
+        if (entity != null && ex >= minX && ex <= maxX && ey >= minY && ey <= maxY
+                && (speciesMask & (1 << entity.getSpeciesType().ordinal())) != 0) {
+            visitor.accept(entity);
+        }
+        visitBox(lo, mid, minX, minY, maxX, maxY, speciesMask, visitor);
+        visitBox(mid + 1, hi, minX, minY, maxX, maxY, speciesMask, visitor);
+    }
+
+    private void search(int lo, int hi, int x, int y, int maxRadius, int speciesMask,
+                        Predicate<Entity> predicate, Nearest best) {
+        int mid = (lo + hi) >>> 1;
+        int dx = nodeX[mid] - x;
+        int dy = nodeY[mid] - y;
+        Entity entity = nodes[mid];
+        if (entity != null && Math.abs(dx) <= maxRadius && Math.abs(dy) <= maxRadius
+                && (speciesMask & (1 << entity.getSpeciesType().ordinal())) != 0) {
+            long distSq = (long) dx * dx + (long) dy * dy;
+            if (distSq < best.distSq && predicate.test(entity)) {
+                best.entity = entity;
+                best.distSq = distSq;
+            }
+        }
+        // Visit the child whose box is nearer first, so the other is more likely to be pruned
+        int left = (lo + mid) >>> 1, right = (mid + 1 + hi) >>> 1;
+        long leftDistSq = lo < mid ? boxDistSq(left, x, y, maxRadius, speciesMask) : Long.MAX_VALUE;
+        long rightDistSq = mid + 1 < hi ? boxDistSq(right, x, y, maxRadius, speciesMask) : Long.MAX_VALUE;
+        if (leftDistSq <= rightDistSq) {
+            if (leftDistSq < best.distSq) {
+                search(lo, mid, x, y, maxRadius, speciesMask, predicate, best);
+            }
+            if (rightDistSq < best.distSq) {
+                search(mid + 1, hi, x, y, maxRadius, speciesMask, predicate, best);
+            }
+        } else {
+            if (rightDistSq < best.distSq) {
+                search(mid + 1, hi, x, y, maxRadius, speciesMask, predicate, best);
+            }
+            if (leftDistSq < best.distSq) {
+                search(lo, mid, x, y, maxRadius, speciesMask, predicate, best);
+            }
+        }
+    }
+
+    /**
+     * Gets the squared distance from a point to the box of a subtree, or Long.MAX_VALUE when
+     * the subtree holds none of the species or lies beyond maxRadius along either axis.
+     */
+    private long boxDistSq(int root, int x, int y, int maxRadius, int speciesMask) {
+        if ((species[root] & speciesMask) == 0) {
+            return Long.MAX_VALUE;
+        }
+        long dx = Math.max(0, Math.max(minX[root] - x, x - maxX[root]));
+        long dy = Math.max(0, Math.max(minY[root] - y, y - maxY[root]));
+        if (dx > maxRadius || dy > maxRadius) {
+            return Long.MAX_VALUE;
+        }
+        return dx * dx + dy * dy;
+    }
+
+    private void removeFromBacklog(Entity entity) {
+        Integer slot = backlogSlot.remove(entity);
+        if (slot == null) {
+            return;
+        }
+        Entity last = backlog.remove(backlog.size() - 1);
+        if (last != entity) {
+            backlog.set(slot, last);
+            backlogSlot.put(last, slot);
+        }
+    }
+}
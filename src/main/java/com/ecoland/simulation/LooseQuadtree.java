@@ -0,0 +1,284 @@
+package com.ecoland.simulation;
+
+import com.ecoland.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Loose quadtree over the world. Leaves split once they hold more than NODE_CAPACITY
+ * entities and collapse again when their parent drops to half that, so the tree stays
+ * shallow in empty regions and deep only where entities cluster.
+ * Each node accepts entities anywhere within its loose bounds (its square grown by half
+ * its side on every edge), so an entity that wanders a little past the edge of its leaf
+ * stays where it is instead of being reinserted on every step.
+ */
+class LooseQuadtree implements SpatialIndex {
+    private static final int NODE_CAPACITY = 16;
+    private static final int MAX_DEPTH = 12;
+
+    private final Node root;
+    private final Map<Entity, Node> leafOf = new IdentityHashMap<>();
+
+    private static final class Node {
+        final Node parent;
+        final int depth;
+        final int minX, minY, size;
+        // Loose bounds, inclusive
+        final int looseMinX, looseMinY, looseMaxX, looseMaxY;
+        Node[] children; // null for a leaf
+        List<Entity> entities = new ArrayList<>(); // only used by leaves
+        int count; // entities in this subtree
+
+        Node(Node parent, int minX, int minY, int size) {
+            this.parent = parent;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+            this.minX = minX;
+            this.minY = minY;
+            this.size = size;
+            int margin = size / 2;
+            this.looseMinX = minX - margin;
+            this.looseMinY = minY - margin;
+            this.looseMaxX = minX + size - 1 + margin;
+            this.looseMaxY = minY + size - 1 + margin;
+        }
+
+        boolean isLeaf() {
+            return children == null;
+        }
+
+        boolean contains(int x, int y) {
+            return x >= minX && x < minX + size && y >= minY && y < minY + size;
+        }
+
+        boolean looseContains(int x, int y) {
+            return x >= looseMinX && x <= looseMaxX && y >= looseMinY && y <= looseMaxY;
+        }
+
+        boolean looseIntersects(int minX, int minY, int maxX, int maxY) {
+            return looseMaxX >= minX && looseMinX <= maxX && looseMaxY >= minY && looseMinY <= maxY;
+        }
+
+        long looseDistanceSq(int x, int y) {
+            long dx = x < looseMinX ? looseMinX - x : (x > looseMaxX ? x - looseMaxX : 0);
+            long dy = y < looseMinY ? looseMinY - y : (y > looseMaxY ? y - looseMaxY : 0);
+            return dx * dx + dy * dy;
+        }
+
+        Node childFor(int x, int y) {
+            int half = size / 2;
+            return children[(x >= minX + half ? 1 : 0) + (y >= minY + half ? 2 : 0)];
+        }
+    }
+
+    /**
+     * Running best match of a nearest-neighbour search.
+     */
+    private static final class Nearest {
+        Entity entity;
+        long distSq = Long.MAX_VALUE;
+    }
+
+    /**
+     * Creates a quadtree covering a world of the given dimensions.
+     * @param worldWidth Width of the world in tiles.
+     * @param worldHeight Height of the world in tiles.
+     */
+    LooseQuadtree(int worldWidth, int worldHeight) {
+        int size = 1;
+        while (size < Math.max(worldWidth, worldHeight)) {
+            size <<= 1;
+        }
+        this.root = new Node(null, 0, 0, size);
+    }
+
+    @Override
+    public void insert(Entity entity) {
+        int x = clamp(entity.getX()), y = clamp(entity.getY());
+        Node node = root;
+        while (!node.isLeaf()) {
+            node.count++;
+            node = node.childFor(x, y);
+        }
+        node.count++;
+        node.entities.add(entity);
+        leafOf.put(entity, node);
+        if (node.entities.size() > NODE_CAPACITY && node.size > 1 && node.depth < MAX_DEPTH) {
+            split(node);
+        }
+    }
+
+    @Override
+    public void remove(Entity entity) {
+        Node leaf = leafOf.remove(entity);
+        if (leaf == null) {
+            return;
+        }
+        leaf.entities.remove(entity);
+        for (Node node = leaf; node != null; node = node.parent) {
+            node.count--;
+        }
+        // Collapse the highest ancestor that has become sparse enough
+        Node sparse = null;
+        for (Node node = leaf.parent; node != null && node.count <= NODE_CAPACITY / 2; node = node.parent) {
+            sparse = node;
+        }
+        if (sparse != null) {
+            collapse(sparse);
+        }
+    }
+
+    @Override
+    public void move(Entity entity, int oldX, int oldY) {
+        Node leaf = leafOf.get(entity);
+        if (leaf == null || leaf.looseContains(clamp(entity.getX()), clamp(entity.getY()))) {
+            return;
+        }
+        remove(entity);
+        insert(entity);
+    }
+
+    @Override
+    public void forEachInBox(int minX, int minY, int maxX, int maxY, int speciesMask, Consumer<Entity> visitor) {
+        visitBox(root, minX, minY, maxX, maxY, speciesMask, visitor);
+    }
+
+    /**
+     * Descends nearest-first and skips every node whose loose bounds lie further away than
+     * the best match found so far.
+     */
+    @Override
+    public Entity findNearest(int x, int y, int maxRadius, int speciesMask, Predicate<Entity> predicate) {
+        Nearest best = new Nearest();
+        search(root, x, y, maxRadius, speciesMask, predicate, best);
+        return best.entity;
+    }
+
+    private void split(Node node) {
+        int half = node.size / 2;
+        node.children = new Node[] {
+                new Node(node, node.minX, node.minY, half),
+                new Node(node, node.minX + half, node.minY, half),
+                new Node(node, node.minX, node.minY + half, half),
+                new Node(node, node.minX + half, node.minY + half, half)
+        };
+        List<Entity> entities = node.entities;
+        node.entities = new ArrayList<>();
+        List<Entity> strays = new ArrayList<>();
+        for (Entity entity : entities) {
+            int x = clamp(entity.getX()), y = clamp(entity.getY());
+            if (node.contains(x, y)) {
+                Node child = node.childFor(x, y);
+                child.entities.add(entity);
+                child.count++;
+                leafOf.put(entity, child);
+            } else {
+                // Sits in the loose margin, which the children do not cover; reinsert from the top
+                strays.add(entity);
+            }
+        }
+        for (Entity entity : strays) {
+            for (Node ancestor = node; ancestor != null; ancestor = ancestor.parent) {
+                ancestor.count--;
+            }
+            insert(entity);
+        }
+        for (Node child : node.children) {
+            if (child.entities.size() > NODE_CAPACITY && child.size > 1 && child.depth < MAX_DEPTH) {
+                split(child);
+            }
+        }
+    }
+
+    private void collapse(Node node) {
+        List<Entity> entities = new ArrayList<>(node.count);
+        gather(node, entities);
+        node.children = null;
+        node.entities = entities;
+        for (Entity entity : entities) {
+            leafOf.put(entity, node);
+        }
+    }
+
+    private static void gather(Node node, List<Entity> out) {
+        if (node.isLeaf()) {
+            out.addAll(node.entities);
+            return;
+        }
+        for (Node child : node.children) {
+            gather(child, out);
+        }
+    }
+
+    private static void visitBox(Node node, int minX, int minY, int maxX, int maxY, int speciesMask,
+                                 Consumer<Entity> visitor) {
+        if (node.count == 0 || !node.looseIntersects(minX, minY, maxX, maxY)) {
+            return;
+        }
+        if (node.isLeaf()) {
+            List<Entity> entities = node.entities;
+            for (int i = 0; i < entities.size(); i++) {
+                Entity entity = entities.get(i);
+                int ex = entity.getX(), ey = entity.getY();
+                if (ex >= minX && ex <= maxX && ey >= minY && ey <= maxY
+                        && (speciesMask & (1 << entity.getSpeciesType().ordinal())) != 0) {
+                    visitor.accept(entity);
+                }
+            }
+            return;
+        }
+        for (Node child : node.children) {
+            visitBox(child, minX, minY, maxX, maxY, speciesMask, visitor);
+        }
+    }
+
+    private static void search(Node node, int x, int y, int maxRadius, int speciesMask,
+                               Predicate<Entity> predicate, Nearest best) {
+        if (node.count == 0
+                || !node.looseIntersects(x - maxRadius, y - maxRadius, x + maxRadius, y + maxRadius)
+                || node.looseDistanceSq(x, y) >= best.distSq) {
+            return;
+        }
+        if (node.isLeaf()) {
+            List<Entity> entities = node.entities;
+            for (int i = 0; i < entities.size(); i++) {
+                Entity entity = entities.get(i);
+                if ((speciesMask & (1 << entity.getSpeciesType().ordinal())) == 0) continue;
+                int dx = entity.getX() - x;
+                int dy = entity.getY() - y;
+                if (Math.abs(dx) > maxRadius || Math.abs(dy) > maxRadius) continue;
+                long distSq = (long) dx * dx + (long) dy * dy;
+                if (distSq < best.distSq && predicate.test(entity)) {
+                    best.entity = entity;
+                    best.distSq = distSq;
+                }
+            }
+            return;
+        }
+        // Visit children closest-first so the bound tightens early
+        Node[] children = node.children;
+        int visited = 0;
+        for (int round = 0; round < children.length; round++) {
+            int next = -1;
+            long nextDistSq = Long.MAX_VALUE;
+            for (int i = 0; i < children.length; i++) {
+                if ((visited & (1 << i)) != 0) continue;
+                long distSq = children[i].looseDistanceSq(x, y);
+                if (next < 0 || distSq < nextDistSq) {
+                    next = i;
+                    nextDistSq = distSq;
+                }
+            }
+            visited |= 1 << next;
+            search(children[next], x, y, maxRadius, speciesMask, predicate, best);
+        }
+    }
+
+    private int clamp(int value) {
+        return value < 0 ? 0 : Math.min(value, root.size - 1);
+    }
+}
@@ -0,0 +1,178 @@
+package com.ecoland.simulation;
+
+import com.ecoland.data.DataLogger;
+import com.ecoland.entity.Entity;
+import com.ecoland.entity.SpeciesType;
+import com.ecoland.model.World;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, compact copy of everything the UI draws for one tick: entity positions, species,
+ * alive flags and health, the plant food on every tile, and the population figures shown in
+ * the statistics panel. Snapshots are taken on the simulation thread at the end of a tick and
+ * can then be read from any thread without touching the live simulation.
+ */
+public final class RenderSnapshot {
+    private static final SpeciesType[] SPECIES = SpeciesType.values();
+
+    private final long tick;
+    private final int worldWidth;
+    private final int worldHeight;
+
+    // Entities, dead bodies first so live entities are drawn on top
+    private final int entityCount;
+    private final int[] x;
+    private final int[] y;
+    private final byte[] species;
+    private final boolean[] alive;
+    private final float[] healthRatio;
+
+    // Plant food per tile, row-major
+    private final float[] tileFood;
+
+    private final int[] populationCounts;
+    private final int totalPopulation;
+    private final List<long[]> populationHistory;
+
+    private RenderSnapshot(Simulation simulation, List<long[]> populationHistory) {
+        EntityManager entityManager = simulation.getEntityManager();
+        World world = simulation.getWorld();
+        this.tick = simulation.getCurrentTick();
+        this.worldWidth = world.getWidth();
+        this.worldHeight = world.getHeight();
+
+        List<Entity> deadBodies = entityManager.getAllDeadBodies();
+        List<Entity> entities = entityManager.getAllEntities();
+        int capacity = deadBodies.size() + entities.size();
+        this.x = new int[capacity];
+        this.y = new int[capacity];
+        this.species = new byte[capacity];
+        this.alive = new boolean[capacity];
+        this.healthRatio = new float[capacity];
+        int count = 0;
+        for (Entity entity : deadBodies) {
+            count = add(entity, count);
+        }
+        for (Entity entity : entities) {
+            if (entity.isAlive()) {
+                count = add(entity, count);
+            }
+        }
+        this.entityCount = count;
+
+        // Copied in parallel row bands; each band writes only its own rows
+        float[] food = new float[worldWidth * worldHeight];
+        int width = worldWidth;
+        simulation.getWorldStage().run((tx, ty, tile) -> food[ty * width + tx] = (float) tile.getPlantFoodValue());
+        this.tileFood = food;
+
+        this.populationCounts = new int[SPECIES.length];
+        for (SpeciesType type : SPECIES) {
+            populationCounts[type.ordinal()] = entityManager.getPopulationCount(type);
+        }
+        this.totalPopulation = entityManager.getTotalPopulation();
+        this.populationHistory = populationHistory;
+    }
+
+    /**
+     * Takes a snapshot of the simulation. Must be called on the thread that ticks it, between ticks.
+     * @param simulation The simulation to copy.
+     * @param previous The previous snapshot, whose population history is reused while the data
+     *                 logger has not recorded a new point; may be null.
+     * @param historyLength Maximum number of population history points to copy.
+     * @return The new snapshot.
+     */
+    static RenderSnapshot capture(Simulation simulation, RenderSnapshot previous, int historyLength) {
+        DataLogger.DataPoint latest = simulation.getDataLogger().getLatestDataPoint();
+        List<long[]> history;
+        if (previous != null && latest != null && !previous.populationHistory.isEmpty()
+                && previous.populationHistory.get(previous.populationHistory.size() - 1)[0] == latest.tick) {
+            history = previous.populationHistory;
+        } else {
+            history = Collections.unmodifiableList(simulation.getDataLogger().getPopulationData(historyLength));
+        }
+        return new RenderSnapshot(simulation, history);
+    }
+
+    private int add(Entity entity, int index) {
+        x[index] = entity.getX();
+        y[index] = entity.getY();
+        species[index] = (byte) entity.getSpeciesType().ordinal();
+        alive[index] = entity.isAlive();
+        healthRatio[index] = entity.getMaxHealth() > 0 ? (float) (entity.getHealth() / entity.getMaxHealth()) : 0f;
+        return index + 1;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getWorldWidth() {
+        return worldWidth;
+    }
+
+    public int getWorldHeight() {
+        return worldHeight;
+    }
+
+    /**
+     * Gets the number of entities in the snapshot, living entities and dead bodies together.
+     */
+    public int getEntityCount() {
+        return entityCount;
+    }
+
+    public int getX(int index) {
+        return x[index];
+    }
+
+    public int getY(int index) {
+        return y[index];
+    }
+
+    public SpeciesType getSpeciesType(int index) {
+        return SPECIES[species[index]];
+    }
+
+    /**
+     * Whether the entity was alive; false for dead bodies.
+     */
+    public boolean isAlive(int index) {
+        return alive[index];
+    }
+
+    /**
+     * Gets the entity's health as a fraction of its maximum health.
+     */
+    public double getHealthRatio(int index) {
+        return healthRatio[index];
+    }
+
+    /**
+     * Gets the plant food on a tile, or 0 for coordinates outside the world.
+     */
+    public double getTileFood(int tileX, int tileY) {
+        if (tileX < 0 || tileX >= worldWidth || tileY < 0 || tileY >= worldHeight) {
+            return 0;
+        }
+        return tileFood[tileY * worldWidth + tileX];
+    }
+
+    public int getPopulationCount(SpeciesType speciesType) {
+        return populationCounts[speciesType.ordinal()];
+    }
+
+    public int getTotalPopulation() {
+        return totalPopulation;
+    }
+
+    /**
+     * Gets the recent population history in the format of DataLogger.getPopulationData.
+     * The list and its arrays must not be modified.
+     */
+    public List<long[]> getPopulationHistory() {
+        return populationHistory;
+    }
+}
@@ -1,6 +1,11 @@
 package com.ecoland.simulation;
 
+import com.ecoland.ai.nn.Activation;
+import com.ecoland.ai.nn.AnimalBrain;
+import com.ecoland.ai.nn.BatchInference;
+import com.ecoland.ai.nn.WeightPrecision;
 import com.ecoland.common.Constants;
+import com.ecoland.common.RandomStreams;
 import com.ecoland.data.DataLogger; // Import DataLogger
 import com.ecoland.entity.*;
 import com.ecoland.generator.WorldGenerator; // Import WorldGenerator
@@ -11,11 +16,15 @@ import com.ecoland.model.BiomeType;
 
 import java.io.*;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.concurrent.CopyOnWriteArrayList; // Consider thread safety if needed
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Objects;
 
 public class Simulation implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -32,8 +41,44 @@ public class Simulation implements Serializable {
     // Current simulation tick
     private long currentTick = 0;
     
-    // Random generator for various operations
-    private final Random random = new Random();
+    // Seed that every random stream of this simulation is split from
+    private final long seed;
+    
+    // Stream for the simulation's own serial draws, such as spawn locations
+    private final SplittableRandom random;
+    
+    // How the networks of brains built by this simulation store their weights
+    private final WeightPrecision weightPrecision;
+    
+    // Reused each tick to hold the snapshot of entities being updated
+    private final List<Entity> tickEntities = new ArrayList<>();
+    
+    // Pool running the concurrent phases of each tick; null runs them on the calling thread
+    private transient ForkJoinPool workerPool = ForkJoinPool.commonPool();
+    
+    // Runs per-tile world passes in row bands on the worker pool
+    private final transient WorldUpdateStage worldStage;
+    
+    // Environmental passes run over every tile at the end of each tick, in order
+    private final transient List<WorldUpdateStage.TilePass> worldPasses = new ArrayList<>();
+    
+    // Runs the networks of all deciding brains in batches per architecture; null runs each brain on its own
+    private transient BatchInference batchInference = new BatchInference();
+    
+    // Sigmoid used by every brain of this simulation; bound to the threads running its entities
+    private transient Activation activation = Activation.EXACT;
+    
+    // Reused each tick to hold the brains whose inputs were prepared for batch inference
+    private final transient List<AnimalBrain> batchBrains = new ArrayList<>();
+    
+    // Per-phase tick timings; null while profiling is off, so a tick then only pays null checks
+    private transient TickProfiler profiler = null;
+    
+    // Ticks between updates of each species, by ordinal; 1 updates every entity every tick
+    private final int[] updatePeriods = initialUpdatePeriods();
+    
+    // Number of entities one decide task handles before it stops splitting
+    private static final int DECIDE_BATCH_SIZE = 64;
     
     // Initial population settings
     private final int initialHerbivoreCount;
@@ -191,15 +236,87 @@ public class Simulation implements Serializable {
     public Simulation(int width, int height, int herbivoreCount, int carnivoreCount, 
                       int omnivoreCount, int scavengerCount, int apexPredatorCount, int decomposerCount,
                       WorldGenerator generator) {
+        this(width, height, herbivoreCount, carnivoreCount, omnivoreCount, scavengerCount,
+                apexPredatorCount, decomposerCount, generator, SpatialIndexType.GRID);
+    }
+
+    /**
+     * Create a new Simulation with a world of the given dimensions and a chosen spatial index,
+     * seeded randomly.
+     * 
+     * @param width Width of the world
+     * @param height Height of the world
+     * @param herbivoreCount Initial number of herbivores
+     * @param carnivoreCount Initial number of carnivores
+     * @param generator Optional world generator to use (if null, a default will be used)
+     * @param spatialIndexType Spatial index used for entity location queries
+     */
+    public Simulation(int width, int height, int herbivoreCount, int carnivoreCount, 
+                      int omnivoreCount, int scavengerCount, int apexPredatorCount, int decomposerCount,
+                      WorldGenerator generator, SpatialIndexType spatialIndexType) {
+        this(width, height, herbivoreCount, carnivoreCount, omnivoreCount, scavengerCount,
+                apexPredatorCount, decomposerCount, generator, spatialIndexType, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Create a new Simulation with a world of the given dimensions, a chosen spatial index and a seed.
+     * The same seed and parameters give the same run, whatever the parallelism. The spatial index
+     * is one of those parameters: another index type gives a different run from the same seed.
+     * 
+     * @param width Width of the world
+     * @param height Height of the world
+     * @param herbivoreCount Initial number of herbivores
+     * @param carnivoreCount Initial number of carnivores
+     * @param generator Optional world generator to use (if null, a default will be used)
+     * @param spatialIndexType Spatial index used for entity location queries
+     * @param seed Seed every random stream of the simulation is split from
+     */
+    public Simulation(int width, int height, int herbivoreCount, int carnivoreCount, 
+                      int omnivoreCount, int scavengerCount, int apexPredatorCount, int decomposerCount,
+                      WorldGenerator generator, SpatialIndexType spatialIndexType, long seed) {
+        this(width, height, herbivoreCount, carnivoreCount, omnivoreCount, scavengerCount,
+                apexPredatorCount, decomposerCount, generator, spatialIndexType, seed, WeightPrecision.DOUBLE);
+    }
+
+    /**
+     * Create a new Simulation with a world of the given dimensions, a chosen spatial index, a seed
+     * and the storage precision of brain weights. Every network built by the simulation, for the
+     * initial population and for every birth, uses that precision.
+     * 
+     * @param width Width of the world
+     * @param height Height of the world
+     * @param herbivoreCount Initial number of herbivores
+     * @param carnivoreCount Initial number of carnivores
+     * @param generator Optional world generator to use (if null, a default will be used)
+     * @param spatialIndexType Spatial index used for entity location queries
+     * @param seed Seed every random stream of the simulation is split from
+     * @param weightPrecision How brain networks store their weights
+     */
+    public Simulation(int width, int height, int herbivoreCount, int carnivoreCount, 
+                      int omnivoreCount, int scavengerCount, int apexPredatorCount, int decomposerCount,
+                      WorldGenerator generator, SpatialIndexType spatialIndexType, long seed,
+                      WeightPrecision weightPrecision) {
+        this.seed = seed;
+        this.weightPrecision = Objects.requireNonNull(weightPrecision);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom worldRandom = root.split();
+        SplittableRandom populationRandom = root.split();
+        this.random = root.split();
+        SplittableRandom previous = RandomStreams.bind(worldRandom);
+        
         // Create the world
         this.world = new World(width, height);
+        this.worldStage = new WorldUpdateStage(world, workerPool);
         
         // Use the provided generator or create a default one
         WorldGenerator worldGen = (generator != null) ? generator : WorldGenerator.createDefaultGenerator();
         worldGen.generate(world);
         
+        // Entities and the entity manager draw their own streams from the population stream
+        RandomStreams.bind(populationRandom);
+        
         // Create entity manager
-        this.entityManager = new EntityManager();
+        this.entityManager = new EntityManager(world.getWidth(), world.getHeight(), spatialIndexType);
         
         // Set initial population counts
         this.initialHerbivoreCount = herbivoreCount;
@@ -214,7 +331,10 @@ public class Simulation implements Serializable {
         this.dataLogger = new DataLogger(10);
         
         // Create initial population
+        WeightPrecision previousPrecision = WeightPrecision.bind(weightPrecision);
         initializePopulation();
+        WeightPrecision.bind(previousPrecision);
+        RandomStreams.bind(previous);
         
         // Record initial state
         dataLogger.recordTick(currentTick, entityManager);
@@ -248,8 +368,15 @@ public class Simulation implements Serializable {
      * @param state The saved simulation state to restore
      */
     public Simulation(SimulationState state) {
+        this.seed = new SplittableRandom().nextLong();
+        this.weightPrecision = WeightPrecision.DOUBLE;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom populationRandom = root.split();
+        this.random = root.split();
+        
         // Create the world with the dimensions from the state
         this.world = new World(state.getWorldWidth(), state.getWorldHeight());
+        this.worldStage = new WorldUpdateStage(world, workerPool);
         
         // Copy all tile data from the state
         for (int x = 0; x < state.getWorldWidth(); x++) {
@@ -259,7 +386,8 @@ public class Simulation implements Serializable {
         }
         
         // Create entity manager
-        this.entityManager = new EntityManager();
+        SplittableRandom previous = RandomStreams.bind(populationRandom);
+        this.entityManager = new EntityManager(world.getWidth(), world.getHeight());
         
         // Restore entity states
         for (EntityState entityState : state.getEntities()) {
@@ -268,6 +396,7 @@ public class Simulation implements Serializable {
                 entityManager.addEntity(entity);
             }
         }
+        RandomStreams.bind(previous);
         
         // Process entity additions immediately (unlike normal initialization)
         entityManager.updateEntityList();
@@ -393,15 +522,40 @@ public class Simulation implements Serializable {
      * Executes a single step (tick) of the simulation.
      */
     public void tick() {
+        TickProfiler profiler = this.profiler;
+        long tickStart = 0;
+        long mark = 0;
+        if (profiler != null) {
+            profiler.beginTick();
+            tickStart = mark = System.nanoTime();
+        }
         currentTick++;
         // System.out.println("--- Tick: " + currentTick + " ---\");
+        
+        // Brains born this tick are built in the simulation's weight precision
+        WeightPrecision previousPrecision = WeightPrecision.bind(weightPrecision);
 
         // Get a snapshot of entities for this tick to avoid issues with concurrent modification
-        List<Entity> currentEntities = entityManager.getAllEntities();
+        List<Entity> currentEntities = entityManager.getAllEntities(tickEntities);
+
+        // 1. Decide: every living entity senses and plans concurrently against the unchanged world
+        decideAll(currentEntities);
+        if (profiler != null) {
+            mark = profiler.lap(TickProfiler.DECIDE, mark);
+        }
 
-        // 1. Update all entities
+        // 2. Apply: entities act on their plans one at a time in slot order, so conflicts over
+        // food, prey and tiles resolve the same way every run. Each entity draws from its own
+        // stream, and offspring split theirs from their parent's.
+        SplittableRandom previous = RandomStreams.current();
+        Activation previousActivation = Activation.bind(activation);
         for (Entity entity : currentEntities) {
+            if (entity.isAlive() && !isDueThisTick(entity)) {
+                // Between its species' updates; it catches up on the whole period when next due
+                continue;
+            }
             if (entity.isAlive()) {
+                 RandomStreams.bind(entity.getRandom());
                  // Pass the Simulation instance and the World to the update method
                  entity.update(this, world);
 
@@ -414,16 +568,32 @@ public class Simulation implements Serializable {
                  // If somehow an entity in the list is already dead, ensure it's marked for removal
                  entityManager.removeEntity(entity);
             }
+            if (profiler != null) {
+                mark = profiler.lap(TickProfiler.updatePhase(entity.getSpeciesType()), mark);
+            }
         }
+        RandomStreams.bind(previous);
+        Activation.bind(previousActivation);
 
-        // 2. Process births and deaths (add new entities, remove dead ones)
+        // 3. Process births and deaths (add new entities, remove dead ones)
         entityManager.updateEntityList();
+        if (profiler != null) {
+            mark = profiler.lap(TickProfiler.UPDATE_ENTITY_LIST, mark);
+        }
 
-        // 3. Record data for this tick BEFORE world state update (captures end-of-tick populations)
+        // 4. Record data for this tick BEFORE world state update (captures end-of-tick populations)
         dataLogger.recordTick(currentTick, entityManager);
+        if (profiler != null) {
+            mark = profiler.lap(TickProfiler.RECORD_TICK, mark);
+        }
 
-        // 4. Update world state (e.g., plant regrowth on tiles)
+        // 5. Update world state (e.g., plant regrowth on tiles)
         updateWorldState();
+        WeightPrecision.bind(previousPrecision);
+        if (profiler != null) {
+            profiler.lap(TickProfiler.WORLD_STATE, mark);
+            profiler.endTick(tickStart);
+        }
 
         // Optional: Print stats periodically
         if (currentTick % 50 == 0) {
@@ -433,30 +603,263 @@ public class Simulation implements Serializable {
         }
     }
 
-    // Help entities find food and move more effectively
-    private void updateWorldState() {
-        // Example: passive plant food regrowth on fertile land tiles
-        double passiveRegrowthRate = 0.01;
-        for (int x = 0; x < world.getWidth(); x++) {
-            for (int y = 0; y < world.getHeight(); y++) {
-                 var tile = world.getTile(x,y);
-                 if(tile.getTerrainType() == TerrainType.GRASS || tile.getTerrainType() == TerrainType.FOREST) {
-                     // Grow based on fertility, but slower than active plants
-                     tile.growPlantFood(tile.getFertility() * passiveRegrowthRate);
-                     // TODO: Add max food cap based on tile type/fertility
-                 }
+    /**
+     * Runs the read-only decide phase for a snapshot of entities, splitting it across the
+     * decide pool when there is one and the snapshot is big enough to be worth it.
+     * With batch inference on, every deciding brain first gathers its inputs, then the
+     * networks run in one batch per architecture, and the entities decide with the outputs.
+     */
+    private void decideAll(List<Entity> entities) {
+        if (batchInference != null) {
+            forEachRange(entities, true);
+            for (Entity entity : entities) {
+                if (isDueThisTick(entity) && entity.decidesWithBrain()) {
+                    batchBrains.add(entity.getBrain());
+                }
             }
+            batchInference.evaluate(batchBrains, workerPool, activation);
+            batchBrains.clear();
         }
-        
-        // Process dead bodies - allow a small chance for them to decompose naturally
-        List<Entity> deadBodies = entityManager.getAllDeadBodies();
-        for (Entity deadBody : deadBodies) {
-            // 1% chance to decompose naturally each tick
-            if (random.nextDouble() < 0.01) {
-                deadBody.setDecomposed();
-                entityManager.removeEntity(deadBody);
+        forEachRange(entities, false);
+    }
+
+    private void forEachRange(List<Entity> entities, boolean prepare) {
+        if (workerPool == null || entities.size() <= DECIDE_BATCH_SIZE) {
+            runRange(entities, 0, entities.size(), prepare);
+        } else {
+            workerPool.invoke(new DecideTask(entities, 0, entities.size(), prepare));
+        }
+    }
+
+    private void runRange(List<Entity> entities, int from, int to, boolean prepare) {
+        if (prepare) {
+            prepareRange(entities, from, to);
+        } else {
+            decideRange(entities, from, to);
+        }
+    }
+
+    /**
+     * Gathers the network inputs of every entity in a slice that will decide with its brain.
+     * Gathering draws no random numbers, so no stream needs binding.
+     */
+    private void prepareRange(List<Entity> entities, int from, int to) {
+        for (int i = from; i < to; i++) {
+            Entity entity = entities.get(i);
+            if (isDueThisTick(entity) && entity.decidesWithBrain()) {
+                entity.getBrain().prepareInputs(entity, world, entityManager);
+            }
+        }
+    }
+
+    /**
+     * Runs Entity.decide for a slice of the snapshot on the current thread, with each entity's
+     * own random stream bound while it decides so the outcome does not depend on the thread,
+     * and the simulation's activation bound for its brain.
+     */
+    private void decideRange(List<Entity> entities, int from, int to) {
+        SplittableRandom previous = RandomStreams.current();
+        Activation previousActivation = Activation.bind(activation);
+        for (int i = from; i < to; i++) {
+            Entity entity = entities.get(i);
+            if (!isDueThisTick(entity)) {
+                continue;
+            }
+            RandomStreams.bind(entity.getRandom());
+            entity.decide(this, world);
+        }
+        RandomStreams.bind(previous);
+        Activation.bind(previousActivation);
+    }
+
+    /**
+     * Fork/join task running Entity.decide, or the brain input gathering that precedes it,
+     * over a slice of the tick's entity snapshot.
+     */
+    private class DecideTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Entity> entities;
+        private final int from;
+        private final int to;
+        private final boolean prepare;
+
+        DecideTask(List<Entity> entities, int from, int to, boolean prepare) {
+            this.entities = entities;
+            this.from = from;
+            this.to = to;
+            this.prepare = prepare;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= DECIDE_BATCH_SIZE) {
+                runRange(entities, from, to, prepare);
+                return;
             }
+            int mid = (from + to) >>> 1;
+            invokeAll(new DecideTask(entities, from, mid, prepare), new DecideTask(entities, mid, to, prepare));
+        }
+    }
+
+    /**
+     * Turns batched brain inference on or off. When on (the default), the decide phase runs
+     * the networks of all deciding entities together, one structure-of-arrays batch per
+     * network architecture, instead of one network at a time. The outputs are the same either way.
+     *
+     * @param enabled Whether to batch brain inference
+     */
+    public void setBatchInferenceEnabled(boolean enabled) {
+        if (!enabled) {
+            batchInference = null;
+        } else if (batchInference == null) {
+            batchInference = new BatchInference();
+        }
+    }
+
+    public boolean isBatchInferenceEnabled() {
+        return batchInference != null;
+    }
+
+    /**
+     * Sets the sigmoid every brain of this simulation uses from the next decision on.
+     * EXACT (the default) keeps runs reproducible against earlier versions; the approximations
+     * are faster and, being deterministic, still give the same run for the same seed.
+     *
+     * @param activation The activation to use
+     */
+    public void setActivation(Activation activation) {
+        this.activation = Objects.requireNonNull(activation);
+    }
+
+    public Activation getActivation() {
+        return activation;
+    }
+
+    /**
+     * Gets how the networks of brains built by this simulation store their weights.
+     */
+    public WeightPrecision getWeightPrecision() {
+        return weightPrecision;
+    }
+
+    /**
+     * Sets how many threads the decide phase and world passes of each tick may use.
+     * 1 runs every phase on the calling thread; the default shares the common fork/join pool.
+     *
+     * @param parallelism Number of threads, at least 1
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        if (workerPool != null && workerPool != ForkJoinPool.commonPool()) {
+            workerPool.shutdown();
         }
+        workerPool = (parallelism == 1) ? null : new ForkJoinPool(parallelism);
+        worldStage.setPool(workerPool);
+    }
+
+    /**
+     * Sets how often entities of a species are updated. With a period of k each entity of the
+     * species is updated every k ticks, on a phase offset by its id so the species' work is
+     * spread evenly over the ticks, and the species scales its per-tick rates (growth, upkeep)
+     * by k so the long-run dynamics stay about the same. Meant for slow-changing species such
+     * as plants and decomposers.
+     *
+     * @param speciesType The species to schedule
+     * @param period Ticks between updates, at least 1
+     */
+    public void setUpdatePeriod(SpeciesType speciesType, int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("Update period must be at least 1.");
+        }
+        updatePeriods[speciesType.ordinal()] = period;
+    }
+
+    /**
+     * Gets how many ticks pass between updates of each entity of a species; also the factor
+     * the species scales its per-tick rates by when it is updated.
+     *
+     * @param speciesType The species
+     * @return The update period, 1 if the species is updated every tick
+     */
+    public int getUpdatePeriod(SpeciesType speciesType) {
+        return updatePeriods[speciesType.ordinal()];
+    }
+
+    private static int[] initialUpdatePeriods() {
+        int[] periods = new int[SpeciesType.values().length];
+        Arrays.fill(periods, 1);
+        return periods;
+    }
+
+    // Whether an entity's species schedule updates it on the current tick
+    private boolean isDueThisTick(Entity entity) {
+        int period = updatePeriods[entity.getSpeciesType().ordinal()];
+        return period == 1 || Math.floorMod(currentTick + entity.getId(), period) == 0;
+    }
+
+    /**
+     * Turns the tick phase profiler on or off. Turning it off discards the recorded timings.
+     *
+     * @param enabled Whether to time the phases of each tick
+     */
+    public void setProfilingEnabled(boolean enabled) {
+        if (!enabled) {
+            profiler = null;
+        } else if (profiler == null) {
+            profiler = new TickProfiler();
+        }
+    }
+
+    public boolean isProfilingEnabled() {
+        return profiler != null;
+    }
+
+    /**
+     * Gets p50/p99/mean/max timings of each tick phase over the last TickProfiler.WINDOW ticks:
+     * decide, update per species, updateEntityList, recordTick, updateWorldState and the whole tick.
+     * Only to be called from the thread that ticks the simulation.
+     *
+     * @return The profile, or TickProfile.EMPTY while profiling is disabled
+     */
+    public TickProfile getProfile() {
+        return profiler != null ? profiler.snapshot() : TickProfile.EMPTY;
+    }
+
+    /**
+     * Adds an environmental pass, such as moisture diffusion or seasonal change, to run over
+     * every tile at the end of each tick. Passes run in the order they were added, each one
+     * split into row bands on the worker pool; see WorldUpdateStage for what a pass may do.
+     *
+     * @param pass The pass to add
+     */
+    public void addWorldPass(WorldUpdateStage.TilePass pass) {
+        worldPasses.add(pass);
+    }
+
+    /**
+     * Gets the stage that runs per-tile passes over this simulation's world in parallel row bands.
+     * Only to be used from the thread that ticks the simulation, between ticks.
+     */
+    public WorldUpdateStage getWorldStage() {
+        return worldStage;
+    }
+
+    // Help entities find food and move more effectively
+    private void updateWorldState() {
+        // Environmental passes over every tile, in parallel row bands
+        for (WorldUpdateStage.TilePass pass : worldPasses) {
+            worldStage.run(pass);
+        }
+        
+        // Passive plant food regrowth on grass and forest tiles, slower than active plants.
+        // Tiles apply it lazily when read or eaten from, so only the regrowing set is visited.
+        world.advanceRegrowth();
+        
+        // Process dead bodies - each one decomposes naturally on a tick drawn when it died
+        entityManager.decomposeDueDeadBodies();
     }
 
     /**
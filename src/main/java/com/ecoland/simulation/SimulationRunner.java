@@ -0,0 +1,291 @@
+package com.ecoland.simulation;
+
+import com.ecoland.ai.nn.WeightPrecision;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Ticks a Simulation on a dedicated thread so that rendering and ticking run at independent rates.
+ * After every tick the thread publishes an immutable RenderSnapshot; a renderer picks up the
+ * latest one with getSnapshot whenever it draws a frame, and never touches the live simulation.
+ * Anything else that reads or changes the simulation (placing entities, stepping, saving)
+ * is handed to the simulation thread with submit and runs between ticks.
+ * In fast-forward mode the thread runs a whole batch of ticks per frame, either a fixed number
+ * or as many as fit in the frame budget, and publishes only the state after the last one.
+ * A tick that throws pauses the runner instead of ending the thread; getFailure reports it.
+ */
+public class SimulationRunner {
+    // Number of population history points copied into each snapshot
+    private static final int HISTORY_LENGTH = 100;
+
+    // Frame length fast-forward batches are paced to by default
+    public static final long DEFAULT_FRAME_NANOS = 1_000_000_000L / 60;
+
+    private final Simulation simulation;
+    private final Thread thread;
+    private final Queue<Consumer<Simulation>> tasks = new ConcurrentLinkedQueue<>();
+    private final Object lock = new Object();
+
+    // Front buffer: the latest complete snapshot, replaced wholesale at the end of each tick
+    private volatile RenderSnapshot snapshot;
+
+    private volatile boolean running = false;
+    private volatile boolean shutdown = false;
+    private volatile double targetTicksPerSecond = 10.0;
+    private volatile boolean fastForward = false;
+    private volatile int ticksPerFrame = 0; // 0 fills the frame budget instead of a fixed count
+    private volatile long frameBudgetNanos = DEFAULT_FRAME_NANOS;
+    private volatile RuntimeException failure;
+    private int pendingSteps = 0; // guarded by lock
+
+    /**
+     * Creates a runner for a simulation and starts its thread, paused.
+     * @param simulation The simulation to tick; from now on it must only be touched through this runner.
+     */
+    public SimulationRunner(Simulation simulation) {
+        this.simulation = simulation;
+        this.snapshot = RenderSnapshot.capture(simulation, null, HISTORY_LENGTH);
+        this.thread = new Thread(this::loop, "simulation");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Gets the latest snapshot published by the simulation thread.
+     */
+    public RenderSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Gets the exception thrown by the latest failed tick or snapshot, or null if none has failed.
+     * A failure pauses the runner. The simulation may have been left part-way through a tick;
+     * starting or stepping it again carries on from there.
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Starts or pauses continuous ticking.
+     */
+    public void setRunning(boolean running) {
+        this.running = running;
+        wake();
+    }
+
+    public double getTargetTicksPerSecond() {
+        return targetTicksPerSecond;
+    }
+
+    /**
+     * Sets the rate continuous ticking aims for; the simulation thread sleeps between ticks to hold it.
+     */
+    public void setTargetTicksPerSecond(double targetTicksPerSecond) {
+        this.targetTicksPerSecond = Math.max(0.1, targetTicksPerSecond);
+        wake();
+    }
+
+    public boolean isFastForward() {
+        return fastForward;
+    }
+
+    /**
+     * Turns fast-forward on or off. While on and running, the target tick rate is ignored: each
+     * frame runs a batch of ticks and only the state after the batch is published for rendering.
+     * The data logger still records every tick, so charts receive every logged point.
+     */
+    public void setFastForward(boolean fastForward) {
+        this.fastForward = fastForward;
+        wake();
+    }
+
+    /**
+     * Sets how many ticks a fast-forward batch runs.
+     * @param ticksPerFrame Ticks per frame, or 0 to run as many as fit in the frame budget.
+     */
+    public void setTicksPerFrame(int ticksPerFrame) {
+        this.ticksPerFrame = Math.max(0, ticksPerFrame);
+    }
+
+    /**
+     * Sets the length of a fast-forward frame: batches of a fixed size start at most once per frame,
+     * and budget-filling batches tick until the frame is used up.
+     */
+    public void setFrameBudgetNanos(long frameBudgetNanos) {
+        this.frameBudgetNanos = Math.max(1_000_000L, frameBudgetNanos);
+    }
+
+    /**
+     * Runs a single tick on the simulation thread; ignored while running.
+     */
+    public void step() {
+        synchronized (lock) {
+            if (!running) {
+                pendingSteps++;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Runs a task against the simulation on the simulation thread, before the next tick.
+     * A snapshot is published after the task so its effect shows even while paused.
+     * @param task The task to run.
+     */
+    public void submit(Consumer<Simulation> task) {
+        tasks.add(task);
+        wake();
+    }
+
+    /**
+     * Stops the simulation thread and waits briefly for it to finish the tick in progress.
+     */
+    public void shutdown() {
+        shutdown = true;
+        running = false;
+        wake();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void wake() {
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+    }
+
+    private void loop() {
+        long nextTick = System.nanoTime();
+        while (!shutdown) {
+            boolean changed = runTasks();
+            boolean tick = false;
+            boolean batch = false;
+            synchronized (lock) {
+                if (pendingSteps > 0) {
+                    pendingSteps--;
+                    tick = true;
+                } else if (running && fastForward) {
+                    long wait = nextTick - System.nanoTime();
+                    if (wait <= 0) {
+                        batch = true;
+                    } else if (!changed) {
+                        waitOn(wait);
+                    }
+                } else if (running) {
+                    long wait = nextTick - System.nanoTime();
+                    if (wait <= 0) {
+                        tick = true;
+                    } else if (!changed) {
+                        waitOn(wait);
+                    }
+                } else {
+                    nextTick = System.nanoTime();
+                    if (!changed) {
+                        waitOn(0);
+                    }
+                }
+            }
+            if (tick) {
+                tickSafely();
+                // Stay on schedule, but do not try to catch up after falling far behind
+                nextTick = Math.max(nextTick + (long) (1e9 / targetTicksPerSecond), System.nanoTime());
+            } else if (batch) {
+                runBatch();
+                // Fixed-size batches wait for the next frame; budget-filling ones follow on directly
+                long interval = ticksPerFrame > 0 ? frameBudgetNanos : 0;
+                nextTick = Math.max(nextTick + interval, System.nanoTime());
+                tick = true;
+            }
+            if (tick || changed) {
+                try {
+                    snapshot = RenderSnapshot.capture(simulation, snapshot, HISTORY_LENGTH);
+                } catch (RuntimeException e) {
+                    fail("Simulation snapshot failed", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs one tick, pausing the runner if it throws.
+     * @return true if the tick completed.
+     */
+    private boolean tickSafely() {
+        try {
+            simulation.tick();
+            return true;
+        } catch (RuntimeException e) {
+            fail("Simulation tick failed", e);
+            return false;
+        }
+    }
+
+    private void fail(String message, RuntimeException e) {
+        System.err.println(message + ": " + e);
+        e.printStackTrace();
+        running = false;
+        failure = e;
+    }
+
+    /**
+     * Runs one fast-forward batch, stopping early for pending tasks, a pause or a shutdown
+     * so the UI stays responsive.
+     */
+    private void runBatch() {
+        int fixed = ticksPerFrame;
+        long deadline = System.nanoTime() + frameBudgetNanos;
+        int ticked = 0;
+        do {
+            if (!tickSafely()) {
+                return;
+            }
+            ticked++;
+        } while ((fixed > 0 ? ticked < fixed : System.nanoTime() < deadline)
+                && running && fastForward && !shutdown && tasks.isEmpty());
+    }
+
+    private boolean runTasks() {
+        boolean ran = false;
+        Consumer<Simulation> task;
+        while ((task = tasks.poll()) != null) {
+            // Entities placed by a task get brains in the simulation's weight precision
+            WeightPrecision previous = WeightPrecision.bind(simulation.getWeightPrecision());
+            try {
+                task.accept(simulation);
+            } catch (RuntimeException e) {
+                System.err.println("Simulation task failed: " + e);
+            } finally {
+                WeightPrecision.bind(previous);
+            }
+            ran = true;
+        }
+        return ran;
+    }
+
+    // Waits on the lock for up to the given time in nanoseconds, or until woken if zero
+    private void waitOn(long nanos) {
+        if (!tasks.isEmpty() || shutdown) {
+            return;
+        }
+        try {
+            if (nanos == 0) {
+                lock.wait();
+            } else {
+                lock.wait(nanos / 1_000_000, (int) (nanos % 1_000_000));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            shutdown = true;
+        }
+    }
+}
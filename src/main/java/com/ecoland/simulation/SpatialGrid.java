@@ -0,0 +1,168 @@
+package com.ecoland.simulation;
+
+import com.ecoland.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Uniform bucketed grid over the world used to answer range and nearest-neighbour
+ * queries by visiting only the cells near the query point.
+ * Each cell covers cellSize x cellSize tiles and holds the entities standing in it,
+ * split into one bucket per species so species-filtered queries skip whole buckets
+ * instead of testing every entity.
+ */
+class SpatialGrid implements SpatialIndex {
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    private final List<List<Entity>> buckets;
+
+    /**
+     * Creates a grid covering a world of the given dimensions.
+     * @param worldWidth Width of the world in tiles.
+     * @param worldHeight Height of the world in tiles.
+     * @param cellSize Side length of a cell in tiles; best kept close to typical vision ranges.
+     */
+    SpatialGrid(int worldWidth, int worldHeight, int cellSize) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (worldWidth + cellSize - 1) / cellSize);
+        this.rows = Math.max(1, (worldHeight + cellSize - 1) / cellSize);
+        this.buckets = new ArrayList<>(columns * rows * SPECIES_COUNT);
+        for (int i = 0; i < columns * rows * SPECIES_COUNT; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    @Override
+    public void insert(Entity entity) {
+        bucketOf(cellIndex(entity.getX(), entity.getY()), entity).add(entity);
+    }
+
+    @Override
+    public void remove(Entity entity) {
+        bucketOf(cellIndex(entity.getX(), entity.getY()), entity).remove(entity);
+    }
+
+    @Override
+    public void move(Entity entity, int oldX, int oldY) {
+        int oldIndex = cellIndex(oldX, oldY);
+        int newIndex = cellIndex(entity.getX(), entity.getY());
+        if (oldIndex != newIndex) {
+            bucketOf(oldIndex, entity).remove(entity);
+            bucketOf(newIndex, entity).add(entity);
+        }
+    }
+
+    @Override
+    public void forEachInBox(int minX, int minY, int maxX, int maxY, int speciesMask, Consumer<Entity> visitor) {
+        int minCellX = cellX(minX), maxCellX = cellX(maxX);
+        int minCellY = cellY(minY), maxCellY = cellY(maxY);
+        for (int cy = minCellY; cy <= maxCellY; cy++) {
+            for (int cx = minCellX; cx <= maxCellX; cx++) {
+                for (int s = 0; s < SPECIES_COUNT; s++) {
+                    if ((speciesMask & (1 << s)) == 0) continue;
+                    List<Entity> bucket = getBucket(cx, cy, s);
+                    for (int i = 0; i < bucket.size(); i++) {
+                        Entity entity = bucket.get(i);
+                        int ex = entity.getX(), ey = entity.getY();
+                        if (ex >= minX && ex <= maxX && ey >= minY && ey <= maxY) {
+                            visitor.accept(entity);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Cells are searched in rings expanding outward from the point, and the search stops
+     * as soon as no unvisited ring can hold anything closer than the best match found so far.
+     */
+    @Override
+    public Entity findNearest(int x, int y, int maxRadius, int speciesMask, Predicate<Entity> predicate) {
+        int centerCellX = cellX(x);
+        int centerCellY = cellY(y);
+        int maxRing = Math.max(
+                Math.max(centerCellX - cellX(x - maxRadius), cellX(x + maxRadius) - centerCellX),
+                Math.max(centerCellY - cellY(y - maxRadius), cellY(y + maxRadius) - centerCellY));
+
+        Entity nearest = null;
+        long nearestDistSq = Long.MAX_VALUE;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (nearest != null) {
+                // Anything in this ring lies outside the box of inner rings, so it is at least this far away
+                long minRingDist = Math.min(
+                        Math.min(x - (centerCellX - ring + 1) * cellSize + 1, (centerCellX + ring) * cellSize - x),
+                        Math.min(y - (centerCellY - ring + 1) * cellSize + 1, (centerCellY + ring) * cellSize - y));
+                if (minRingDist > 0 && minRingDist * minRingDist > nearestDistSq) {
+                    break;
+                }
+            }
+
+            int minCellY = centerCellY - ring, maxCellY = centerCellY + ring;
+            int minCellX = centerCellX - ring, maxCellX = centerCellX + ring;
+            for (int cy = minCellY; cy <= maxCellY; cy++) {
+                if (cy < 0 || cy >= rows) continue;
+                // Top and bottom rows of the ring are walked in full, other rows only at their two ends
+                int step = (cy == minCellY || cy == maxCellY || ring == 0) ? 1 : 2 * ring;
+                for (int cx = minCellX; cx <= maxCellX; cx += step) {
+                    if (cx < 0 || cx >= columns) continue;
+                    for (int s = 0; s < SPECIES_COUNT; s++) {
+                        if ((speciesMask & (1 << s)) == 0) continue;
+                        List<Entity> bucket = getBucket(cx, cy, s);
+                        for (int i = 0; i < bucket.size(); i++) {
+                            Entity entity = bucket.get(i);
+                            int dx = entity.getX() - x;
+                            int dy = entity.getY() - y;
+                            if (Math.abs(dx) > maxRadius || Math.abs(dy) > maxRadius) continue;
+                            long distSq = (long) dx * dx + (long) dy * dy;
+                            if (distSq < nearestDistSq && predicate.test(entity)) {
+                                nearest = entity;
+                                nearestDistSq = distSq;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Gets the column of the cell containing a world x coordinate, clamped to the grid.
+     */
+    int cellX(double x) {
+        return clamp((int) Math.floor(x / cellSize), columns);
+    }
+
+    /**
+     * Gets the row of the cell containing a world y coordinate, clamped to the grid.
+     */
+    int cellY(double y) {
+        return clamp((int) Math.floor(y / cellSize), rows);
+    }
+
+    /**
+     * Gets the live contents of one species bucket of a cell. Callers must not modify the returned list.
+     * @param speciesOrdinal Ordinal of the SpeciesType whose bucket to return.
+     */
+    List<Entity> getBucket(int cellX, int cellY, int speciesOrdinal) {
+        return buckets.get((cellY * columns + cellX) * SPECIES_COUNT + speciesOrdinal);
+    }
+
+    private List<Entity> bucketOf(int cellIndex, Entity entity) {
+        return buckets.get(cellIndex * SPECIES_COUNT + entity.getSpeciesType().ordinal());
+    }
+
+    private int cellIndex(int x, int y) {
+        return cellY(y) * columns + cellX(x);
+    }
+
+    private static int clamp(int value, int size) {
+        return value < 0 ? 0 : (value >= size ? size - 1 : value);
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecoland.simulation;
+
+import com.ecoland.entity.Entity;
+import com.ecoland.entity.SpeciesType;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Spatial structure the EntityManager uses to answer location queries over living entities.
+ * Implementations track entities by tile position and are told about every insertion,
+ * removal and move, so queries never have to scan the whole population.
+ * Species filters are passed as bitmasks with bit (1 << SpeciesType.ordinal()) set for
+ * each species to include.
+ * Queries must be safe to run concurrently with each other; updates are made from one thread
+ * and never overlap with queries.
+ * The order entities are visited in, and which of several equally near entities findNearest
+ * returns, is up to the implementation, but must depend only on the sequence of updates, so
+ * that a seeded run with a given index repeats exactly.
+ */
+public interface SpatialIndex {
+    /** Number of species bits a species mask can hold. */
+    int SPECIES_COUNT = SpeciesType.values().length;
+
+    /** Species mask selecting every species. */
+    int ALL_SPECIES = (1 << SPECIES_COUNT) - 1;
+
+    /**
+     * Adds an entity at its current position.
+     */
+    void insert(Entity entity);
+
+    /**
+     * Removes an entity, which must still be at the position it was last inserted or moved to.
+     */
+    void remove(Entity entity);
+
+    /**
+     * Updates the index after an entity moved.
+     * @param entity The entity that moved.
+     * @param oldX X coordinate before the move.
+     * @param oldY Y coordinate before the move.
+     */
+    void move(Entity entity, int oldX, int oldY);
+
+    /**
+     * Visits every entity whose tile lies inside a box (bounds inclusive) and whose species is in the mask.
+     * The visitor must not add, remove or move entities.
+     * @param minX Smallest x coordinate to include.
+     * @param minY Smallest y coordinate to include.
+     * @param maxX Largest x coordinate to include.
+     * @param maxY Largest y coordinate to include.
+     * @param speciesMask Species to include.
+     * @param visitor Called once for each entity in the box.
+     */
+    void forEachInBox(int minX, int minY, int maxX, int maxY, int speciesMask, Consumer<Entity> visitor);
+
+    /**
+     * Finds the entity closest to a point (by straight-line distance) that matches a predicate,
+     * considering only entities within maxRadius of the point along each axis.
+     * @param x Center x coordinate.
+     * @param y Center y coordinate.
+     * @param maxRadius Maximum distance to search along each axis.
+     * @param speciesMask Species to include.
+     * @param predicate Filter the entity must satisfy.
+     * @return The nearest matching entity, or null if none is in range.
+     */
+    Entity findNearest(int x, int y, int maxRadius, int speciesMask, Predicate<Entity> predicate);
+
+    /**
+     * Gives the index a chance to reorganise itself. Called once per tick after the entity
+     * list has been updated; the default does nothing.
+     */
+    default void maintain() {
+    }
+
+    /**
+     * Builds a species mask selecting the given species.
+     */
+    static int speciesMask(Iterable<SpeciesType> speciesTypes) {
+        int mask = 0;
+        for (SpeciesType speciesType : speciesTypes) {
+            mask |= 1 << speciesType.ordinal();
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecoland.simulation;
+
+import com.ecoland.entity.Carnivore;
+import com.ecoland.entity.Entity;
+import com.ecoland.entity.Herbivore;
+import com.ecoland.entity.SpeciesType;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Compares the SpatialIndexType implementations on a dense small world and on a sparse,
+ * clustered large world, so the right index can be picked per scenario.
+ * Each round moves every entity one step, runs range and nearest-neighbour queries from
+ * every entity, and ends the tick, mirroring the access pattern of Simulation.tick.
+ *
+ * Usage: SpatialIndexBenchmark [rounds]
+ */
+public class SpatialIndexBenchmark {
+    private static final int WARMUP_ROUNDS = 20;
+    private static final double QUERY_RADIUS = 6.0;
+    private static final int NEAREST_RADIUS = 8;
+    private static final Set<SpeciesType> QUERY_SPECIES = EnumSet.of(SpeciesType.HERBIVORE, SpeciesType.CARNIVORE);
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        System.out.printf("%-16s %-16s %12s%n", "scenario", "index", "ms/round");
+        for (SpatialIndexType type : SpatialIndexType.values()) {
+            run("dense 100x100", type, 100, 100, 3000, 0, rounds);
+        }
+        for (SpatialIndexType type : SpatialIndexType.values()) {
+            run("sparse 2000x2000", type, 2000, 2000, 3000, 20, rounds);
+        }
+    }
+
+    /**
+     * Runs one scenario against one index type and prints the average time per round.
+     * @param clusters Number of clusters to place entities around, or 0 to spread them uniformly.
+     */
+    private static void run(String scenario, SpatialIndexType type, int width, int height,
+                            int population, int clusters, int rounds) {
+        Random random = new Random(42);
+        EntityManager entityManager = new EntityManager(width, height, type);
+        List<Entity> entities = new ArrayList<>(population);
+        int[][] centers = new int[Math.max(clusters, 1)][];
+        for (int i = 0; i < centers.length; i++) {
+            centers[i] = new int[] {random.nextInt(width), random.nextInt(height)};
+        }
+        for (int i = 0; i < population; i++) {
+            int x, y;
+            if (clusters > 0) {
+                int[] center = centers[random.nextInt(clusters)];
+                x = clamp(center[0] + (int) (random.nextGaussian() * 10), width);
+                y = clamp(center[1] + (int) (random.nextGaussian() * 10), height);
+            } else {
+                x = random.nextInt(width);
+                y = random.nextInt(height);
+            }
+            Entity entity = (i % 4 == 0) ? new Carnivore(x, y) : new Herbivore(x, y);
+            entities.add(entity);
+            entityManager.addEntity(entity);
+        }
+        entityManager.updateEntityList();
+
+        List<Entity> buffer = new ArrayList<>();
+        long checksum = 0;
+        long start = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + rounds; round++) {
+            if (round == WARMUP_ROUNDS) {
+                start = System.nanoTime();
+            }
+            for (Entity entity : entities) {
+                entity.setPosition(clamp(entity.getX() + random.nextInt(3) - 1, width),
+                        clamp(entity.getY() + random.nextInt(3) - 1, height));
+                checksum += entityManager.findEntitiesInRange(entity.getX(), entity.getY(), QUERY_RADIUS,
+                        QUERY_SPECIES, null, buffer).size();
+                Entity nearest = entityManager.findNearest(entity.getX(), entity.getY(), NEAREST_RADIUS,
+                        other -> other != entity);
+                if (nearest != null) {
+                    checksum++;
+                }
+            }
+            entityManager.updateEntityList();
+        }
+        double msPerRound = (System.nanoTime() - start) / 1e6 / rounds;
+        System.out.printf("%-16s %-16s %12.3f   (checksum %d)%n", scenario, type, msPerRound, checksum);
+    }
+
+    private static int clamp(int value, int size) {
+        return value < 0 ? 0 : (value >= size ? size - 1 : value);
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecoland.simulation;
+
+/**
+ * The spatial index implementations a Simulation can be constructed with.
+ * Every index finds the same entities, but each visits them, and picks among equally near
+ * ones, in its own order, and entities act on what they find in that order. The index type
+ * is therefore part of what makes a run reproducible: the same seed with a different index
+ * gives a different, equally valid, run.
+ */
+public enum SpatialIndexType {
+    GRID,            // Uniform bucketed grid; best for dense, evenly spread populations
+    LOOSE_QUADTREE,  // Adaptive quadtree; best for sparse, clustered populations in large worlds
+    KD_TREE;         // Balanced KD-tree with per-subtree bounding boxes, rebuilt periodically; needs no cell size
+
+    // Cell size of the uniform grid, in tiles; matches the largest default vision range
+    static final int GRID_CELL_SIZE = 8;
+
+    /**
+     * Creates an empty index of this type covering a world of the given dimensions.
+     * @param worldWidth Width of the world in tiles.
+     * @param worldHeight Height of the world in tiles.
+     * @return The new index.
+     */
+    SpatialIndex create(int worldWidth, int worldHeight) {
+        switch (this) {
+            case LOOSE_QUADTREE:
+                return new LooseQuadtree(worldWidth, worldHeight);
+            case KD_TREE:
+                return new KdTree();
+            case GRID:
+            default:
+                return new SpatialGrid(worldWidth, worldHeight, GRID_CELL_SIZE);
+        }
+    }
+}
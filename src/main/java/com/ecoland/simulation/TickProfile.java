@@ -0,0 +1,62 @@
+package com.ecoland.simulation;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable summary of recent tick timings, per phase of Simulation.tick.
+ * All times are in nanoseconds.
+ */
+public final class TickProfile {
+    /**
+     * Profile with no ticks recorded, returned while profiling is disabled.
+     */
+    public static final TickProfile EMPTY = new TickProfile(0, Collections.emptyList());
+
+    private final int tickCount;
+    private final List<PhaseTiming> phases;
+
+    TickProfile(int tickCount, List<PhaseTiming> phases) {
+        this.tickCount = tickCount;
+        this.phases = Collections.unmodifiableList(phases);
+    }
+
+    /**
+     * Gets the number of ticks the timings are taken over.
+     */
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Gets the timings of every phase in tick order, ending with the whole tick.
+     */
+    public List<PhaseTiming> getPhases() {
+        return phases;
+    }
+
+    /**
+     * Timings of one phase over the profiled ticks.
+     */
+    public static final class PhaseTiming {
+        private final String name;
+        private final long p50;
+        private final long p99;
+        private final long mean;
+        private final long max;
+
+        PhaseTiming(String name, long p50, long p99, long mean, long max) {
+            this.name = name;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.mean = mean;
+            this.max = max;
+        }
+
+        public String getName() { return name; }
+        public long getP50() { return p50; }
+        public long getP99() { return p99; }
+        public long getMean() { return mean; }
+        public long getMax() { return max; }
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecoland.simulation;
+
+import com.ecoland.entity.SpeciesType;
+
+import java.util.Arrays;
+
+/**
+ * Records how long each phase of Simulation.tick takes, over a rolling window of recent ticks.
+ * Phase times within a tick are accumulated (the update phase of a species is the sum over its
+ * entities) and stored once per tick when the tick ends. Only used by the thread that ticks
+ * the simulation.
+ */
+class TickProfiler {
+    // Number of most recent ticks kept for each phase
+    static final int WINDOW = 512;
+
+    private static final SpeciesType[] SPECIES = SpeciesType.values();
+
+    // Phase indices; the update phases run from UPDATE to UPDATE + species count - 1, by ordinal
+    static final int DECIDE = 0;
+    static final int UPDATE = 1;
+    static final int UPDATE_ENTITY_LIST = UPDATE + SPECIES.length;
+    static final int RECORD_TICK = UPDATE_ENTITY_LIST + 1;
+    static final int WORLD_STATE = RECORD_TICK + 1;
+    static final int TOTAL = WORLD_STATE + 1;
+    private static final int PHASE_COUNT = TOTAL + 1;
+
+    private static final String[] PHASE_NAMES = phaseNames();
+
+    private final long[] current = new long[PHASE_COUNT];
+    private final long[][] samples = new long[PHASE_COUNT][WINDOW];
+    private int next = 0;
+    private long recordedTicks = 0;
+
+    private static String[] phaseNames() {
+        String[] names = new String[PHASE_COUNT];
+        names[DECIDE] = "decide";
+        for (SpeciesType type : SPECIES) {
+            names[UPDATE + type.ordinal()] = "update " + type.name().toLowerCase();
+        }
+        names[UPDATE_ENTITY_LIST] = "updateEntityList";
+        names[RECORD_TICK] = "recordTick";
+        names[WORLD_STATE] = "updateWorldState";
+        names[TOTAL] = "total";
+        return names;
+    }
+
+    /**
+     * Gets the update phase of a species.
+     */
+    static int updatePhase(SpeciesType speciesType) {
+        return UPDATE + speciesType.ordinal();
+    }
+
+    /**
+     * Starts timing a new tick.
+     */
+    void beginTick() {
+        Arrays.fill(current, 0);
+    }
+
+    /**
+     * Adds the time since a mark to a phase of the current tick.
+     * @param phase The phase the time was spent in.
+     * @param since System.nanoTime() at the start of the interval.
+     * @return System.nanoTime() now, to pass as the mark of the next interval.
+     */
+    long lap(int phase, long since) {
+        long now = System.nanoTime();
+        current[phase] += now - since;
+        return now;
+    }
+
+    /**
+     * Ends the current tick and stores its phase times in the rolling window.
+     * @param tickStart System.nanoTime() when the tick began.
+     */
+    void endTick(long tickStart) {
+        current[TOTAL] = System.nanoTime() - tickStart;
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            samples[phase][next] = current[phase];
+        }
+        next = (next + 1) % WINDOW;
+        recordedTicks++;
+    }
+
+    /**
+     * Summarises the ticks in the window.
+     */
+    TickProfile snapshot() {
+        int count = (int) Math.min(recordedTicks, WINDOW);
+        TickProfile.PhaseTiming[] phases = new TickProfile.PhaseTiming[PHASE_COUNT];
+        long[] sorted = new long[count];
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            System.arraycopy(samples[phase], 0, sorted, 0, count);
+            Arrays.sort(sorted);
+            long sum = 0;
+            for (long sample : sorted) {
+                sum += sample;
+            }
+            phases[phase] = new TickProfile.PhaseTiming(PHASE_NAMES[phase],
+                    percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    count > 0 ? sum / count : 0, count > 0 ? sorted[count - 1] : 0);
+        }
+        return new TickProfile(count, Arrays.asList(phases));
+    }
+
+    // Nearest-rank percentile of a sorted array
+    private static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
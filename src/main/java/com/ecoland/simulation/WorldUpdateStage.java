@@ -0,0 +1,138 @@
+package com.ecoland.simulation;
+
+import com.ecoland.model.Tile;
+import com.ecoland.model.World;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs per-tile passes over the world, split into bands of rows that are processed in parallel
+ * on a fork/join pool. Small worlds, and simulations without a pool, are processed serially
+ * on the calling thread.
+ * A pass sees every tile exactly once and must only change the tile it is given (reading other
+ * tiles is fine as long as no pass running alongside changes them), and must not draw from
+ * RandomStreams. Changing a tile also moves it in the world's shared regrowth schedule, so each
+ * band collects those moves in its own buffer and the stage files them serially, in row order,
+ * once every band is done. The result then does not depend on how the rows are split, so the
+ * stage is deterministic at any thread count.
+ */
+public class WorldUpdateStage {
+    // Worlds with fewer tiles than this are processed serially; forking costs more than it saves
+    static final int SERIAL_THRESHOLD_TILES = 64 * 64;
+
+    // Number of tiles one band task handles before it stops splitting
+    private static final int BAND_TILES = 16 * 1024;
+
+    /**
+     * A per-tile environmental pass, such as moisture diffusion or seasonal change.
+     */
+    @FunctionalInterface
+    public interface TilePass {
+        /**
+         * Processes one tile.
+         * @param x Column of the tile.
+         * @param y Row of the tile.
+         * @param tile The tile at (x, y).
+         */
+        void apply(int x, int y, Tile tile);
+    }
+
+    private final World world;
+    private ForkJoinPool pool;
+
+    /**
+     * Creates a stage for a world.
+     * @param world The world whose tiles the passes visit.
+     * @param pool Pool to run bands on, or null to always run serially.
+     */
+    WorldUpdateStage(World world, ForkJoinPool pool) {
+        this.world = world;
+        this.pool = pool;
+    }
+
+    void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Runs a pass over every tile of the world and returns once all bands are done and the
+     * tiles they changed have been rescheduled.
+     * @param pass The pass to run.
+     */
+    public void run(TilePass pass) {
+        int width = world.getWidth();
+        int height = world.getHeight();
+        if (pool == null || (long) width * height < SERIAL_THRESHOLD_TILES) {
+            List<Tile> reschedules = new ArrayList<>();
+            runRows(pass, 0, height, reschedules);
+            world.applyReschedules(reschedules);
+        } else {
+            int rowsPerBand = Math.max(1, BAND_TILES / width);
+            // Each band's buffer is stored at its first row, so reading them in order is row order
+            List<List<Tile>> bandReschedules = new ArrayList<>(height);
+            for (int y = 0; y < height; y++) {
+                bandReschedules.add(null);
+            }
+            pool.invoke(new BandTask(pass, 0, height, rowsPerBand, bandReschedules));
+            for (List<Tile> reschedules : bandReschedules) {
+                if (reschedules != null) {
+                    world.applyReschedules(reschedules);
+                }
+            }
+        }
+    }
+
+    private void runRows(TilePass pass, int fromY, int toY, List<Tile> reschedules) {
+        int width = world.getWidth();
+        List<Tile> previous = world.deferReschedules(reschedules);
+        try {
+            for (int y = fromY; y < toY; y++) {
+                for (int x = 0; x < width; x++) {
+                    Tile tile = world.getTile(x, y);
+                    if (tile != null) {
+                        pass.apply(x, y, tile);
+                    }
+                }
+            }
+        } finally {
+            world.deferReschedules(previous);
+        }
+    }
+
+    /**
+     * Fork/join task running a pass over the rows [fromY, toY), halving until a band is small enough.
+     */
+    private class BandTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final TilePass pass;
+        private final int fromY;
+        private final int toY;
+        private final int rowsPerBand;
+        private final List<List<Tile>> bandReschedules;
+
+        BandTask(TilePass pass, int fromY, int toY, int rowsPerBand, List<List<Tile>> bandReschedules) {
+            this.pass = pass;
+            this.fromY = fromY;
+            this.toY = toY;
+            this.rowsPerBand = rowsPerBand;
+            this.bandReschedules = bandReschedules;
+        }
+
+        @Override
+        protected void compute() {
+            if (toY - fromY <= rowsPerBand) {
+                List<Tile> reschedules = new ArrayList<>();
+                runRows(pass, fromY, toY, reschedules);
+                bandReschedules.set(fromY, reschedules);
+                return;
+            }
+            int mid = (fromY + toY) >>> 1;
+            invokeAll(new BandTask(pass, fromY, mid, rowsPerBand, bandReschedules),
+                    new BandTask(pass, mid, toY, rowsPerBand, bandReschedules));
+        }
+    }
+}
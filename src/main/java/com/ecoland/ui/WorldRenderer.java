@@ -1,16 +1,14 @@
 package com.ecoland.ui;
 
-import com.ecoland.entity.Entity;
 import com.ecoland.entity.SpeciesType;
 import com.ecoland.model.TerrainType;
 import com.ecoland.model.Tile;
 import com.ecoland.model.World;
+import com.ecoland.simulation.RenderSnapshot;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
-import java.util.List;
-
 public class WorldRenderer {
 
     private final Canvas canvas;
@@ -68,7 +66,11 @@ public class WorldRenderer {
         if (this.tileSize < 1) this.tileSize = 1; // Ensure tiles are at least 1 pixel
     }
 
-    public void render(List<Entity> entities) {
+    /**
+     * Draws a snapshot of the simulation. Terrain comes from the world, which does not change
+     * during a run; food and entities come from the snapshot, so the live simulation is never read.
+     */
+    public void render(RenderSnapshot snapshot) {
         GraphicsContext gc = canvas.getGraphicsContext2D();
         double canvasWidth = canvas.getWidth();
         double canvasHeight = canvas.getHeight();
@@ -93,7 +95,7 @@ public class WorldRenderer {
             for (int y = startY; y < endY; y++) {
                 Tile tile = world.getTile(x, y);
                 if (tile != null) {
-                    gc.setFill(getTerrainColor(tile.getTerrainType(), tile));
+                    gc.setFill(getTerrainColor(tile.getTerrainType(), tile, snapshot.getTileFood(x, y)));
                     double drawX = (x * effectiveTileSize) - viewportX;
                     double drawY = (y * effectiveTileSize) - viewportY;
                     gc.fillRect(drawX, drawY, effectiveTileSize, effectiveTileSize);
@@ -103,10 +105,11 @@ public class WorldRenderer {
 
         // 2. Draw Dead Bodies (Draw them before live entities so live ones appear on top)
         double deadBodyRadius = effectiveTileSize * 0.3;
-        for (Entity entity : entities) {
-            if (entity.isDeadBody()) {
-                int x = entity.getX();
-                int y = entity.getY();
+        int entityCount = snapshot.getEntityCount();
+        for (int i = 0; i < entityCount; i++) {
+            if (!snapshot.isAlive(i)) {
+                int x = snapshot.getX(i);
+                int y = snapshot.getY(i);
                 
                 // Skip if entity is outside the visible area
                 if (x < startX || x >= endX || y < startY || y >= endY) {
@@ -127,17 +130,17 @@ public class WorldRenderer {
 
         // 3. Draw Live Entities (only those in the visible area)
         double entityRadius = effectiveTileSize * 0.4;
-        for (Entity entity : entities) {
-            if (entity.isAlive()) {
-                int x = entity.getX();
-                int y = entity.getY();
+        for (int i = 0; i < entityCount; i++) {
+            if (snapshot.isAlive(i)) {
+                int x = snapshot.getX(i);
+                int y = snapshot.getY(i);
                 
                 // Skip if entity is outside the visible area
                 if (x < startX || x >= endX || y < startY || y >= endY) {
                     continue;
                 }
                 
-                gc.setFill(getEntityColor(entity.getSpeciesType()));
+                gc.setFill(getEntityColor(snapshot.getSpeciesType(i)));
                 double drawX = ((x + 0.5) * effectiveTileSize) - viewportX - entityRadius;
                 double drawY = ((y + 0.5) * effectiveTileSize) - viewportY - entityRadius;
                 gc.fillOval(drawX, drawY, entityRadius * 2, entityRadius * 2);
@@ -145,7 +148,7 @@ public class WorldRenderer {
                 // Optional: Draw health/energy indicators
                 if (effectiveTileSize > 10) { // Only if tiles are large enough
                     // Draw health bar above entity
-                    double healthRatio = entity.getHealth() / entity.getMaxHealth();
+                    double healthRatio = snapshot.getHealthRatio(i);
                     double barWidth = effectiveTileSize * 0.8;
                     double barHeight = effectiveTileSize * 0.1;
                     double barX = ((x + 0.1) * effectiveTileSize) - viewportX;
@@ -180,7 +183,7 @@ public class WorldRenderer {
         }
     }
 
-    private Color getTerrainColor(TerrainType type, Tile tile) {
+    private Color getTerrainColor(TerrainType type, Tile tile, double plantFood) {
         Color baseColor;
         switch (type) {
             case WATER: baseColor = WATER_COLOR; break;
@@ -193,7 +196,7 @@ public class WorldRenderer {
 
         // Adjust color based on properties like food value (for grass)
         if (type == TerrainType.GRASS || type == TerrainType.FOREST) {
-            double foodRatio = Math.min(1.0, tile.getPlantFoodValue() / 5.0); // Increased range to 5.0 to make changes more visible
+            double foodRatio = Math.min(1.0, plantFood / 5.0); // Increased range to 5.0 to make changes more visible
             // Blend base color with a darker green based on food amount (increased weight to 0.8)
             return baseColor.interpolate(Color.DARKGREEN, foodRatio * 0.8); // Make greener with more food
         }
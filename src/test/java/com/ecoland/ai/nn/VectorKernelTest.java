@@ -0,0 +1,144 @@
+package com.ecoland.ai.nn;
+
+import com.ecoland.common.RandomStreams;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks the Vector API kernel against the scalar loops on random networks and on blocks laid
+ * out as BatchInference stores them. Only the order the products are summed in, and the
+ * vectorised exp, differ, so with at most a few dozen terms of size up to a few units the sums
+ * agree to about 1e-14, and every activation has slope at most 1/4: outputs must agree within
+ * TOLERANCE. Skipped when jdk.incubator.vector is not in the test JVM.
+ */
+class VectorKernelTest {
+    private static final double TOLERANCE = 1e-12;
+
+    // Layer widths (inputs, hidden, outputs); none but the first is a multiple of every lane
+    // count (2, 4 or 8 doubles), so both the vector loops and their scalar tails run
+    private static final int[][] SHAPES = {
+            {1, 1, 1}, {3, 5, 2}, {7, 13, 3}, {9, 11, 6}, {17, 9, 5}, {18, 12, 5}, {33, 31, 13}
+    };
+
+    private static final int NETWORKS_PER_SHAPE = 20;
+    private static final int INPUTS_PER_NETWORK = 10;
+
+    // Individuals per BatchInference block, and block fills including partial vectors
+    private static final int STRIDE = 64;
+    private static final int[] BLOCK_FILLS = {1, 3, 7, 13, 33, 63, 64};
+
+    private static LayerKernel kernel;
+
+    @BeforeAll
+    static void loadKernel() throws ReflectiveOperationException {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(),
+                "jdk.incubator.vector is not present");
+        kernel = NeuralNetwork.loadVectorKernel();
+    }
+
+    @Test
+    void passesSelfTest() {
+        assertTrue(NeuralNetwork.selfTest(kernel));
+    }
+
+    @Test
+    void matchesScalarFeedForward() {
+        for (Activation activation : Activation.values()) {
+            compareRandomNetworks(activation);
+        }
+    }
+
+    @Test
+    void matchesScalarLayerBlock() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (Activation activation : Activation.values()) {
+            for (int[] shape : SHAPES) {
+                for (int n : BLOCK_FILLS) {
+                    compareLayerBlock(random, shape[0], shape[1], n, activation);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs one block layer on the kernel and on the scalar loops, with the rows placed at
+     * non-zero offsets of shared arrays as BatchInference stores them.
+     */
+    private void compareLayerBlock(SplittableRandom random, int inSize, int outSize, int n, Activation activation) {
+        int inOffset = STRIDE;
+        int weightOffset = 2 * STRIDE;
+        int biasOffset = weightOffset + outSize * inSize * STRIDE;
+        int outOffset = 3 * STRIDE;
+        double[] in = randomValues(random, inOffset + inSize * STRIDE, 3);
+        double[] parameters = randomValues(random, biasOffset + outSize * STRIDE, 1);
+        double[] scalar = new double[outOffset + outSize * STRIDE];
+        double[] vector = new double[scalar.length];
+
+        for (int j = 0; j < outSize; j++) {
+            for (int c = 0; c < n; c++) {
+                double sum = parameters[biasOffset + j * STRIDE + c];
+                for (int i = 0; i < inSize; i++) {
+                    sum += in[inOffset + i * STRIDE + c] * parameters[weightOffset + (j * inSize + i) * STRIDE + c];
+                }
+                scalar[outOffset + j * STRIDE + c] = activation.apply(sum);
+            }
+        }
+        kernel.layerBlock(in, inOffset, inSize, parameters, weightOffset, biasOffset, vector, outOffset, outSize, n,
+                STRIDE, activation);
+
+        for (int j = 0; j < outSize; j++) {
+            for (int c = 0; c < STRIDE; c++) {
+                int index = outOffset + j * STRIDE + c;
+                String where = activation + " neuron " + j + " individual " + c + " of " + n + ", "
+                        + inSize + " inputs";
+                if (c < n) {
+                    assertEquals(scalar[index], vector[index], TOLERANCE, where);
+                } else {
+                    assertEquals(0.0, vector[index], 0.0, where + " was written past the block fill");
+                }
+            }
+        }
+    }
+
+    private static double[] randomValues(SplittableRandom random, int length, double range) {
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = (random.nextDouble() * 2 - 1) * range;
+        }
+        return values;
+    }
+
+    private void compareRandomNetworks(Activation activation) {
+        SplittableRandom random = new SplittableRandom(42);
+        SplittableRandom previous = RandomStreams.bind(random);
+        try {
+            for (int[] shape : SHAPES) {
+                for (int n = 0; n < NETWORKS_PER_SHAPE; n++) {
+                    NeuralNetwork network = new NeuralNetwork(shape[0], shape[1], shape[2], WeightPrecision.DOUBLE);
+                    for (int t = 0; t < INPUTS_PER_NETWORK; t++) {
+                        double[] inputs = new double[shape[0]];
+                        for (int i = 0; i < inputs.length; i++) {
+                            inputs[i] = random.nextDouble() * 6 - 3;
+                        }
+                        double[] scalar = new double[shape[2]];
+                        double[] vector = new double[shape[2]];
+                        network.feedForward(inputs, new double[shape[1]], scalar, activation, null);
+                        network.feedForward(inputs, new double[shape[1]], vector, activation, kernel);
+                        for (int k = 0; k < scalar.length; k++) {
+                            assertEquals(scalar[k], vector[k], TOLERANCE, activation + " output " + k + " of "
+                                    + shape[0] + "x" + shape[1] + "x" + shape[2]);
+                        }
+                    }
+                }
+            }
+        } finally {
+            RandomStreams.bind(previous);
+        }
+    }
+}
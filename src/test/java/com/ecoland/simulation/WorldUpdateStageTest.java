@@ -0,0 +1,100 @@
+package com.ecoland.simulation;
+
+import com.ecoland.model.BiomeType;
+import com.ecoland.model.TerrainType;
+import com.ecoland.model.Tile;
+import com.ecoland.model.World;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a pass changing tiles gives the same world at any parallelism: every tile change
+ * moves the tile in the world's shared regrowth schedule, which the stage must not let band
+ * threads touch at the same time.
+ */
+class WorldUpdateStageTest {
+    // Large enough to be split into several bands
+    private static final int WIDTH = 128;
+    private static final int HEIGHT = 512;
+    private static final int ROUNDS = 40;
+
+    @Test
+    void mutatingPassIsIdenticalAtParallelismOneAndFour() {
+        World serial = createWorld(7L);
+        World parallel = createWorld(7L);
+        ForkJoinPool onePool = new ForkJoinPool(1);
+        ForkJoinPool fourPool = new ForkJoinPool(4);
+        try {
+            WorldUpdateStage serialStage = new WorldUpdateStage(serial, onePool);
+            WorldUpdateStage parallelStage = new WorldUpdateStage(parallel, fourPool);
+            for (int round = 0; round < ROUNDS; round++) {
+                WorldUpdateStage.TilePass pass = grazingPass(round);
+                serialStage.run(pass);
+                parallelStage.run(pass);
+                assertSameWorld(serial, parallel, round);
+
+                serial.advanceRegrowth();
+                parallel.advanceRegrowth();
+                assertSameWorld(serial, parallel, round);
+            }
+            assertTrue(serial.getRegrowingTileCount() > 0, "the pass should leave tiles regrowing");
+        } finally {
+            onePool.shutdown();
+            fourPool.shutdown();
+        }
+    }
+
+    /**
+     * A pass that eats from most tiles and refills or fertilises some, so tiles move both later
+     * and earlier in the schedule, and some stop regrowing.
+     */
+    private static WorldUpdateStage.TilePass grazingPass(int round) {
+        return (x, y, tile) -> {
+            int hash = (x * 31 + y * 17 + round * 13) % 11;
+            if (hash < 7) {
+                tile.consumePlantFood(hash * 0.05);
+            } else if (hash < 9) {
+                tile.growPlantFood(0.1);
+            } else if (hash == 9) {
+                tile.setPlantFoodValue(tile.getMaxPlantFood());
+            } else {
+                tile.setFertility(tile.getFertility() * 0.9);
+            }
+        };
+    }
+
+    private static World createWorld(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        TerrainType[] terrains = {TerrainType.GRASS, TerrainType.FOREST, TerrainType.DESERT};
+        BiomeType[] biomes = {BiomeType.PLAINS, BiomeType.FOREST, BiomeType.SWAMP};
+        World world = new World(WIDTH, HEIGHT, false);
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                int kind = random.nextInt(terrains.length);
+                world.setTile(x, y, new Tile(terrains[kind], biomes[kind], random.nextDouble(), 0.0,
+                        random.nextDouble(), random.nextDouble(), random.nextDouble()));
+            }
+        }
+        return world;
+    }
+
+    private static void assertSameWorld(World expected, World actual, int round) {
+        assertEquals(expected.getRegrowingTileCount(), actual.getRegrowingTileCount(),
+                "regrowing tiles after round " + round);
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                Tile want = expected.getTile(x, y);
+                Tile got = actual.getTile(x, y);
+                assertEquals(want.getPlantFoodValue(), got.getPlantFoodValue(), 0.0,
+                        "food at (" + x + ", " + y + ") after round " + round);
+                assertEquals(want.getFertility(), got.getFertility(), 0.0,
+                        "fertility at (" + x + ", " + y + ") after round " + round);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.ecoland.ai.nn;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Evaluates network layers with the JDK Vector API, and applies the sigmoid a vector at a time.
+ * For a single network each neuron's dot product runs several weights per instruction; its
+ * lanes are summed in a different order from the scalar loop, so outputs agree with it to
+ * rounding, not bit for bit. For a BatchInference block each lane is one individual, so every
+ * sum is taken in scalar order and only the vectorised sigmoid can differ by rounding.
+ * Only loaded when NeuralNetwork enables it, since jdk.incubator.vector must be added to the
+ * JVM explicitly.
+ */
+final class VectorKernel implements LayerKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    // Created by NeuralNetwork through reflection
+    VectorKernel() {
+    }
+
+    @Override
+    public void layer(double[] in, int inSize, double[] weights, double[] biases, double[] out, int outSize,
+                      Activation activation) {
+        int inBound = SPECIES.loopBound(inSize);
+        for (int j = 0; j < outSize; j++) {
+            int row = j * inSize;
+            DoubleVector acc = DoubleVector.zero(SPECIES);
+            int i = 0;
+            for (; i < inBound; i += SPECIES.length()) {
+                DoubleVector x = DoubleVector.fromArray(SPECIES, in, i);
+                DoubleVector w = DoubleVector.fromArray(SPECIES, weights, row + i);
+                acc = x.fma(w, acc);
+            }
+            double sum = biases[j] + acc.reduceLanes(VectorOperators.ADD);
+            for (; i < inSize; i++) {
+                sum += in[i] * weights[row + i];
+            }
+            out[j] = sum;
+        }
+        activate(out, 0, outSize, activation);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Runs a vector of individuals at a time, with the individuals past the last whole vector
+     * done one by one.
+     */
+    @Override
+    public void layerBlock(double[] in, int inOffset, int inSize, double[] parameters, int weightOffset,
+                           int biasOffset, double[] out, int outOffset, int outSize, int n, int stride,
+                           Activation activation) {
+        int laneBound = SPECIES.loopBound(n);
+        for (int j = 0; j < outSize; j++) {
+            int o = outOffset + j * stride;
+            int bias = biasOffset + j * stride;
+            int weights = weightOffset + j * inSize * stride;
+            int c = 0;
+            for (; c < laneBound; c += SPECIES.length()) {
+                DoubleVector sum = DoubleVector.fromArray(SPECIES, parameters, bias + c);
+                for (int i = 0; i < inSize; i++) {
+                    DoubleVector x = DoubleVector.fromArray(SPECIES, in, inOffset + i * stride + c);
+                    DoubleVector w = DoubleVector.fromArray(SPECIES, parameters, weights + i * stride + c);
+                    // Multiply then add rather than fma, so each lane rounds as the scalar loop does
+                    sum = sum.add(x.mul(w));
+                }
+                sum.intoArray(out, o + c);
+            }
+            for (; c < n; c++) {
+                double sum = parameters[bias + c];
+                for (int i = 0; i < inSize; i++) {
+                    sum += in[inOffset + i * stride + c] * parameters[weights + i * stride + c];
+                }
+                out[o + c] = sum;
+            }
+            activate(out, o, n, activation);
+        }
+    }
+
+    /**
+     * Applies the activation to values [from, from + count). The exact sigmoid is vectorised;
+     * approximate activations are applied by the activation itself.
+     */
+    private static void activate(double[] values, int from, int count, Activation activation) {
+        if (activation != Activation.EXACT) {
+            activation.applyAll(values, from, from + count);
+            return;
+        }
+        int bound = from + SPECIES.loopBound(count);
+        int j = from;
+        for (; j < bound; j += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, values, j);
+            DoubleVector.broadcast(SPECIES, 1.0).div(v.neg().lanewise(VectorOperators.EXP).add(1.0)).intoArray(values, j);
+        }
+        for (; j < from + count; j++) {
+            values[j] = NeuralNetwork.sigmoid(values[j]);
+        }
+    }
+}